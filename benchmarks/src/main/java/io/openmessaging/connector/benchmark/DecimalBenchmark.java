@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.benchmark;
+
+import io.openmessaging.connector.api.data.Schema;
+import io.openmessaging.connector.api.data.logical.Decimal;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Decimal} encoding and decoding of a value whose unscaled value fits in a long, which takes the long path, and
+ * of a larger one, which goes through {@link BigInteger}, against the BigInteger round trip both used to take.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DecimalBenchmark {
+
+    @Param({"12345.67", "-98765432109876543210.12345"})
+    public String value;
+
+    private Schema schema;
+    private BigDecimal decimal;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        decimal = new BigDecimal(value);
+        schema = Decimal.schema(decimal.scale());
+        encoded = Decimal.fromLogical(schema, decimal);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return Decimal.fromLogical(schema, decimal);
+    }
+
+    @Benchmark
+    public byte[] encodeBigInteger() {
+        return decimal.unscaledValue().toByteArray();
+    }
+
+    @Benchmark
+    public BigDecimal decode() {
+        return Decimal.toLogical(schema, encoded);
+    }
+
+    @Benchmark
+    public BigDecimal decodeBigInteger() {
+        return new BigDecimal(new BigInteger(encoded), decimal.scale());
+    }
+}
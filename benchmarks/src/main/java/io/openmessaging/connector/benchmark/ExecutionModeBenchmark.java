@@ -0,0 +1,194 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.benchmark;
+
+import io.openmessaging.KeyValue;
+import io.openmessaging.connector.api.component.task.sink.SinkConnector;
+import io.openmessaging.connector.api.component.task.sink.SinkTask;
+import io.openmessaging.connector.api.component.task.source.SourceConnector;
+import io.openmessaging.connector.api.component.task.source.SourceTask;
+import io.openmessaging.connector.api.data.ConnectRecord;
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+import io.openmessaging.connector.runtime.ExecutionMode;
+import io.openmessaging.connector.runtime.Worker;
+import io.openmessaging.connector.runtime.WorkerConfig;
+import io.openmessaging.internal.DefaultKeyValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to move a fixed number of records from many source tasks whose polls block, like tasks waiting on a remote
+ * system, through an in-memory worker to the sink tasks, with the task loops on platform or virtual threads. Virtual
+ * threads only take effect on JDK 21 and later.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ExecutionModeBenchmark {
+
+    static final int SINK_TASKS = 8;
+    static final int RECORDS_PER_TASK = 1000;
+    static final int RECORDS_PER_POLL = 100;
+    static final long POLL_MILLIS = 1;
+
+    static final AtomicLong RECEIVED = new AtomicLong();
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ExecutionMode mode;
+
+    @Param({"100", "1000", "2000"})
+    public int tasks;
+
+    @Benchmark
+    public long transfer() throws InterruptedException {
+        return transfer(mode, tasks);
+    }
+
+    static long transfer(ExecutionMode mode, int tasks) throws InterruptedException {
+        WorkerConfig config = new WorkerConfig();
+        config.setExecutionMode(mode);
+        config.setQueueCapacity(4096);
+        config.setBatchSize(RECORDS_PER_POLL);
+        Worker worker = new Worker(config);
+        RECEIVED.set(0);
+        long expected = (long) tasks * RECORDS_PER_TASK;
+        try {
+            worker.startSinkConnector("sink", new LoadSinkConnector(), new DefaultKeyValue(), SINK_TASKS, null);
+            worker.startSourceConnector("source", new LoadSourceConnector(), new DefaultKeyValue(), tasks);
+            while (RECEIVED.get() < expected) {
+                Thread.sleep(1);
+            }
+        } finally {
+            worker.stop();
+        }
+        return RECEIVED.get();
+    }
+
+    private static List<KeyValue> taskConfigs(int count) {
+        List<KeyValue> configs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            configs.add(new DefaultKeyValue().put("task", i));
+        }
+        return configs;
+    }
+
+    public static class LoadSourceConnector extends SourceConnector {
+
+        @Override
+        public List<KeyValue> taskConfigs(int maxTasks) {
+            return ExecutionModeBenchmark.taskConfigs(maxTasks);
+        }
+
+        @Override
+        public Class<LoadSourceTask> taskClass() {
+            return LoadSourceTask.class;
+        }
+
+        @Override
+        public void start(KeyValue config) {
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+
+    /**
+     * Polls its records in batches, blocking for {@link #POLL_MILLIS} per poll.
+     */
+    public static class LoadSourceTask extends SourceTask {
+
+        private RecordPartition partition;
+        private final AtomicInteger next = new AtomicInteger();
+
+        @Override
+        public List<ConnectRecord> poll() throws InterruptedException {
+            Thread.sleep(POLL_MILLIS);
+            List<ConnectRecord> records = new ArrayList<>(RECORDS_PER_POLL);
+            while (records.size() < RECORDS_PER_POLL && next.get() < RECORDS_PER_TASK) {
+                int offset = next.getAndIncrement();
+                records.add(new ConnectRecord(partition, new RecordOffset(Collections.singletonMap("offset", offset)),
+                    System.currentTimeMillis(), null, offset));
+            }
+            return records;
+        }
+
+        @Override
+        public void start(KeyValue config) {
+            partition = new RecordPartition(Collections.singletonMap("task", config.getInt("task")));
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+
+    public static class LoadSinkConnector extends SinkConnector {
+
+        @Override
+        public List<KeyValue> taskConfigs(int maxTasks) {
+            return ExecutionModeBenchmark.taskConfigs(maxTasks);
+        }
+
+        @Override
+        public Class<LoadSinkTask> taskClass() {
+            return LoadSinkTask.class;
+        }
+
+        @Override
+        public void start(KeyValue config) {
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+
+    public static class LoadSinkTask extends SinkTask {
+
+        @Override
+        public void put(List<ConnectRecord> sinkRecords) {
+            RECEIVED.addAndGet(sinkRecords.size());
+        }
+
+        @Override
+        public void start(KeyValue config) {
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.openmessaging.connector.benchmark;
+
+import io.openmessaging.connector.api.data.FieldHandle;
+import io.openmessaging.connector.api.data.Schema;
+import io.openmessaging.connector.api.data.SchemaBuilder;
+import io.openmessaging.connector.api.data.Struct;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Typed {@link Struct} access through a {@link FieldHandle} resolved once, against the lookup by field name, on
+ * structs of a growing number of fields.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FieldAccessBenchmark {
+
+    @Param({"4", "16", "64"})
+    public int fields;
+
+    private Struct struct;
+    /**
+     * name of the field accessed, the last one of the schema
+     */
+    private String name;
+    private FieldHandle handle;
+    private long next;
+
+    @Setup
+    public void setup() {
+        SchemaBuilder builder = SchemaBuilder.struct().name("row");
+        for (int i = 0; i < fields; i++) {
+            builder.field("field" + i, SchemaBuilder.int64().build());
+        }
+        Schema schema = builder.build();
+        struct = new Struct(schema);
+        for (int i = 0; i < fields; i++) {
+            struct.put("field" + i, (long) i);
+        }
+        name = "field" + (fields - 1);
+        handle = schema.fieldHandle(name);
+    }
+
+    @Benchmark
+    public Long getByName() {
+        return struct.getInt64(name);
+    }
+
+    @Benchmark
+    public Long getByHandle() {
+        return struct.getInt64(handle);
+    }
+
+    @Benchmark
+    public Struct putByName() {
+        return struct.put(name, next++);
+    }
+
+    @Benchmark
+    public Struct putByHandle() {
+        return struct.put(handle, next++);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.benchmark;
+
+import io.openmessaging.connector.api.data.logical.Date;
+import io.openmessaging.connector.api.data.logical.Time;
+import io.openmessaging.connector.api.data.logical.Timestamp;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversions of the {@link Date}, {@link Time} and {@link Timestamp} logical types, from and to
+ * {@link java.util.Date}, epoch millis and java.time, with the UTC {@link Calendar} the Date conversion used to go
+ * through as a baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LogicalTimeBenchmark {
+
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private int days = 19000;
+    private long dateMillis = days * MILLIS_PER_DAY;
+    private java.util.Date date = new java.util.Date(dateMillis);
+    private LocalDate localDate = LocalDate.ofEpochDay(days);
+
+    private int timeMillis = 45296789;
+    private java.util.Date time = new java.util.Date(timeMillis);
+    private LocalTime localTime = LocalTime.ofNanoOfDay(TimeUnit.MILLISECONDS.toNanos(timeMillis));
+
+    private long timestampMillis = dateMillis + timeMillis;
+    private java.util.Date timestamp = new java.util.Date(timestampMillis);
+    private Instant instant = Instant.ofEpochMilli(timestampMillis);
+
+    @Benchmark
+    public int dateFromLogicalCalendar() {
+        Calendar calendar = Calendar.getInstance(UTC);
+        calendar.setTime(date);
+        if (calendar.get(Calendar.HOUR_OF_DAY) != 0 || calendar.get(Calendar.MINUTE) != 0
+                || calendar.get(Calendar.SECOND) != 0 || calendar.get(Calendar.MILLISECOND) != 0) {
+            throw new IllegalStateException();
+        }
+        return (int) (calendar.getTimeInMillis() / MILLIS_PER_DAY);
+    }
+
+    @Benchmark
+    public int dateFromLogical() {
+        return Date.fromLogical(Date.SCHEMA, date);
+    }
+
+    @Benchmark
+    public int dateFromEpochMillis() {
+        return Date.fromEpochMillis(Date.SCHEMA, dateMillis);
+    }
+
+    @Benchmark
+    public int dateFromLocalDate() {
+        return Date.fromLocalDate(Date.SCHEMA, localDate);
+    }
+
+    @Benchmark
+    public java.util.Date dateToLogical() {
+        return Date.toLogical(Date.SCHEMA, days);
+    }
+
+    @Benchmark
+    public long dateToEpochMillis() {
+        return Date.toEpochMillis(Date.SCHEMA, days);
+    }
+
+    @Benchmark
+    public LocalDate dateToLocalDate() {
+        return Date.toLocalDate(Date.SCHEMA, days);
+    }
+
+    @Benchmark
+    public int timeFromLogical() {
+        return Time.fromLogical(Time.SCHEMA, time);
+    }
+
+    @Benchmark
+    public int timeFromLocalTime() {
+        return Time.fromLocalTime(Time.SCHEMA, localTime);
+    }
+
+    @Benchmark
+    public java.util.Date timeToLogical() {
+        return Time.toLogical(Time.SCHEMA, timeMillis);
+    }
+
+    @Benchmark
+    public LocalTime timeToLocalTime() {
+        return Time.toLocalTime(Time.SCHEMA, timeMillis);
+    }
+
+    @Benchmark
+    public long timestampFromLogical() {
+        return Timestamp.fromLogical(Timestamp.SCHEMA, timestamp);
+    }
+
+    @Benchmark
+    public long timestampFromInstant() {
+        return Timestamp.fromInstant(Timestamp.SCHEMA, instant);
+    }
+
+    @Benchmark
+    public java.util.Date timestampToLogical() {
+        return Timestamp.toLogical(Timestamp.SCHEMA, timestampMillis);
+    }
+
+    @Benchmark
+    public Instant timestampToInstant() {
+        return Timestamp.toInstant(Timestamp.SCHEMA, timestampMillis);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.benchmark;
+
+import io.openmessaging.connector.api.data.FieldType;
+import io.openmessaging.connector.api.data.Schema;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * {@link Schema#schemaType(Class)} from many threads, against the lookup it replaced, which took a lock on the
+ * shared map for every call. {@link #main(String[])} runs it with 1, 2, 4 and 8 threads to show how it scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SchemaTypeBenchmark {
+
+    static final int[] THREADS = {1, 2, 4, 8};
+
+    /**
+     * a mapped class, a class resolved through a mapped interface, an unknown class, and a mix of the three kinds
+     */
+    @Param({"java.lang.Long", "java.util.ArrayList", "java.lang.Thread", "mixed"})
+    public String className;
+
+    /**
+     * classes looked up in turn, a power of two of them
+     */
+    private Class<?>[] classes;
+    private final Map<Class<?>, FieldType> lockedTypes = new HashMap<>();
+
+    @Setup
+    public void setup() throws ClassNotFoundException {
+        if ("mixed".equals(className)) {
+            // 3 of 8 unknown
+            classes = new Class<?>[] {Long.class, Thread.class, String.class, ArrayList.class,
+                Object.class, Integer.class, StringBuilder.class, HashMap.class};
+        } else {
+            classes = new Class<?>[] {Class.forName(className)};
+        }
+        lockedTypes.putAll(Schema.JAVA_CLASS_SCHEMA_TYPES);
+    }
+
+    /**
+     * position of a thread in the classes
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    private Class<?> next(Cursor cursor) {
+        return classes[cursor.next++ & (classes.length - 1)];
+    }
+
+    @Benchmark
+    public FieldType classValue(Cursor cursor) {
+        return Schema.schemaType(next(cursor));
+    }
+
+    @Benchmark
+    public FieldType locked(Cursor cursor) {
+        Class<?> klass = next(cursor);
+        synchronized (lockedTypes) {
+            FieldType schemaType = lockedTypes.get(klass);
+            if (schemaType != null) {
+                return schemaType;
+            }
+            for (Map.Entry<Class<?>, FieldType> entry : lockedTypes.entrySet()) {
+                if (entry.getKey().isAssignableFrom(klass)) {
+                    lockedTypes.put(klass, entry.getValue());
+                    return entry.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Run the benchmark once per thread count, further JMH options are passed on.
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        for (int threads : THREADS) {
+            new Runner(new OptionsBuilder()
+                .parent(options)
+                .include(SchemaTypeBenchmark.class.getSimpleName())
+                .threads(threads)
+                .build()).run();
+        }
+    }
+}
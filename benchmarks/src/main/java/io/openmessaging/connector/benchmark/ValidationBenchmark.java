@@ -0,0 +1,142 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.benchmark;
+
+import io.openmessaging.connector.api.data.Field;
+import io.openmessaging.connector.api.data.FieldType;
+import io.openmessaging.connector.api.data.Schema;
+import io.openmessaging.connector.api.data.Struct;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Schema#validateValue(Schema, Object)} on flat, nested, array and map values, with the validator compiled
+ * for a frozen schema against the recursive checks an unfrozen schema still goes through.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ValidationBenchmark {
+
+    private static final int ENTRIES = 32;
+
+    @Param({"flat", "nested", "array", "map"})
+    public String shape;
+
+    @Param({"true", "false"})
+    public boolean frozen;
+
+    private Schema schema;
+    private Object value;
+
+    @Setup
+    public void setup() {
+        switch (shape) {
+            case "flat":
+                schema = flatSchema();
+                value = flatStruct(schema);
+                break;
+            case "nested": {
+                List<Field> fields = new ArrayList<>();
+                fields.add(new Field(0, "id", primitive(FieldType.INT64)));
+                fields.add(new Field(1, "before", flatSchema()));
+                fields.add(new Field(2, "after", flatSchema()));
+                schema = schema("envelope", FieldType.STRUCT, fields, null, null);
+                Struct envelope = new Struct(schema);
+                envelope.put("id", 1L);
+                envelope.put("before", flatStruct(schema.getField("before").getSchema()));
+                envelope.put("after", flatStruct(schema.getField("after").getSchema()));
+                value = envelope;
+                break;
+            }
+            case "array": {
+                schema = schema(null, FieldType.ARRAY, null, null, primitive(FieldType.INT64));
+                List<Long> array = new ArrayList<>(ENTRIES);
+                for (long i = 0; i < ENTRIES; i++) {
+                    array.add(i);
+                }
+                value = array;
+                break;
+            }
+            case "map": {
+                schema = schema(null, FieldType.MAP, null, primitive(FieldType.STRING), primitive(FieldType.INT64));
+                Map<String, Long> map = new HashMap<>();
+                for (long i = 0; i < ENTRIES; i++) {
+                    map.put("key" + i, i);
+                }
+                value = map;
+                break;
+            }
+            default:
+                throw new IllegalArgumentException(shape);
+        }
+        Schema.validateValue(schema, value);
+    }
+
+    private Schema schema(String name, FieldType type, List<Field> fields, Schema keySchema, Schema valueSchema) {
+        Schema schema = new Schema(name, type, false, null, null, null, fields, keySchema, valueSchema, null);
+        return frozen ? schema.freeze() : schema;
+    }
+
+    private Schema primitive(FieldType type) {
+        return schema(null, type, null, null, null);
+    }
+
+    private Schema flatSchema() {
+        List<Field> fields = new ArrayList<>();
+        fields.add(new Field(0, "id", primitive(FieldType.INT64)));
+        fields.add(new Field(1, "name", primitive(FieldType.STRING)));
+        fields.add(new Field(2, "count", primitive(FieldType.INT32)));
+        fields.add(new Field(3, "price", primitive(FieldType.FLOAT64)));
+        fields.add(new Field(4, "active", primitive(FieldType.BOOLEAN)));
+        fields.add(new Field(5, "payload", primitive(FieldType.BYTES)));
+        return schema("row", FieldType.STRUCT, fields, null, null);
+    }
+
+    private static Struct flatStruct(Schema schema) {
+        return new Struct(schema)
+            .put("id", 42L)
+            .put("name", "row-42")
+            .put("count", 7)
+            .put("price", 9.5d)
+            .put("active", true)
+            .put("payload", new byte[] {1, 2, 3});
+    }
+
+    @Benchmark
+    public Object validate() {
+        Schema.validateValue(schema, value);
+        return value;
+    }
+}
@@ -0,0 +1,4 @@
+package io.openmessaging.connector.benchmark.generated;
+public class ExecutionModeBenchmark_jmhType extends ExecutionModeBenchmark_jmhType_B3 {
+}
+
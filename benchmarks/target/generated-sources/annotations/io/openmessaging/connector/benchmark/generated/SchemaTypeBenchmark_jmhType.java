@@ -0,0 +1,4 @@
+package io.openmessaging.connector.benchmark.generated;
+public class SchemaTypeBenchmark_jmhType extends SchemaTypeBenchmark_jmhType_B3 {
+}
+
@@ -16,6 +16,7 @@ package io.openmessaging.connector.api.component.task.sink;
 
 import io.openmessaging.connector.api.component.task.Task;
 import io.openmessaging.connector.api.data.ConnectRecord;
+import io.openmessaging.connector.api.data.RecordBatch;
 import io.openmessaging.connector.api.data.RecordOffset;
 import io.openmessaging.connector.api.data.RecordPartition;
 import io.openmessaging.connector.api.errors.ConnectException;
@@ -41,6 +42,16 @@ public abstract class SinkTask implements Task<SinkTaskContext> {
      */
     public abstract void put(List<ConnectRecord> sinkRecords) throws ConnectException;
 
+    /**
+     * Put a columnar batch of records to the sink. Runtimes opting in call this instead of {@link #put(List)},
+     * the default implementation converts the batch back into records.
+     *
+     * @param batch record batch
+     */
+    public void putBatch(RecordBatch batch) throws ConnectException {
+        put(batch.toRecords());
+    }
+
     /**
      * Flush the records to the sink
      *
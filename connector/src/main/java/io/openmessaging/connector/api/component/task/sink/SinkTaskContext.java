@@ -18,6 +18,7 @@ import io.openmessaging.KeyValue;
 import io.openmessaging.connector.api.component.ComponentContext;
 import io.openmessaging.connector.api.data.RecordOffset;
 import io.openmessaging.connector.api.data.RecordPartition;
+import io.openmessaging.connector.api.metrics.TaskMetrics;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -93,4 +94,13 @@ public interface SinkTaskContext extends ComponentContext {
         return null;
     }
 
+    /**
+     * Get the metrics of current task.
+     *
+     * @return task metrics, or null if the runtime does not collect metrics
+     */
+    default TaskMetrics metrics() {
+        return null;
+    }
+
 }
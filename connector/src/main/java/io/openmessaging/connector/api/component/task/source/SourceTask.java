@@ -16,9 +16,15 @@ package io.openmessaging.connector.api.component.task.source;
 
 import io.openmessaging.connector.api.component.task.Task;
 import io.openmessaging.connector.api.data.ConnectRecord;
+import io.openmessaging.connector.api.data.RecordBatch;
+import io.openmessaging.connector.api.metrics.TaskMetrics;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 /**
  * The source task API definition is used to define the logic for data pulling
@@ -40,13 +46,49 @@ public abstract class SourceTask implements Task<SourceTaskContext> {
      */
     public abstract List<ConnectRecord> poll() throws InterruptedException;
 
+    /**
+     * Poll this source task for new records in columnar form. Runtimes opting in call this instead of
+     * {@link #poll()}, the default implementation splits the polled records into batches sharing key and value
+     * schema.
+     *
+     * @return record batches, or null if no records are available
+     * @throws InterruptedException task thread interupt exception
+     */
+    public List<RecordBatch> pollBatch() throws InterruptedException {
+        List<ConnectRecord> records = poll();
+        return records == null ? null : RecordBatch.split(records);
+    }
+
+    /**
+     * Poll this source task for new records without blocking the calling thread. Tasks reading from asynchronous
+     * clients override this to complete the stage from their I/O callbacks, so many mostly idle tasks can share a
+     * few runtime threads. Runtimes opting in call this instead of {@link #poll()} and only call it again once the
+     * returned stage completed, the default implementation runs the blocking {@link #poll()} on the executor.
+     *
+     * @param executor executor of the runtime, for tasks that have to block
+     * @return stage completed with the records, an empty list or null if no records are available
+     */
+    public CompletionStage<List<ConnectRecord>> pollAsync(Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return poll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
 
     /**
-     * batch commit
+     * batch commit. The default implementation commits the records one by one through
+     * {@link #commit(ConnectRecord, Map)}, tasks acknowledging a batch upstream at once override this.
      * @param records
      * @param metadata
      */
     public void commit(final List<ConnectRecord> records, Map<String,String> metadata) {
+        for (ConnectRecord record : records) {
+            commit(record, metadata);
+        }
     }
     /**
      * commit record
@@ -79,10 +121,17 @@ public abstract class SourceTask implements Task<SourceTaskContext> {
     public void commit() { }
 
     /**
-     * return the metrics of source.
+     * return the metrics of source. The default implementation is a view of the {@link TaskMetrics} of the context,
+     * flattened into {@link SourceMetrics#getOthers()}.
      * @return
      */
     public SourceMetrics getMetrics() {
-        return null;
+        TaskMetrics metrics = sourceTaskContext == null ? null : sourceTaskContext.metrics();
+        if (metrics == null) {
+            return null;
+        }
+        SourceMetrics sourceMetrics = new SourceMetrics();
+        sourceMetrics.setOthers(metrics.toMap());
+        return sourceMetrics;
     }
 }
@@ -16,6 +16,7 @@ package io.openmessaging.connector.api.component.task.source;
 
 import io.openmessaging.KeyValue;
 import io.openmessaging.connector.api.component.ComponentContext;
+import io.openmessaging.connector.api.metrics.TaskMetrics;
 import io.openmessaging.connector.api.storage.OffsetStorageReader;
 
 public interface SourceTaskContext extends ComponentContext {
@@ -48,4 +49,13 @@ public interface SourceTaskContext extends ComponentContext {
      * @return the configuration of current task.
      */
     KeyValue configs();
+
+    /**
+     * Get the metrics of current task.
+     *
+     * @return task metrics, or null if the runtime does not collect metrics
+     */
+    default TaskMetrics metrics() {
+        return null;
+    }
 }
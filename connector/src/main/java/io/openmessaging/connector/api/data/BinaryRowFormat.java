@@ -0,0 +1,445 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import io.openmessaging.connector.api.data.logical.Date;
+import io.openmessaging.connector.api.data.logical.Decimal;
+import io.openmessaging.connector.api.data.logical.Time;
+import io.openmessaging.connector.api.data.logical.Timestamp;
+import io.openmessaging.connector.api.errors.ConnectException;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary row format of {@link BinaryStruct}. All numbers are big endian, a row is laid out as
+ * <pre>
+ * int32    row length in bytes, including this header
+ * byte[]   null bitmap, one bit per field, set when the field is null
+ * fixed    INT8, INT16, INT32, INT64, FLOAT32, FLOAT64 and BOOLEAN fields in field order, at their natural width
+ * offsets  int32 offset relative to the row start and int32 length of every other field, in field order
+ * variable STRING as UTF-8, BYTES as raw bytes, STRUCT as a nested row, ARRAY and MAP as an element list
+ * </pre>
+ * BYTES fields decode to read-only slices of the row buffer.
+ * An element list is an int32 count followed by the elements, or key and value pairs, each written as a presence
+ * byte and the value: fixed types at their natural width, STRING and BYTES with an int32 length prefix, STRUCT as
+ * a nested row and ARRAY and MAP as a nested element list. Logical types are stored in their encoded form.
+ */
+final class BinaryRowFormat {
+
+    private BinaryRowFormat() {
+    }
+
+    /**
+     * Offsets of the fields of a struct schema within a row.
+     */
+    static final class Layout {
+        final FieldType[] types;
+        /**
+         * offset of the fixed value, or of the offsets table entry for variable width fields
+         */
+        final int[] offsets;
+        final boolean[] variable;
+        final int headerSize;
+
+        Layout(Schema schema) {
+            List<Field> fields = schema.getFields();
+            int size = fields.size();
+            types = new FieldType[size];
+            offsets = new int[size];
+            variable = new boolean[size];
+            int fixedSize = 0;
+            int variableCount = 0;
+            for (Field field : fields) {
+                int index = field.getIndex();
+                types[index] = field.getSchema().getFieldType();
+                variable[index] = width(types[index]) < 0;
+                if (variable[index]) {
+                    variableCount++;
+                } else {
+                    fixedSize += width(types[index]);
+                }
+            }
+            int fixedPosition = 4 + ((size + 7) >>> 3);
+            int variablePosition = fixedPosition + fixedSize;
+            for (int i = 0; i < size; i++) {
+                if (variable[i]) {
+                    offsets[i] = variablePosition;
+                    variablePosition += 8;
+                } else {
+                    offsets[i] = fixedPosition;
+                    fixedPosition += width(types[i]);
+                }
+            }
+            headerSize = variablePosition;
+        }
+    }
+
+    /**
+     * width of a fixed width type, -1 for variable width types
+     */
+    static int width(FieldType type) {
+        switch (type) {
+            case INT8:
+            case BOOLEAN:
+                return 1;
+            case INT16:
+                return 2;
+            case INT32:
+            case FLOAT32:
+                return 4;
+            case INT64:
+            case FLOAT64:
+                return 8;
+            default:
+                return -1;
+        }
+    }
+
+    // Encoding
+
+    /**
+     * encode a struct into a new heap buffer holding exactly one row
+     */
+    static ByteBuffer write(Struct struct) {
+        Writer writer = new Writer(128);
+        writeRow(writer, struct);
+        ByteBuffer buffer = writer.buffer;
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void writeRow(Writer writer, Struct struct) {
+        if (struct instanceof BinaryStruct && ((BinaryStruct) struct).matchesRow()) {
+            writer.put(((BinaryStruct) struct).rowBuffer());
+            return;
+        }
+        Schema schema = struct.schema();
+        Layout layout = schema.binaryRowLayout();
+        int start = writer.reserve(layout.headerSize);
+        List<Field> fields = schema.getFields();
+        for (Field field : fields) {
+            int index = field.getIndex();
+            Object value = struct.getValue(index);
+            if (value == null) {
+                int bitmap = start + 4 + (index >>> 3);
+                writer.buffer.put(bitmap, (byte) (writer.buffer.get(bitmap) | (1 << (index & 7))));
+                continue;
+            }
+            if (layout.variable[index]) {
+                int offset = writer.buffer.position() - start;
+                writeVariable(writer, field.getSchema(), value);
+                writer.buffer.putInt(start + layout.offsets[index], offset);
+                writer.buffer.putInt(start + layout.offsets[index] + 4, writer.buffer.position() - start - offset);
+            } else {
+                writeFixed(writer.buffer, start + layout.offsets[index], field.getSchema(), value);
+            }
+        }
+        writer.buffer.putInt(start, writer.buffer.position() - start);
+    }
+
+    private static void writeFixed(ByteBuffer buffer, int position, Schema schema, Object value) {
+        switch (schema.getFieldType()) {
+            case INT8:
+                buffer.put(position, (Byte) value);
+                break;
+            case BOOLEAN:
+                buffer.put(position, (byte) ((Boolean) value ? 1 : 0));
+                break;
+            case INT16:
+                buffer.putShort(position, (Short) value);
+                break;
+            case INT32:
+                if (Date.LOGICAL_NAME.equals(schema.getName())) {
+                    buffer.putInt(position, Date.fromLogical(schema, (java.util.Date) value));
+                } else if (Time.LOGICAL_NAME.equals(schema.getName())) {
+                    buffer.putInt(position, Time.fromLogical(schema, (java.util.Date) value));
+                } else {
+                    buffer.putInt(position, (Integer) value);
+                }
+                break;
+            case INT64:
+                if (Timestamp.LOGICAL_NAME.equals(schema.getName())) {
+                    buffer.putLong(position, Timestamp.fromLogical(schema, (java.util.Date) value));
+                } else {
+                    buffer.putLong(position, (Long) value);
+                }
+                break;
+            case FLOAT32:
+                buffer.putFloat(position, (Float) value);
+                break;
+            case FLOAT64:
+                buffer.putDouble(position, (Double) value);
+                break;
+            default:
+                throw new ConnectException("Not a fixed width type: " + schema.getFieldType());
+        }
+    }
+
+    private static void writeVariable(Writer writer, Schema schema, Object value) {
+        switch (schema.getFieldType()) {
+            case STRING:
+                writer.put(((String) value).getBytes(StandardCharsets.UTF_8));
+                break;
+            case BYTES:
+                if (Decimal.LOGICAL_NAME.equals(schema.getName())) {
+                    writer.put(Decimal.fromLogical(schema, (BigDecimal) value));
+                } else if (value instanceof ByteBuffer) {
+                    writer.put(((ByteBuffer) value).duplicate());
+                } else {
+                    writer.put((byte[]) value);
+                }
+                break;
+            case STRUCT:
+                writeRow(writer, (Struct) value);
+                break;
+            case ARRAY:
+                List<?> array = (List<?>) value;
+                writer.reserve(4);
+                writer.buffer.putInt(writer.buffer.position() - 4, array.size());
+                for (Object element : array) {
+                    writeElement(writer, schema.getValueSchema(), element);
+                }
+                break;
+            case MAP:
+                Map<?, ?> map = (Map<?, ?>) value;
+                writer.reserve(4);
+                writer.buffer.putInt(writer.buffer.position() - 4, map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeElement(writer, schema.getKeySchema(), entry.getKey());
+                    writeElement(writer, schema.getValueSchema(), entry.getValue());
+                }
+                break;
+            default:
+                throw new ConnectException("Unsupported type for binary rows: " + schema.getFieldType());
+        }
+    }
+
+    private static void writeElement(Writer writer, Schema schema, Object value) {
+        int position = writer.reserve(1);
+        if (value == null) {
+            return;
+        }
+        writer.buffer.put(position, (byte) 1);
+        int width = width(schema.getFieldType());
+        if (width > 0) {
+            writeFixed(writer.buffer, writer.reserve(width), schema, value);
+        } else if (schema.getFieldType() == FieldType.STRING || schema.getFieldType() == FieldType.BYTES) {
+            int lengthPosition = writer.reserve(4);
+            writeVariable(writer, schema, value);
+            writer.buffer.putInt(lengthPosition, writer.buffer.position() - lengthPosition - 4);
+        } else {
+            writeVariable(writer, schema, value);
+        }
+    }
+
+    /**
+     * Growable heap buffer.
+     */
+    private static final class Writer {
+        ByteBuffer buffer;
+
+        Writer(int capacity) {
+            buffer = ByteBuffer.allocate(capacity);
+        }
+
+        /**
+         * reserve zeroed space and return its position
+         */
+        int reserve(int length) {
+            ensure(length);
+            int position = buffer.position();
+            buffer.position(position + length);
+            return position;
+        }
+
+        void put(byte[] bytes) {
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        void put(ByteBuffer bytes) {
+            ensure(bytes.remaining());
+            buffer.put(bytes);
+        }
+
+        private void ensure(int length) {
+            if (buffer.remaining() < length) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() << 1, buffer.position() + length));
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+        }
+    }
+
+    // Decoding
+
+    static int rowLength(ByteBuffer buffer, int row) {
+        return buffer.getInt(row);
+    }
+
+    static boolean isNull(ByteBuffer buffer, int row, int index) {
+        return (buffer.get(row + 4 + (index >>> 3)) & (1 << (index & 7))) != 0;
+    }
+
+    /**
+     * number of bytes a field takes up in the row starting at the given position, not counting its header entry
+     */
+    static int fieldLength(ByteBuffer buffer, int row, Layout layout, int index) {
+        if (isNull(buffer, row, index)) {
+            return 0;
+        }
+        return layout.variable[index] ? buffer.getInt(row + layout.offsets[index] + 4) : width(layout.types[index]);
+    }
+
+    /**
+     * decode a non null field of the row starting at the given position
+     */
+    static Object readField(ByteBuffer buffer, int row, Layout layout, Schema schema, int index) {
+        int position = row + layout.offsets[index];
+        if (!layout.variable[index]) {
+            return readFixed(buffer, position, schema);
+        }
+        int offset = row + buffer.getInt(position);
+        int length = buffer.getInt(position + 4);
+        return readVariable(buffer, offset, length, schema);
+    }
+
+    private static Object readFixed(ByteBuffer buffer, int position, Schema schema) {
+        switch (schema.getFieldType()) {
+            case INT8:
+                return buffer.get(position);
+            case BOOLEAN:
+                return buffer.get(position) != 0;
+            case INT16:
+                return buffer.getShort(position);
+            case INT32:
+                if (Date.LOGICAL_NAME.equals(schema.getName())) {
+                    return Date.toLogical(schema, buffer.getInt(position));
+                }
+                if (Time.LOGICAL_NAME.equals(schema.getName())) {
+                    return Time.toLogical(schema, buffer.getInt(position));
+                }
+                return buffer.getInt(position);
+            case INT64:
+                if (Timestamp.LOGICAL_NAME.equals(schema.getName())) {
+                    return Timestamp.toLogical(schema, buffer.getLong(position));
+                }
+                return buffer.getLong(position);
+            case FLOAT32:
+                return buffer.getFloat(position);
+            case FLOAT64:
+                return buffer.getDouble(position);
+            default:
+                throw new ConnectException("Not a fixed width type: " + schema.getFieldType());
+        }
+    }
+
+    private static Object readVariable(ByteBuffer buffer, int offset, int length, Schema schema) {
+        switch (schema.getFieldType()) {
+            case STRING:
+                if (buffer.hasArray()) {
+                    return new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+                }
+                return new String(copy(buffer, offset, length), StandardCharsets.UTF_8);
+            case BYTES:
+                if (Decimal.LOGICAL_NAME.equals(schema.getName())) {
+                    return Decimal.toLogical(schema, copy(buffer, offset, length));
+                }
+                ByteBuffer bytes = buffer.duplicate();
+                bytes.limit(offset + length).position(offset);
+                return bytes.slice().asReadOnlyBuffer();
+            case STRUCT:
+                return new BinaryStruct(schema, buffer, offset);
+            case ARRAY:
+            case MAP:
+                return new ElementReader(buffer, offset).readList(schema);
+            default:
+                throw new ConnectException("Unsupported type for binary rows: " + schema.getFieldType());
+        }
+    }
+
+    private static byte[] copy(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset);
+        source.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Sequential reader over an element list.
+     */
+    private static final class ElementReader {
+        private final ByteBuffer buffer;
+        private int position;
+
+        ElementReader(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        Object readList(Schema schema) {
+            int count = buffer.getInt(position);
+            position += 4;
+            if (schema.getFieldType() == FieldType.ARRAY) {
+                List<Object> array = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    array.add(readElement(schema.getValueSchema()));
+                }
+                return array;
+            }
+            Map<Object, Object> map = new LinkedHashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                Object key = readElement(schema.getKeySchema());
+                map.put(key, readElement(schema.getValueSchema()));
+            }
+            return map;
+        }
+
+        private Object readElement(Schema schema) {
+            if (buffer.get(position++) == 0) {
+                return null;
+            }
+            FieldType type = schema.getFieldType();
+            int width = width(type);
+            if (width > 0) {
+                Object value = readFixed(buffer, position, schema);
+                position += width;
+                return value;
+            }
+            switch (type) {
+                case STRING:
+                case BYTES:
+                    int length = buffer.getInt(position);
+                    Object value = readVariable(buffer, position + 4, length, schema);
+                    position += 4 + length;
+                    return value;
+                case STRUCT:
+                    BinaryStruct struct = new BinaryStruct(schema, buffer, position);
+                    position += rowLength(buffer, position);
+                    return struct;
+                default:
+                    return readList(schema);
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import io.openmessaging.connector.api.errors.ConnectException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A struct view over a row of the binary row format, see {@link #encode(Struct)}.
+ * <p>
+ * Fields are decoded from the heap or direct buffer only when they are first accessed, and nested structs are views
+ * over the same buffer. A view that still matches its row is encoded again by copying the row as is, so records
+ * passed through untouched cost no decoding at all. Once a mutable value, such as a list, a map or a date, was
+ * handed out, or a nested view was modified, the row is encoded field by field instead. The view does not copy the
+ * buffer, which must not change while the view is in use.
+ */
+public class BinaryStruct extends Struct {
+
+    private static final Object UNDECODED = new Object();
+
+    private final ByteBuffer buffer;
+    private final int row;
+    private final BinaryRowFormat.Layout layout;
+
+    /**
+     * decoded or modified values, allocated on first access
+     */
+    private Object[] values;
+    private boolean modified;
+
+    /**
+     * construct a view over the row starting at the position of the buffer
+     * @param schema struct schema of the row
+     * @param buffer buffer holding the row
+     */
+    public BinaryStruct(Schema schema, ByteBuffer buffer) {
+        this(schema, buffer, buffer.position());
+        if (BinaryRowFormat.rowLength(this.buffer, row) > buffer.remaining()) {
+            throw new ConnectException("Truncated binary row, " + buffer.remaining() + " bytes remaining");
+        }
+    }
+
+    BinaryStruct(Schema schema, ByteBuffer buffer, int row) {
+        super(schema, null);
+        this.buffer = buffer.order() == ByteOrder.BIG_ENDIAN ? buffer : buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        this.row = row;
+        this.layout = schema.binaryRowLayout();
+    }
+
+    /**
+     * Encode a struct into the binary row format.
+     * @param struct struct
+     * @return a heap buffer holding the row between its position and limit
+     */
+    public static ByteBuffer encode(Struct struct) {
+        return BinaryRowFormat.write(struct);
+    }
+
+    /**
+     * whether a field was put since the view was created
+     * @return true if the view no longer matches its row
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Whether the view can be encoded by copying its row: no field was put, no decoded value that can be modified in
+     * place was handed out, and the nested views decoded so far match their rows as well.
+     */
+    boolean matchesRow() {
+        if (modified) {
+            return false;
+        }
+        if (values == null) {
+            return true;
+        }
+        for (Object value : values) {
+            if (value instanceof BinaryStruct) {
+                if (!((BinaryStruct) value).matchesRow()) {
+                    return false;
+                }
+            } else if (value instanceof List || value instanceof Map || value instanceof java.util.Date) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * length of the underlying row in bytes
+     * @return row length
+     */
+    public int rowLength() {
+        return BinaryRowFormat.rowLength(buffer, row);
+    }
+
+    /**
+     * whether a value is held for the field, decoded or put
+     */
+    boolean isHeld(int index) {
+        return values != null && values[index] != UNDECODED;
+    }
+
+    /**
+     * number of bytes the field takes up in the underlying row
+     */
+    int encodedLength(int index) {
+        return BinaryRowFormat.fieldLength(buffer, row, layout, index);
+    }
+
+    /**
+     * a view of the bytes of the underlying row
+     */
+    ByteBuffer rowBuffer() {
+        ByteBuffer rowBuffer = buffer.duplicate();
+        rowBuffer.limit(row + rowLength()).position(row);
+        return rowBuffer;
+    }
+
+    @Override
+    Object getValue(int index) {
+        if (values != null && values[index] != UNDECODED) {
+            return values[index];
+        }
+        Object value = BinaryRowFormat.isNull(buffer, row, index) ? null
+                : BinaryRowFormat.readField(buffer, row, layout, schema().getFields().get(index).getSchema(), index);
+        values()[index] = value;
+        return value;
+    }
+
+    @Override
+    void setValue(int index, Object value) {
+        values()[index] = value;
+        modified = true;
+    }
+
+    /**
+     * Get the decoded field values, this decodes every field not accessed yet.
+     * @return values
+     */
+    @Override
+    public Object[] getValues() {
+        Object[] decoded = new Object[layout.types.length];
+        for (int i = 0; i < decoded.length; i++) {
+            decoded[i] = getValue(i);
+        }
+        return decoded;
+    }
+
+    @Override
+    public void setValues(Object[] values) {
+        for (int i = 0; i < layout.types.length; i++) {
+            setValue(i, values[i]);
+        }
+    }
+
+    private Object[] values() {
+        if (values == null) {
+            values = new Object[layout.types.length];
+            Arrays.fill(values, UNDECODED);
+        }
+        return values;
+    }
+}
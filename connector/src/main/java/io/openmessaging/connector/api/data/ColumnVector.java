@@ -0,0 +1,220 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import io.openmessaging.connector.api.errors.ConnectException;
+
+import java.util.Arrays;
+
+/**
+ * A column of a {@link RecordBatch}, holding the values of one field for every row of the batch.
+ * <p>
+ * INT8, INT16, INT32, INT64 and BOOLEAN values are kept in a {@code long[]}, FLOAT32 and FLOAT64 values in a
+ * {@code double[]} and everything else, including logical types, in an {@code Object[]}. The backing arrays are
+ * exposed for sinks writing whole columns, they are valid for rows below {@link RecordBatch#size()}. Values are
+ * not validated against the schema of the column.
+ */
+public final class ColumnVector {
+
+    private final Schema schema;
+    private final FieldType type;
+    private long[] longs;
+    private double[] doubles;
+    private Object[] objects;
+    /**
+     * bitmap of the rows holding a value
+     */
+    private long[] present;
+
+    ColumnVector(Schema schema, FieldType slotType, int capacity) {
+        this.schema = schema;
+        this.type = slotType != null ? slotType : schema == null ? null : schema.getFieldType();
+        if (slotType == FieldType.FLOAT32 || slotType == FieldType.FLOAT64) {
+            doubles = new double[capacity];
+        } else if (slotType != null) {
+            longs = new long[capacity];
+        } else {
+            objects = new Object[capacity];
+        }
+        present = new long[(capacity + 63) >>> 6];
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public FieldType getFieldType() {
+        return type;
+    }
+
+    /**
+     * whether the column keeps its values in {@link #longValues()}
+     * @return true for integer and boolean columns
+     */
+    public boolean isLongColumn() {
+        return longs != null;
+    }
+
+    /**
+     * whether the column keeps its values in {@link #doubleValues()}
+     * @return true for floating point columns
+     */
+    public boolean isDoubleColumn() {
+        return doubles != null;
+    }
+
+    /**
+     * backing array of integer and boolean columns, booleans are stored as 0 and 1
+     * @return values, or null for other columns
+     */
+    public long[] longValues() {
+        return longs;
+    }
+
+    /**
+     * backing array of floating point columns
+     * @return values, or null for other columns
+     */
+    public double[] doubleValues() {
+        return doubles;
+    }
+
+    /**
+     * backing array of object columns
+     * @return values, or null for primitive columns
+     */
+    public Object[] objectValues() {
+        return objects;
+    }
+
+    public boolean isNull(int row) {
+        return (present[row >>> 6] & (1L << row)) == 0;
+    }
+
+    public void setNull(int row) {
+        present[row >>> 6] &= ~(1L << row);
+        if (objects != null) {
+            objects[row] = null;
+        }
+    }
+
+    public long getLong(int row) {
+        if (longs == null) {
+            throw new ConnectException("Column of type " + type + " holds no integer values");
+        }
+        checkPresent(row);
+        return longs[row];
+    }
+
+    public void setLong(int row, long value) {
+        if (longs == null) {
+            throw new ConnectException("Column of type " + type + " holds no integer values");
+        }
+        longs[row] = value;
+        markPresent(row);
+    }
+
+    public double getDouble(int row) {
+        if (doubles == null) {
+            throw new ConnectException("Column of type " + type + " holds no floating point values");
+        }
+        checkPresent(row);
+        return doubles[row];
+    }
+
+    public void setDouble(int row, double value) {
+        if (doubles == null) {
+            throw new ConnectException("Column of type " + type + " holds no floating point values");
+        }
+        doubles[row] = value;
+        markPresent(row);
+    }
+
+    /**
+     * get the value of a row, boxed to the class a {@link Struct} holds for the column type
+     * @param row row
+     * @return value, or null
+     */
+    public Object get(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        if (objects != null) {
+            return objects[row];
+        }
+        switch (type) {
+            case INT8:
+                return (byte) longs[row];
+            case INT16:
+                return (short) longs[row];
+            case INT32:
+                return (int) longs[row];
+            case INT64:
+                return longs[row];
+            case BOOLEAN:
+                return longs[row] != 0;
+            case FLOAT32:
+                return (float) doubles[row];
+            default:
+                return doubles[row];
+        }
+    }
+
+    /**
+     * set the value of a row from its boxed form
+     * @param row row
+     * @param value value, or null
+     */
+    public void set(int row, Object value) {
+        if (value == null) {
+            setNull(row);
+            return;
+        }
+        if (objects != null) {
+            objects[row] = value;
+        } else if (doubles != null) {
+            doubles[row] = ((Number) value).doubleValue();
+        } else if (value instanceof Boolean) {
+            longs[row] = (Boolean) value ? 1 : 0;
+        } else {
+            longs[row] = ((Number) value).longValue();
+        }
+        markPresent(row);
+    }
+
+    void ensureCapacity(int capacity) {
+        if (longs != null && longs.length < capacity) {
+            longs = Arrays.copyOf(longs, capacity);
+        } else if (doubles != null && doubles.length < capacity) {
+            doubles = Arrays.copyOf(doubles, capacity);
+        } else if (objects != null && objects.length < capacity) {
+            objects = Arrays.copyOf(objects, capacity);
+        }
+        int words = (capacity + 63) >>> 6;
+        if (present.length < words) {
+            present = Arrays.copyOf(present, words);
+        }
+    }
+
+    private void markPresent(int row) {
+        present[row >>> 6] |= 1L << row;
+    }
+
+    private void checkPresent(int row) {
+        if (isNull(row)) {
+            throw new ConnectException("Row " + row + " of column of type " + type + " is null");
+        }
+    }
+}
@@ -15,7 +15,6 @@
 package io.openmessaging.connector.api.data;
 
 import io.openmessaging.KeyValue;
-import io.openmessaging.internal.DefaultKeyValue;
 import java.util.Objects;
 import java.util.Set;
 
@@ -25,9 +24,14 @@ import java.util.Set;
 public class ConnectRecord {
 
     /**
-     * Timestamp of the data entry.
+     * timestamp of records without one
      */
-    private Long timestamp;
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    /**
+     * Timestamp of the data entry, or {@link #NO_TIMESTAMP}.
+     */
+    private long timestamp;
 
     /**
      * key schema
@@ -55,9 +59,10 @@ public class ConnectRecord {
     private RecordPosition position;
 
     /**
-     * Extension properties
+     * Extension properties, a {@link KeyValue} once handed out through {@link #getExtensions()} or set as one, a
+     * {@link RecordExtensions} before that
      */
-    private KeyValue extensions;
+    private Object extensions;
 
     public ConnectRecord(RecordPartition recordPartition, RecordOffset recordOffset,
         Long timestamp) {
@@ -67,16 +72,43 @@ public class ConnectRecord {
     public ConnectRecord(RecordPartition recordPartition, RecordOffset recordOffset,
         Long timestamp, Schema schema,
         Object data) {
-        this.position = new RecordPosition(recordPartition, recordOffset);
-        this.schema = schema;
-        this.timestamp = timestamp;
-        this.data = data;
+        this(RecordPosition.of(recordPartition, recordOffset), timestamp == null ? NO_TIMESTAMP : timestamp,
+            schema, data);
     }
 
     public ConnectRecord(RecordPartition recordPartition, RecordOffset recordOffset,
                          Long timestamp,Schema keySchema, Object key, Schema schema,
                          Object data) {
-        this.position = new RecordPosition(recordPartition, recordOffset);
+        this(RecordPosition.of(recordPartition, recordOffset), timestamp == null ? NO_TIMESTAMP : timestamp,
+            keySchema, key, schema, data);
+    }
+
+    /**
+     * construct a record at a position the caller already holds
+     * @param position record position, shared rather than copied
+     * @param timestamp timestamp, or {@link #NO_TIMESTAMP}
+     * @param schema
+     * @param data
+     */
+    public ConnectRecord(RecordPosition position, long timestamp, Schema schema, Object data) {
+        this.position = position;
+        this.timestamp = timestamp;
+        this.schema = schema;
+        this.data = data;
+    }
+
+    /**
+     * construct a keyed record at a position the caller already holds
+     * @param position record position, shared rather than copied
+     * @param timestamp timestamp, or {@link #NO_TIMESTAMP}
+     * @param keySchema
+     * @param key
+     * @param schema
+     * @param data
+     */
+    public ConnectRecord(RecordPosition position, long timestamp, Schema keySchema, Object key, Schema schema,
+        Object data) {
+        this.position = position;
         this.timestamp = timestamp;
 
         // key
@@ -86,17 +118,36 @@ public class ConnectRecord {
         // value
         this.schema = schema;
         this.data = data;
-
     }
 
+    /**
+     * get timestamp
+     * @return timestamp, or null if the record has none
+     */
     public Long getTimestamp() {
-        return timestamp;
+        return timestamp == NO_TIMESTAMP ? null : timestamp;
     }
 
     public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp == null ? NO_TIMESTAMP : timestamp;
+    }
+
+    /**
+     * get timestamp without boxing
+     * @return timestamp, or {@link #NO_TIMESTAMP} if the record has none
+     */
+    public long getTimestampMillis() {
+        return timestamp;
+    }
+
+    public void setTimestampMillis(long timestamp) {
         this.timestamp = timestamp;
     }
 
+    public boolean hasTimestamp() {
+        return timestamp != NO_TIMESTAMP;
+    }
+
     public Schema getKeySchema() {
         return keySchema;
     }
@@ -129,14 +180,36 @@ public class ConnectRecord {
         this.data = data;
     }
 
+    /**
+     * get the extensions as a mutable key value, compact extensions are copied into one on the first call
+     * @return
+     */
     public KeyValue getExtensions() {
-        return extensions;
+        if (extensions instanceof RecordExtensions) {
+            extensions = ((RecordExtensions) extensions).toKeyValue();
+        }
+        return (KeyValue) extensions;
     }
 
     public void setExtensions(KeyValue extensions) {
         this.extensions = extensions;
     }
 
+    /**
+     * get the extensions in compact form, shared instead of copied while the record has no key value form of them
+     * @return
+     */
+    public RecordExtensions getRecordExtensions() {
+        if (extensions instanceof KeyValue) {
+            return RecordExtensions.of((KeyValue) extensions);
+        }
+        return extensions == null ? RecordExtensions.EMPTY : (RecordExtensions) extensions;
+    }
+
+    public void setRecordExtensions(RecordExtensions recordExtensions) {
+        this.extensions = recordExtensions;
+    }
+
     public RecordPosition getPosition() {
         return position;
     }
@@ -150,12 +223,28 @@ public class ConnectRecord {
      * @param extensions
      */
     public void addExtension(KeyValue extensions) {
-        if (this.extensions == null) {
-            this.extensions = new DefaultKeyValue();
+        if (!(this.extensions instanceof KeyValue)) {
+            addExtensions(RecordExtensions.of(extensions));
+            return;
         }
+        KeyValue keyValue = (KeyValue) this.extensions;
         Set<String> keySet = extensions.keySet();
         for (String key : keySet) {
-            this.extensions.put(key, extensions.getString(key));
+            keyValue.put(key, extensions.getString(key));
+        }
+    }
+
+    /**
+     * add compact extensions, they are shared rather than copied if the record has none yet
+     * @param extensions
+     */
+    public void addExtensions(RecordExtensions extensions) {
+        if (this.extensions instanceof KeyValue) {
+            extensions.forEach(((KeyValue) this.extensions)::put);
+        } else if (this.extensions == null) {
+            this.extensions = extensions;
+        } else {
+            this.extensions = ((RecordExtensions) this.extensions).withAll(extensions);
         }
     }
 
@@ -165,10 +254,11 @@ public class ConnectRecord {
      * @param value
      */
     public void addExtension(String key, String value) {
-        if (this.extensions == null) {
-            this.extensions = new DefaultKeyValue();
+        if (this.extensions instanceof KeyValue) {
+            ((KeyValue) this.extensions).put(key, value);
+            return;
         }
-        this.extensions.put(key, value);
+        this.extensions = getRecordExtensions().with(key, value);
     }
 
     /**
@@ -177,29 +267,84 @@ public class ConnectRecord {
      * @return
      */
     public String getExtension(String key) {
-        if (this.extensions == null) {
-            return null;
+        if (this.extensions instanceof KeyValue) {
+            return ((KeyValue) this.extensions).getString(key);
         }
-        return this.extensions.getString(key);
+        return this.extensions == null ? null : ((RecordExtensions) this.extensions).get(key);
+    }
+
+    /**
+     * the extensions as stored, without converting them
+     */
+    Object rawExtensions() {
+        return extensions;
     }
 
+    /**
+     * Records are compared field by field, cheapest first, every comparison starts with a reference check.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof ConnectRecord)) return false;
         ConnectRecord that = (ConnectRecord) o;
-        return Objects.equals(timestamp, that.timestamp) && Objects.equals(keySchema, that.keySchema) && Objects.equals(key, that.key) && Objects.equals(schema, that.schema) && Objects.equals(data, that.data) && Objects.equals(position, that.position) && Objects.equals(extensions, that.extensions);
+        return timestamp == that.timestamp && Objects.equals(position, that.position) && Objects.equals(keySchema, that.keySchema) && Objects.equals(schema, that.schema) && Objects.equals(key, that.key) && Objects.equals(data, that.data) && extensionsEqual(extensions, that.extensions);
     }
 
+    /**
+     * compare extensions held in either form without converting one into the other
+     */
+    private static boolean extensionsEqual(Object extensions, Object other) {
+        if (extensions == other) {
+            return true;
+        }
+        if (extensions == null || other == null) {
+            return false;
+        }
+        if (extensions instanceof RecordExtensions && other instanceof RecordExtensions) {
+            return extensions.equals(other);
+        }
+        if (extensionCount(extensions) != extensionCount(other)) {
+            return false;
+        }
+        KeyValue keyValue = (KeyValue) (extensions instanceof KeyValue ? extensions : other);
+        Object compared = keyValue == extensions ? other : extensions;
+        for (String key : keyValue.keySet()) {
+            if (!extensionContains(compared, key)
+                || !Objects.equals(keyValue.getString(key), extensionValue(compared, key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int extensionCount(Object extensions) {
+        return extensions instanceof KeyValue ? ((KeyValue) extensions).keySet().size()
+            : ((RecordExtensions) extensions).size();
+    }
+
+    private static boolean extensionContains(Object extensions, String key) {
+        return extensions instanceof KeyValue ? ((KeyValue) extensions).containsKey(key)
+            : ((RecordExtensions) extensions).containsKey(key);
+    }
+
+    private static String extensionValue(Object extensions, String key) {
+        return extensions instanceof KeyValue ? ((KeyValue) extensions).getString(key)
+            : ((RecordExtensions) extensions).get(key);
+    }
+
+    /**
+     * Only the timestamp and the position are hashed, key, data and extensions are left to equals.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(timestamp, keySchema, key, schema, data, position, extensions);
+        return 31 * Long.hashCode(timestamp) + Objects.hashCode(position);
     }
 
     @Override
     public String toString() {
         return "ConnectRecord{" +
-                "timestamp=" + timestamp +
+                "timestamp=" + getTimestamp() +
                 ", keySchema=" + keySchema +
                 ", key=" + key +
                 ", schema=" + schema +
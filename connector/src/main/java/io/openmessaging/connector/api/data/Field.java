@@ -14,6 +14,8 @@
 
 package io.openmessaging.connector.api.data;
 
+import io.openmessaging.connector.api.errors.ConnectException;
+
 import java.util.Objects;
 
 /**
@@ -33,6 +35,11 @@ public class Field {
      */
     private Schema schema;
 
+    /**
+     * set when the owning schema is frozen
+     */
+    private boolean frozen;
+
     public Field(int index, String name, Schema schema) {
 
         this.index = index;
@@ -45,6 +52,7 @@ public class Field {
     }
 
     public void setIndex(int index) {
+        checkMutable();
         this.index = index;
     }
 
@@ -53,6 +61,7 @@ public class Field {
     }
 
     public void setName(String name) {
+        checkMutable();
         this.name = name;
     }
 
@@ -61,9 +70,19 @@ public class Field {
     }
 
     public void setSchema(Schema schema) {
+        checkMutable();
         this.schema = schema;
     }
 
+    void freeze() {
+        this.frozen = true;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new ConnectException("Cannot modify field " + name + " of a frozen schema");
+        }
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import io.openmessaging.connector.api.errors.ConnectException;
+
+/**
+ * A resolved reference to a field of a struct schema.
+ * <p>
+ * Handles are obtained once per {@link Schema} through {@link Schema#fieldHandle(String)} and can then be reused
+ * for every {@link Struct} of that schema, so typed accesses go straight to the value slot of the field instead of
+ * looking the field up by name.
+ */
+public final class FieldHandle {
+
+    private final Schema schema;
+    private final Field field;
+    private final int index;
+    private final FieldType fieldType;
+
+    FieldHandle(Schema schema, Field field) {
+        this.schema = schema;
+        this.field = field;
+        this.index = field.getIndex();
+        this.fieldType = field.getSchema().getFieldType();
+    }
+
+    /**
+     * Resolve a handle for the given field of a struct schema.
+     *
+     * @param schema struct schema
+     * @param fieldName field name
+     * @return field handle
+     */
+    public static FieldHandle of(Schema schema, String fieldName) {
+        if (schema.getFieldType() != FieldType.STRUCT) {
+            throw new ConnectException("Cannot resolve fields on non-struct type " + schema.getFieldType());
+        }
+        Field field = schema.getField(fieldName);
+        if (field == null) {
+            throw new ConnectException(fieldName + " is not a valid field name");
+        }
+        return new FieldHandle(schema, field);
+    }
+
+    /**
+     * get the schema the handle was resolved against
+     * @return struct schema
+     */
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getName() {
+        return field.getName();
+    }
+
+    public FieldType getFieldType() {
+        return fieldType;
+    }
+
+    @Override
+    public String toString() {
+        return "FieldHandle{" +
+                "index=" + index +
+                ", name='" + field.getName() + '\'' +
+                ", fieldType=" + fieldType +
+                '}';
+    }
+}
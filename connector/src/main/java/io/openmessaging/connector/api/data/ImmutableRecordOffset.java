@@ -0,0 +1,58 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link RecordOffset} over an unmodifiable copy of the offset map whose hash code is computed once.
+ * <p>
+ * It is equal to, and hashes like, any {@link RecordOffset} with an equal map.
+ */
+public final class ImmutableRecordOffset extends RecordOffset {
+
+    private final int hash;
+
+    public ImmutableRecordOffset(Map<String, ?> offset) {
+        super(offset == null ? null : Collections.unmodifiableMap(new LinkedHashMap<>(offset)));
+        this.hash = super.hashCode();
+    }
+
+    /**
+     * get an immutable offset with the same content
+     * @param offset
+     * @return the offset itself when it already is immutable
+     */
+    public static RecordOffset of(RecordOffset offset) {
+        if (offset == null || offset instanceof ImmutableRecordOffset || offset instanceof LongRecordOffset) {
+            return offset;
+        }
+        return new ImmutableRecordOffset(offset.getOffset());
+    }
+
+    @Override public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o instanceof ImmutableRecordOffset && ((ImmutableRecordOffset) o).hash != hash)
+            return false;
+        return super.equals(o);
+    }
+
+    @Override public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link RecordPartition} over an unmodifiable copy of the partition map whose hash code is computed once.
+ * <p>
+ * It is equal to, and hashes like, any {@link RecordPartition} with an equal map, so both can be mixed as keys of
+ * the same offset map.
+ */
+public final class ImmutableRecordPartition extends RecordPartition {
+
+    private final int hash;
+
+    public ImmutableRecordPartition(Map<String, ?> partition) {
+        super(partition == null ? null : Collections.unmodifiableMap(new LinkedHashMap<>(partition)));
+        this.hash = super.hashCode();
+    }
+
+    /**
+     * get an immutable partition with the same content
+     * @param partition
+     * @return the partition itself when it already is immutable
+     */
+    public static ImmutableRecordPartition of(RecordPartition partition) {
+        if (partition == null || partition instanceof ImmutableRecordPartition) {
+            return (ImmutableRecordPartition) partition;
+        }
+        return new ImmutableRecordPartition(partition.getPartition());
+    }
+
+    @Override public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o instanceof ImmutableRecordPartition && ((ImmutableRecordPartition) o).hash != hash)
+            return false;
+        return super.equals(o);
+    }
+
+    @Override public int hashCode() {
+        return hash;
+    }
+}
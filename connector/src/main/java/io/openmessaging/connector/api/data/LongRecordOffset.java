@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable {@link RecordOffset} holding a single numeric position, such as the queue offset of a message queue
+ * source, without allocating a map per record.
+ * <p>
+ * It is equal to, and hashes like, a {@link RecordOffset} whose map has the single entry key to a {@link Long} of the
+ * same value. The map returned by {@link #getOffset()} is only created when asked for.
+ */
+public final class LongRecordOffset extends RecordOffset {
+
+    private final String key;
+    private final long value;
+
+    private Map<String, Long> offset;
+
+    public LongRecordOffset(String key, long value) {
+        super(null);
+        this.key = Objects.requireNonNull(key, "key");
+        this.value = value;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * get an offset of the same key at another position
+     * @param value
+     * @return
+     */
+    public LongRecordOffset withValue(long value) {
+        return value == this.value ? this : new LongRecordOffset(key, value);
+    }
+
+    @Override public Map<String, Long> getOffset() {
+        Map<String, Long> map = offset;
+        if (map == null) {
+            map = Collections.singletonMap(key, value);
+            offset = map;
+        }
+        return map;
+    }
+
+    @Override public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o instanceof LongRecordOffset) {
+            LongRecordOffset that = (LongRecordOffset) o;
+            return value == that.value && key.equals(that.key);
+        }
+        return super.equals(o);
+    }
+
+    @Override public int hashCode() {
+        // Objects.hash(singletonMap(key, value)) without the map
+        return 31 + (key.hashCode() ^ Long.hashCode(value));
+    }
+
+    @Override public String toString() {
+        return "RecordOffset{" +
+            "offset={" + key + "=" + value + "}" +
+            '}';
+    }
+}
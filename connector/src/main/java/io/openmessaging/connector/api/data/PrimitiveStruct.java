@@ -0,0 +1,406 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import io.openmessaging.connector.api.errors.ConnectException;
+
+/**
+ * A struct keeping its INT8, INT16, INT32, INT64, FLOAT32, FLOAT64 and BOOLEAN fields unboxed.
+ * <p>
+ * Numeric fields live in a single {@code long[]} slab laid out by {@link Field#getIndex()}, followed by a bitmap
+ * of the slots holding a value. All other fields, including logical types, are stored as objects in an array sized
+ * for them only. The struct is a drop-in replacement for {@link Struct}: the boxed accessors keep working and
+ * {@link #getValues()} returns a boxed copy, while {@link #getLong(String)}, {@link #getDouble(String)},
+ * {@link #putLong(String, long)} and {@link #putDouble(String, double)} avoid boxing altogether. {@code equals}
+ * and {@code hashCode} compare the slab directly and do not box either.
+ */
+public class PrimitiveStruct extends Struct {
+
+    private static final Object[] NO_OBJECTS = new Object[0];
+
+    private final FieldType[] slotTypes;
+    private final int[] objectSlots;
+
+    /**
+     * slot values followed by the presence bitmap
+     */
+    private final long[] slab;
+
+    /**
+     * construct
+     * @param schema
+     */
+    public PrimitiveStruct(Schema schema) {
+        this(schema, layout(schema));
+    }
+
+    private PrimitiveStruct(Schema schema, Layout layout) {
+        super(schema, layout.objectCount == 0 ? NO_OBJECTS : new Object[layout.objectCount]);
+        this.slotTypes = layout.slotTypes;
+        this.objectSlots = layout.objectSlots;
+        int size = slotTypes.length;
+        this.slab = new long[size + ((size + 63) >>> 6)];
+    }
+
+    private static Layout layout(Schema schema) {
+        if (schema.getFieldType() != FieldType.STRUCT) {
+            throw new ConnectException("Not a struct schema: " + schema);
+        }
+        return schema.primitiveLayout();
+    }
+
+    /**
+     * get the value of an INT8, INT16, INT32 or INT64 field
+     * @param fieldName
+     * @return
+     */
+    public long getLong(String fieldName) {
+        return getLong(lookupField(fieldName));
+    }
+
+    /**
+     * get the value of an INT8, INT16, INT32 or INT64 field
+     * @param handle
+     * @return
+     */
+    public long getLong(FieldHandle handle) {
+        return getLong(resolveField(handle));
+    }
+
+    /**
+     * get the value of an INT8, INT16, INT32 or INT64 field
+     * @param field
+     * @return
+     */
+    public long getLong(Field field) {
+        int index = field.getIndex();
+        checkIntegral(field, slotTypes[index]);
+        if (isSet(index)) {
+            return slab[index];
+        }
+        return ((Number) defaultValue(field)).longValue();
+    }
+
+    /**
+     * get the value of a FLOAT32 or FLOAT64 field
+     * @param fieldName
+     * @return
+     */
+    public double getDouble(String fieldName) {
+        return getDouble(lookupField(fieldName));
+    }
+
+    /**
+     * get the value of a FLOAT32 or FLOAT64 field
+     * @param handle
+     * @return
+     */
+    public double getDouble(FieldHandle handle) {
+        return getDouble(resolveField(handle));
+    }
+
+    /**
+     * get the value of a FLOAT32 or FLOAT64 field
+     * @param field
+     * @return
+     */
+    public double getDouble(Field field) {
+        int index = field.getIndex();
+        FieldType type = slotTypes[index];
+        checkFloating(field, type);
+        if (isSet(index)) {
+            return type == FieldType.FLOAT32 ? Float.intBitsToFloat((int) slab[index]) : Double.longBitsToDouble(slab[index]);
+        }
+        return ((Number) defaultValue(field)).doubleValue();
+    }
+
+    /**
+     * set the value of an INT8, INT16, INT32 or INT64 field
+     * @param fieldName
+     * @param value
+     * @return
+     */
+    public PrimitiveStruct putLong(String fieldName, long value) {
+        return putLong(lookupField(fieldName), value);
+    }
+
+    /**
+     * set the value of an INT8, INT16, INT32 or INT64 field
+     * @param handle
+     * @param value
+     * @return
+     */
+    public PrimitiveStruct putLong(FieldHandle handle, long value) {
+        return putLong(resolveField(handle), value);
+    }
+
+    /**
+     * set the value of an INT8, INT16, INT32 or INT64 field, rejecting values out of the range of the field type
+     * @param field
+     * @param value
+     * @return
+     */
+    public PrimitiveStruct putLong(Field field, long value) {
+        int index = field.getIndex();
+        FieldType type = slotTypes[index];
+        checkIntegral(field, type);
+        boolean inRange;
+        switch (type) {
+            case INT8:
+                inRange = value == (byte) value;
+                break;
+            case INT16:
+                inRange = value == (short) value;
+                break;
+            case INT32:
+                inRange = value == (int) value;
+                break;
+            default:
+                inRange = true;
+        }
+        if (!inRange) {
+            throw new ConnectException("Value " + value + " out of range for field '" + field.getName() + "' of type " + type);
+        }
+        slab[index] = value;
+        markSet(index);
+        return this;
+    }
+
+    /**
+     * set the value of a FLOAT32 or FLOAT64 field
+     * @param fieldName
+     * @param value
+     * @return
+     */
+    public PrimitiveStruct putDouble(String fieldName, double value) {
+        return putDouble(lookupField(fieldName), value);
+    }
+
+    /**
+     * set the value of a FLOAT32 or FLOAT64 field
+     * @param handle
+     * @param value
+     * @return
+     */
+    public PrimitiveStruct putDouble(FieldHandle handle, double value) {
+        return putDouble(resolveField(handle), value);
+    }
+
+    /**
+     * set the value of a FLOAT32 or FLOAT64 field, values of FLOAT32 fields are narrowed to float
+     * @param field
+     * @param value
+     * @return
+     */
+    public PrimitiveStruct putDouble(Field field, double value) {
+        int index = field.getIndex();
+        FieldType type = slotTypes[index];
+        checkFloating(field, type);
+        slab[index] = type == FieldType.FLOAT32 ? Float.floatToRawIntBits((float) value) : Double.doubleToRawLongBits(value);
+        markSet(index);
+        return this;
+    }
+
+    /**
+     * whether the field holds no value, the default value of the field is not taken into account
+     * @param fieldName
+     * @return
+     */
+    public boolean isNull(String fieldName) {
+        return getValue(lookupField(fieldName).getIndex()) == null;
+    }
+
+    @Override
+    Object getValue(int index) {
+        FieldType type = slotTypes[index];
+        if (type == null) {
+            return super.getValue(objectSlots[index]);
+        }
+        if (!isSet(index)) {
+            return null;
+        }
+        long bits = slab[index];
+        switch (type) {
+            case INT8:
+                return (byte) bits;
+            case INT16:
+                return (short) bits;
+            case INT32:
+                return (int) bits;
+            case INT64:
+                return bits;
+            case FLOAT32:
+                return Float.intBitsToFloat((int) bits);
+            case FLOAT64:
+                return Double.longBitsToDouble(bits);
+            default:
+                return bits != 0;
+        }
+    }
+
+    @Override
+    void setValue(int index, Object value) {
+        FieldType type = slotTypes[index];
+        if (type == null) {
+            super.setValue(objectSlots[index], value);
+            return;
+        }
+        if (value == null) {
+            slab[slotTypes.length + (index >>> 6)] &= ~(1L << index);
+            return;
+        }
+        switch (type) {
+            case FLOAT32:
+                slab[index] = Float.floatToRawIntBits((Float) value);
+                break;
+            case FLOAT64:
+                slab[index] = Double.doubleToRawLongBits((Double) value);
+                break;
+            case BOOLEAN:
+                slab[index] = (Boolean) value ? 1 : 0;
+                break;
+            default:
+                slab[index] = ((Number) value).longValue();
+        }
+        markSet(index);
+    }
+
+    /**
+     * Get a boxed copy of the field values, allocated on every call.
+     * @return values
+     */
+    @Override
+    public Object[] getValues() {
+        Object[] values = new Object[slotTypes.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getValue(i);
+        }
+        return values;
+    }
+
+    @Override
+    public void setValues(Object[] values) {
+        for (int i = 0; i < slotTypes.length; i++) {
+            setValue(i, values[i]);
+        }
+    }
+
+    @Override
+    boolean valueEquals(int index, Struct other) {
+        FieldType type = slotTypes[index];
+        if (type == null || !(other instanceof PrimitiveStruct)) {
+            return super.valueEquals(index, other);
+        }
+        PrimitiveStruct struct = (PrimitiveStruct) other;
+        boolean set = isSet(index);
+        if (set != struct.isSet(index)) {
+            return false;
+        }
+        return !set || canonicalBits(type, slab[index]) == canonicalBits(type, struct.slab[index]);
+    }
+
+    @Override
+    int valueHashCode(int index) {
+        FieldType type = slotTypes[index];
+        if (type == null) {
+            return super.valueHashCode(index);
+        }
+        if (!isSet(index)) {
+            return 0;
+        }
+        long bits = slab[index];
+        switch (type) {
+            case INT8:
+            case INT16:
+            case INT32:
+                return (int) bits;
+            case INT64:
+                return Long.hashCode(bits);
+            case FLOAT32:
+                return Float.hashCode(Float.intBitsToFloat((int) bits));
+            case FLOAT64:
+                return Double.hashCode(Double.longBitsToDouble(bits));
+            default:
+                return Boolean.hashCode(bits != 0);
+        }
+    }
+
+    /**
+     * slot bits with NaNs collapsed, matching {@link Float#equals(Object)} and {@link Double#equals(Object)}
+     */
+    private static long canonicalBits(FieldType type, long bits) {
+        switch (type) {
+            case FLOAT32:
+                return Float.floatToIntBits(Float.intBitsToFloat((int) bits));
+            case FLOAT64:
+                return Double.doubleToLongBits(Double.longBitsToDouble(bits));
+            default:
+                return bits;
+        }
+    }
+
+    private boolean isSet(int index) {
+        return (slab[slotTypes.length + (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    private void markSet(int index) {
+        slab[slotTypes.length + (index >>> 6)] |= 1L << index;
+    }
+
+    private static Object defaultValue(Field field) {
+        Object defaultValue = field.getSchema().getDefaultValue();
+        if (defaultValue == null) {
+            throw new ConnectException("Field '" + field.getName() + "' is null");
+        }
+        return defaultValue;
+    }
+
+    private static void checkIntegral(Field field, FieldType type) {
+        if (type != FieldType.INT8 && type != FieldType.INT16 && type != FieldType.INT32 && type != FieldType.INT64) {
+            throw new ConnectException("Field '" + field.getName() + "' is not of an integer type");
+        }
+    }
+
+    private static void checkFloating(Field field, FieldType type) {
+        if (type != FieldType.FLOAT32 && type != FieldType.FLOAT64) {
+            throw new ConnectException("Field '" + field.getName() + "' is not of a floating point type");
+        }
+    }
+
+    /**
+     * Storage layout of a struct schema, cached on frozen schemas.
+     */
+    static final class Layout {
+        /**
+         * types of the fields stored in the slab, null for fields stored as objects
+         */
+        final FieldType[] slotTypes;
+        /**
+         * position of each field stored as an object in the object array, -1 for slab fields
+         */
+        final int[] objectSlots;
+        final int objectCount;
+
+        Layout(FieldType[] slotTypes) {
+            this.slotTypes = slotTypes;
+            this.objectSlots = new int[slotTypes.length];
+            int objectCount = 0;
+            for (int i = 0; i < slotTypes.length; i++) {
+                objectSlots[i] = slotTypes[i] == null ? objectCount++ : -1;
+            }
+            this.objectCount = objectCount;
+        }
+    }
+}
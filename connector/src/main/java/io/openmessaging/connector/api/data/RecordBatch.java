@@ -0,0 +1,362 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import io.openmessaging.KeyValue;
+import io.openmessaging.connector.api.errors.ConnectException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A columnar batch of records sharing one key schema and one value schema.
+ * <p>
+ * Struct values are split into one {@link ColumnVector} per field, any other value is kept in a single column.
+ * Timestamps, keys, positions and extensions are kept in per-row arrays, so a batch holds no per-record object
+ * graph. {@link #split(List)} and {@link #toRecords()} adapt between batches and the record list form.
+ */
+public class RecordBatch {
+
+    /**
+     * timestamp of rows without one
+     */
+    public static final long NO_TIMESTAMP = ConnectRecord.NO_TIMESTAMP;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Schema keySchema;
+    private final Schema schema;
+    private final boolean struct;
+    private final ColumnVector[] columns;
+    /**
+     * bitmap of the rows of a struct batch holding no struct
+     */
+    private long[] nullStructs;
+
+    private int size;
+    private long[] timestamps;
+    private RecordPartition[] partitions;
+    private RecordOffset[] offsets;
+    private Object[] keys;
+    private RecordExtensions[] extensions;
+
+    /**
+     * construct an empty batch
+     * @param keySchema key schema of all rows, may be null
+     * @param schema value schema of all rows, may be null
+     * @param capacity initial number of rows
+     */
+    public RecordBatch(Schema keySchema, Schema schema, int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.keySchema = keySchema;
+        this.schema = schema;
+        this.struct = schema != null && schema.getFieldType() == FieldType.STRUCT;
+        if (struct) {
+            FieldType[] slotTypes = schema.primitiveSlotTypes();
+            this.columns = new ColumnVector[slotTypes.length];
+            for (Field field : schema.getFields()) {
+                columns[field.getIndex()] = new ColumnVector(field.getSchema(), slotTypes[field.getIndex()], capacity);
+            }
+            this.nullStructs = new long[(capacity + 63) >>> 6];
+        } else {
+            this.columns = new ColumnVector[] {new ColumnVector(schema, null, capacity)};
+        }
+        this.timestamps = new long[capacity];
+        this.partitions = new RecordPartition[capacity];
+        this.offsets = new RecordOffset[capacity];
+    }
+
+    public RecordBatch(Schema schema, int capacity) {
+        this(null, schema, capacity);
+    }
+
+    /**
+     * Split records into batches, one for every run of consecutive records sharing key and value schema.
+     * @param records records
+     * @return batches
+     */
+    public static List<RecordBatch> split(List<ConnectRecord> records) {
+        if (records.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<RecordBatch> batches = new ArrayList<>(1);
+        int start = 0;
+        for (int i = 1; i <= records.size(); i++) {
+            if (i == records.size() || !sameSchemas(records.get(start), records.get(i))) {
+                batches.add(fromRecords(records.subList(start, i)));
+                start = i;
+            }
+        }
+        return batches;
+    }
+
+    /**
+     * Build a batch from records sharing key and value schema.
+     * @param records records
+     * @return batch
+     */
+    public static RecordBatch fromRecords(List<ConnectRecord> records) {
+        if (records.isEmpty()) {
+            return new RecordBatch(null, null, DEFAULT_CAPACITY);
+        }
+        ConnectRecord first = records.get(0);
+        RecordBatch batch = new RecordBatch(first.getKeySchema(), first.getSchema(), records.size());
+        for (ConnectRecord record : records) {
+            if (!sameSchemas(first, record)) {
+                throw new ConnectException("Records of a batch must share key and value schema");
+            }
+            batch.add(record);
+        }
+        return batch;
+    }
+
+    /**
+     * Append a record to the batch.
+     * @param record record with the key and value schema of the batch
+     * @return row of the record
+     */
+    public int add(ConnectRecord record) {
+        RecordPosition position = record.getPosition();
+        int row = addRow(position == null ? null : position.getPartition(),
+                position == null ? null : position.getOffset(),
+                record.getTimestampMillis());
+        if (record.getKey() != null) {
+            setKey(row, record.getKey());
+        }
+        RecordExtensions recordExtensions = record.getRecordExtensions();
+        if (!recordExtensions.isEmpty()) {
+            setRecordExtensions(row, recordExtensions);
+        }
+        Object data = record.getData();
+        if (!struct) {
+            columns[0].set(row, data);
+        } else if (data == null) {
+            nullStructs[row >>> 6] |= 1L << row;
+        } else {
+            Struct value = (Struct) data;
+            if (value.schema() != schema && !value.schema().equals(schema)) {
+                throw new ConnectException("Struct schema does not match the schema of the batch");
+            }
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].set(row, value.getValue(i));
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Append an empty row, its values are then set through the columns of the batch.
+     * @param partition record partition
+     * @param offset record offset
+     * @param timestamp timestamp, or {@link #NO_TIMESTAMP}
+     * @return row
+     */
+    public int addRow(RecordPartition partition, RecordOffset offset, long timestamp) {
+        if (size == timestamps.length) {
+            grow(size << 1);
+        }
+        int row = size++;
+        partitions[row] = partition;
+        offsets[row] = offset;
+        timestamps[row] = timestamp;
+        return row;
+    }
+
+    /**
+     * Convert the batch back into records, struct values are assembled from the columns.
+     * @return records
+     */
+    public List<ConnectRecord> toRecords() {
+        List<ConnectRecord> records = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            ConnectRecord record = new ConnectRecord(RecordPosition.of(partitions[row], offsets[row]),
+                    timestamps[row], keySchema, getKey(row), schema, getData(row));
+            RecordExtensions rowExtensions = getRecordExtensions(row);
+            if (rowExtensions != null) {
+                record.setRecordExtensions(rowExtensions);
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Schema getKeySchema() {
+        return keySchema;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * columns of the batch, one per field for struct schemas and a single one otherwise
+     * @return columns
+     */
+    public ColumnVector[] columns() {
+        return columns;
+    }
+
+    public ColumnVector column(int index) {
+        return columns[index];
+    }
+
+    public ColumnVector column(String fieldName) {
+        if (!struct) {
+            throw new ConnectException("Cannot look up fields on non-struct type");
+        }
+        Field field = schema.getField(fieldName);
+        if (field == null) {
+            throw new ConnectException(fieldName + " is not a valid field name");
+        }
+        return columns[field.getIndex()];
+    }
+
+    public ColumnVector column(FieldHandle handle) {
+        return handle.getSchema() == schema ? columns[handle.getIndex()] : column(handle.getName());
+    }
+
+    /**
+     * the value of a row, assembled into a new struct for struct batches
+     * @param row row
+     * @return value
+     */
+    public Object getData(int row) {
+        if (!struct) {
+            return columns[0].get(row);
+        }
+        if ((nullStructs[row >>> 6] & (1L << row)) != 0) {
+            return null;
+        }
+        Struct value = new Struct(schema);
+        for (int i = 0; i < columns.length; i++) {
+            value.setValue(i, columns[i].get(row));
+        }
+        return value;
+    }
+
+    /**
+     * mark the value of a row of a struct batch as null
+     * @param row row
+     */
+    public void setNullData(int row) {
+        if (!struct) {
+            columns[0].setNull(row);
+            return;
+        }
+        nullStructs[row >>> 6] |= 1L << row;
+    }
+
+    public long getTimestamp(int row) {
+        return timestamps[row];
+    }
+
+    public void setTimestamp(int row, long timestamp) {
+        timestamps[row] = timestamp;
+    }
+
+    /**
+     * timestamp column, valid for rows below {@link #size()}
+     * @return timestamps
+     */
+    public long[] timestamps() {
+        return timestamps;
+    }
+
+    public RecordPartition getPartition(int row) {
+        return partitions[row];
+    }
+
+    public RecordOffset getOffset(int row) {
+        return offsets[row];
+    }
+
+    public RecordPosition getPosition(int row) {
+        return RecordPosition.of(partitions[row], offsets[row]);
+    }
+
+    public Object getKey(int row) {
+        return keys == null ? null : keys[row];
+    }
+
+    public void setKey(int row, Object key) {
+        if (keys == null) {
+            keys = new Object[timestamps.length];
+        }
+        keys[row] = key;
+    }
+
+    /**
+     * get a copy of the extensions of a row
+     * @param row
+     * @return
+     */
+    public KeyValue getExtensions(int row) {
+        RecordExtensions rowExtensions = getRecordExtensions(row);
+        return rowExtensions == null ? null : rowExtensions.toKeyValue();
+    }
+
+    public void setExtensions(int row, KeyValue rowExtensions) {
+        setRecordExtensions(row, rowExtensions == null ? null : RecordExtensions.of(rowExtensions));
+    }
+
+    public RecordExtensions getRecordExtensions(int row) {
+        return extensions == null ? null : extensions[row];
+    }
+
+    public void setRecordExtensions(int row, RecordExtensions rowExtensions) {
+        if (extensions == null) {
+            extensions = new RecordExtensions[timestamps.length];
+        }
+        extensions[row] = rowExtensions;
+    }
+
+    private void grow(int capacity) {
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        partitions = Arrays.copyOf(partitions, capacity);
+        offsets = Arrays.copyOf(offsets, capacity);
+        if (keys != null) {
+            keys = Arrays.copyOf(keys, capacity);
+        }
+        if (extensions != null) {
+            extensions = Arrays.copyOf(extensions, capacity);
+        }
+        if (nullStructs != null) {
+            nullStructs = Arrays.copyOf(nullStructs, (capacity + 63) >>> 6);
+        }
+        for (ColumnVector column : columns) {
+            column.ensureCapacity(capacity);
+        }
+    }
+
+    private static boolean sameSchemas(ConnectRecord first, ConnectRecord record) {
+        return Objects.equals(first.getSchema(), record.getSchema()) && Objects.equals(first.getKeySchema(), record.getKeySchema());
+    }
+
+    @Override
+    public String toString() {
+        return "RecordBatch{" +
+                "size=" + size +
+                ", keySchema=" + keySchema +
+                ", schema=" + schema +
+                '}';
+    }
+}
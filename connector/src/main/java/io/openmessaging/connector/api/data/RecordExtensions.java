@@ -0,0 +1,292 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import io.openmessaging.KeyValue;
+import io.openmessaging.internal.DefaultKeyValue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable, array-backed string extensions of a {@link ConnectRecord}.
+ * <p>
+ * Entries are kept in flat key and value arrays. {@link #with(String, String)} returns a new instance holding the
+ * added entry in a small overlay on top of the unchanged instance, so records that share an extension set and each
+ * get one more header share all the untouched entries instead of copying them. An overlay is folded into a new flat
+ * base once it grows past {@link #MAX_OVERLAY} entries, lookups therefore scan at most one overlay and one base.
+ */
+public final class RecordExtensions {
+
+    public static final RecordExtensions EMPTY = new RecordExtensions(null, new String[0], new String[0], 0);
+
+    /**
+     * overlay entries kept on top of a shared base before both are folded into one flat set
+     */
+    static final int MAX_OVERLAY = 8;
+
+    /**
+     * flat entries shadowed by the overlay, null for a flat set
+     */
+    private final RecordExtensions base;
+    private final String[] keys;
+    private final String[] values;
+    private final int size;
+
+    private int hash;
+
+    private RecordExtensions(RecordExtensions base, String[] keys, String[] values, int size) {
+        this.base = base;
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * construct from alternating keys and values
+     * @param keyValues
+     * @return
+     */
+    public static RecordExtensions of(String... keyValues) {
+        if (keyValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Expected alternating keys and values, got " + keyValues.length
+                + " elements");
+        }
+        RecordExtensions extensions = EMPTY;
+        for (int i = 0; i < keyValues.length; i += 2) {
+            extensions = extensions.with(keyValues[i], keyValues[i + 1]);
+        }
+        return extensions.flatten();
+    }
+
+    public static RecordExtensions of(Map<String, String> map) {
+        if (map == null || map.isEmpty()) {
+            return EMPTY;
+        }
+        String[] keys = new String[map.size()];
+        String[] values = new String[keys.length];
+        int i = 0;
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            keys[i] = Objects.requireNonNull(entry.getKey(), "key");
+            values[i++] = entry.getValue();
+        }
+        return new RecordExtensions(null, keys, values, keys.length);
+    }
+
+    /**
+     * construct from the string values of a key value
+     * @param keyValue
+     * @return
+     */
+    public static RecordExtensions of(KeyValue keyValue) {
+        if (keyValue == null) {
+            return EMPTY;
+        }
+        Set<String> keySet = keyValue.keySet();
+        if (keySet.isEmpty()) {
+            return EMPTY;
+        }
+        String[] keys = new String[keySet.size()];
+        String[] values = new String[keys.length];
+        int i = 0;
+        for (String key : keySet) {
+            keys[i] = key;
+            values[i++] = keyValue.getString(key);
+        }
+        return new RecordExtensions(null, keys, values, keys.length);
+    }
+
+    /**
+     * get extension value
+     * @param key
+     * @return the value, or null if absent
+     */
+    public String get(String key) {
+        int i = indexOf(keys, key);
+        if (i >= 0) {
+            return values[i];
+        }
+        return base == null ? null : base.get(key);
+    }
+
+    public boolean containsKey(String key) {
+        return indexOf(keys, key) >= 0 || base != null && base.containsKey(key);
+    }
+
+    /**
+     * get extensions with one entry added or replaced, this instance is left unchanged
+     * @param key
+     * @param value
+     * @return
+     */
+    public RecordExtensions with(String key, String value) {
+        Objects.requireNonNull(key, "key");
+        int i = indexOf(keys, key);
+        if (i >= 0 && Objects.equals(values[i], value)) {
+            return this;
+        }
+        if (base == null) {
+            // a flat set becomes the shared base of a single entry overlay
+            return size == 0
+                ? new RecordExtensions(null, new String[] {key}, new String[] {value}, 1)
+                : new RecordExtensions(this, new String[] {key}, new String[] {value}, i >= 0 ? size : size + 1);
+        }
+        if (i >= 0) {
+            String[] newValues = values.clone();
+            newValues[i] = value;
+            return new RecordExtensions(base, keys, newValues, size);
+        }
+        boolean shadows = base.containsKey(key);
+        if (shadows && Objects.equals(base.get(key), value)) {
+            return this;
+        }
+        if (keys.length >= MAX_OVERLAY) {
+            return flatten().with(key, value);
+        }
+        String[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+        String[] newValues = Arrays.copyOf(values, values.length + 1);
+        newKeys[keys.length] = key;
+        newValues[values.length] = value;
+        return new RecordExtensions(base, newKeys, newValues, shadows ? size : size + 1);
+    }
+
+    /**
+     * get extensions with all entries of other added, entries of other win
+     * @param other
+     * @return
+     */
+    public RecordExtensions withAll(RecordExtensions other) {
+        if (other == null || other.size == 0 || other == this) {
+            return this;
+        }
+        if (size == 0) {
+            return other;
+        }
+        RecordExtensions[] result = {this};
+        other.forEach((key, value) -> result[0] = result[0].with(key, value));
+        return result[0];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Set<String> keySet() {
+        Set<String> keySet = new LinkedHashSet<>(size * 2);
+        forEach((key, value) -> keySet.add(key));
+        return Collections.unmodifiableSet(keySet);
+    }
+
+    /**
+     * visit every entry once, base entries first
+     * @param action
+     */
+    public void forEach(BiConsumer<String, String> action) {
+        if (base != null) {
+            for (int i = 0; i < base.keys.length; i++) {
+                if (indexOf(keys, base.keys[i]) < 0) {
+                    action.accept(base.keys[i], base.values[i]);
+                }
+            }
+        }
+        for (int i = 0; i < keys.length; i++) {
+            action.accept(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * copy the entries into a new key value
+     * @return
+     */
+    public KeyValue toKeyValue() {
+        KeyValue keyValue = new DefaultKeyValue();
+        forEach(keyValue::put);
+        return keyValue;
+    }
+
+    private RecordExtensions flatten() {
+        if (base == null) {
+            return this;
+        }
+        String[] flatKeys = new String[size];
+        String[] flatValues = new String[size];
+        int[] n = {0};
+        forEach((key, value) -> {
+            flatKeys[n[0]] = key;
+            flatValues[n[0]++] = value;
+        });
+        return new RecordExtensions(null, flatKeys, flatValues, size);
+    }
+
+    private static int indexOf(String[] keys, String key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RecordExtensions)) return false;
+        RecordExtensions that = (RecordExtensions) o;
+        if (size != that.size || hashCode() != that.hashCode()) {
+            return false;
+        }
+        boolean[] equal = {true};
+        forEach((key, value) -> {
+            if (equal[0] && (!that.containsKey(key) || !Objects.equals(value, that.get(key)))) {
+                equal[0] = false;
+            }
+        });
+        return equal[0];
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0 && size > 0) {
+            // same as the hash code of a map with these entries
+            int[] sum = {0};
+            forEach((key, value) -> sum[0] += key.hashCode() ^ Objects.hashCode(value));
+            h = sum[0];
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+}
@@ -39,16 +39,16 @@ public class RecordOffset {
         if (!(o instanceof RecordOffset))
             return false;
         RecordOffset offset1 = (RecordOffset) o;
-        return Objects.equals(offset, offset1.offset);
+        return Objects.equals(getOffset(), offset1.getOffset());
     }
 
     @Override public int hashCode() {
-        return Objects.hash(offset);
+        return Objects.hash(getOffset());
     }
 
     @Override public String toString() {
         return "RecordOffset{" +
-            "offset=" + offset +
+            "offset=" + getOffset() +
             '}';
     }
 }
@@ -41,16 +41,16 @@ public class RecordPartition {
         if (!(o instanceof RecordPartition))
             return false;
         RecordPartition partition1 = (RecordPartition) o;
-        return Objects.equals(partition, partition1.partition);
+        return Objects.equals(getPartition(), partition1.getPartition());
     }
 
     @Override public int hashCode() {
-        return Objects.hash(partition);
+        return Objects.hash(getPartition());
     }
 
     @Override public String toString() {
         return "RecordPartition{" +
-            "partition=" + partition +
+            "partition=" + getPartition() +
             '}';
     }
 }
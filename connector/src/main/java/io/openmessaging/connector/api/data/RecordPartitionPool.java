@@ -0,0 +1,189 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded, concurrent interning pool of {@link RecordPartition}s.
+ * <p>
+ * {@link #intern(RecordPartition)} returns one canonical {@link ImmutableRecordPartition} per distinct partition, so
+ * sources building a partition per record hand out shared instances and partition lookups in offset maps mostly end
+ * at the reference comparison. The pool only references its partitions weakly, a canonical instance nobody uses any
+ * more is dropped by the garbage collector and expunged from the pool. Once {@code maxSize} partitions are pooled,
+ * new partitions are still returned as immutable copies but not pooled.
+ */
+public final class RecordPartitionPool {
+
+    public static final int DEFAULT_MAX_SIZE = 65536;
+
+    private static final RecordPartitionPool SHARED = new RecordPartitionPool(DEFAULT_MAX_SIZE);
+
+    private final int maxSize;
+    private final ConcurrentMap<Key, Ref> partitions = new ConcurrentHashMap<>();
+    private final ReferenceQueue<ImmutableRecordPartition> collected = new ReferenceQueue<>();
+
+    public RecordPartitionPool(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * get the pool shared by the whole process
+     * @return
+     */
+    public static RecordPartitionPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * get the canonical instance of a partition
+     * @param partition
+     * @return
+     */
+    public ImmutableRecordPartition intern(RecordPartition partition) {
+        if (partition == null) {
+            return null;
+        }
+        expunge();
+        ImmutableRecordPartition canonical = lookup(partition);
+        if (canonical != null) {
+            return canonical;
+        }
+        ImmutableRecordPartition candidate = ImmutableRecordPartition.of(partition);
+        while (partitions.size() < maxSize) {
+            Ref ref = new Ref(candidate, collected);
+            Ref existing = partitions.putIfAbsent(ref, ref);
+            if (existing == null) {
+                return candidate;
+            }
+            canonical = existing.get();
+            if (canonical != null) {
+                return canonical;
+            }
+            // collected between the lookup and now, drop it and retry
+            partitions.remove(existing, existing);
+        }
+        return candidate;
+    }
+
+    /**
+     * get the canonical instance of a partition map
+     * @param partition
+     * @return
+     */
+    public ImmutableRecordPartition intern(Map<String, ?> partition) {
+        return partition == null ? null : intern(new RecordPartition(partition));
+    }
+
+    /**
+     * get the number of pooled partitions, including ones collected but not expunged yet
+     * @return
+     */
+    public int size() {
+        return partitions.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void clear() {
+        partitions.clear();
+        expunge();
+    }
+
+    private ImmutableRecordPartition lookup(RecordPartition partition) {
+        Ref ref = partitions.get(new Probe(partition));
+        return ref == null ? null : ref.get();
+    }
+
+    private void expunge() {
+        Object ref;
+        while ((ref = collected.poll()) != null) {
+            partitions.remove(ref, ref);
+        }
+    }
+
+    /**
+     * Pool keys compare the partitions they refer to, a collected key is only equal to itself.
+     */
+    private interface Key {
+
+        RecordPartition partition();
+    }
+
+    private static boolean keyEquals(Key key, int hash, Object o) {
+        if (key == o) {
+            return true;
+        }
+        if (!(o instanceof Key) || o.hashCode() != hash) {
+            return false;
+        }
+        RecordPartition partition = key.partition();
+        return partition != null && partition.equals(((Key) o).partition());
+    }
+
+    private static final class Ref extends WeakReference<ImmutableRecordPartition> implements Key {
+
+        private final int hash;
+
+        Ref(ImmutableRecordPartition partition, ReferenceQueue<ImmutableRecordPartition> queue) {
+            super(partition, queue);
+            this.hash = partition.hashCode();
+        }
+
+        @Override public RecordPartition partition() {
+            return get();
+        }
+
+        @Override public boolean equals(Object o) {
+            return keyEquals(this, hash, o);
+        }
+
+        @Override public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Probe implements Key {
+
+        private final RecordPartition partition;
+        private final int hash;
+
+        Probe(RecordPartition partition) {
+            this.partition = partition;
+            this.hash = partition.hashCode();
+        }
+
+        @Override public RecordPartition partition() {
+            return partition;
+        }
+
+        @Override public boolean equals(Object o) {
+            return keyEquals(this, hash, o);
+        }
+
+        @Override public int hashCode() {
+            return hash;
+        }
+    }
+}
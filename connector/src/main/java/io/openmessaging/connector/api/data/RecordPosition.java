@@ -18,6 +18,11 @@ import java.util.Objects;
 
 public class RecordPosition {
 
+    /**
+     * position of records without partition and offset
+     */
+    public static final RecordPosition EMPTY = new RecordPosition(null, null);
+
     private final RecordPartition recordPartition;
 
     private final RecordOffset recordOffset;
@@ -27,6 +32,19 @@ public class RecordPosition {
         this.recordOffset = recordOffset;
     }
 
+    /**
+     * get a position, the shared {@link #EMPTY} one if both partition and offset are null
+     * @param recordPartition
+     * @param recordOffset
+     * @return
+     */
+    public static RecordPosition of(RecordPartition recordPartition, RecordOffset recordOffset) {
+        if (recordPartition == null && recordOffset == null) {
+            return EMPTY;
+        }
+        return new RecordPosition(recordPartition, recordOffset);
+    }
+
     public RecordPartition getPartition() {
         return recordPartition;
     }
@@ -41,7 +59,7 @@ public class RecordPosition {
         if (!(o instanceof RecordPosition))
             return false;
         RecordPosition position = (RecordPosition) o;
-        return recordPartition.equals(position.recordPartition) && recordOffset.equals(position.recordOffset);
+        return Objects.equals(recordPartition, position.recordPartition) && Objects.equals(recordOffset, position.recordOffset);
     }
 
     @Override public int hashCode() {
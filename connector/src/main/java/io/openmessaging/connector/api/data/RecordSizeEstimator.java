@@ -0,0 +1,268 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import io.openmessaging.KeyValue;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates the heap footprint of records and their values, so runtimes and sinks can bound buffers in bytes.
+ * <p>
+ * Estimates assume a 64-bit JVM with compressed references and compact strings. They are meant for budgeting, not
+ * accounting, and are cheap to compute: the fixed-width part of a struct is computed once per frozen schema, only
+ * the variable fields of a value are walked per record. {@link BinaryStruct}s are counted by the length of their row
+ * rather than the buffer they view, adjusted by the values held for their fields once the row no longer matches,
+ * so fields that were not accessed are never decoded. {@link PrimitiveStruct}s are counted by their slab. Record
+ * positions are counted shallowly since partitions and offsets are usually shared between records.
+ */
+public final class RecordSizeEstimator {
+
+    static final int OBJECT_HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+
+    static final int RECORD = align(OBJECT_HEADER + 8 + 6 * REFERENCE);
+    static final int POSITION = align(OBJECT_HEADER + 2 * REFERENCE);
+    static final int BOXED = 16;
+    static final int STRING = align(OBJECT_HEADER + 4 + 1 + 1 + REFERENCE);
+    static final int BYTE_BUFFER = 48;
+    static final int DATE = 24;
+    static final int BIG_DECIMAL = 40 + 40;
+    static final int LIST = align(OBJECT_HEADER + 2 * 4 + REFERENCE);
+    static final int MAP = 48;
+    static final int MAP_ENTRY = 32 + REFERENCE;
+    static final int STRUCT = align(OBJECT_HEADER + 2 * REFERENCE);
+    static final int PRIMITIVE_STRUCT = align(OBJECT_HEADER + 5 * REFERENCE);
+    static final int BINARY_STRUCT = align(OBJECT_HEADER + 5 * REFERENCE + 4 + 1);
+
+    private RecordSizeEstimator() {
+    }
+
+    /**
+     * estimate the heap size of a record with its key, data and extensions
+     * @param record
+     * @return bytes
+     */
+    public static long estimate(ConnectRecord record) {
+        if (record == null) {
+            return 0;
+        }
+        long size = RECORD;
+        RecordPosition position = record.getPosition();
+        if (position != null && position != RecordPosition.EMPTY) {
+            size += POSITION;
+        }
+        size += estimate(record.getKeySchema(), record.getKey());
+        size += estimate(record.getSchema(), record.getData());
+        return size + estimateExtensions(record.rawExtensions());
+    }
+
+    /**
+     * estimate the heap size of a value of a schema
+     * @param schema schema of the value, may be null
+     * @param value
+     * @return bytes
+     */
+    public static long estimate(Schema schema, Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (schema != null) {
+            switch (schema.getFieldType()) {
+                case INT8:
+                case INT16:
+                case INT32:
+                case INT64:
+                case FLOAT32:
+                case FLOAT64:
+                case BOOLEAN:
+                    // logical INT32 and INT64 types hold dates
+                    return schema.getName() == null ? BOXED : estimate(value);
+                case STRUCT:
+                    return value instanceof Struct ? estimate((Struct) value) : estimate(value);
+                case ARRAY:
+                    return value instanceof Collection ? estimate(schema.getValueSchema(), (Collection<?>) value)
+                        : estimate(value);
+                case MAP:
+                    return value instanceof Map
+                        ? estimate(schema.getKeySchema(), schema.getValueSchema(), (Map<?, ?>) value) : estimate(value);
+                default:
+                    break;
+            }
+        }
+        return estimate(value);
+    }
+
+    /**
+     * estimate the heap size of a struct
+     * @param struct
+     * @return bytes
+     */
+    public static long estimate(Struct struct) {
+        if (struct == null) {
+            return 0;
+        }
+        if (struct instanceof BinaryStruct) {
+            return estimate((BinaryStruct) struct);
+        }
+        StructSize structSize = struct.schema().structSize();
+        long size = struct instanceof PrimitiveStruct ? structSize.primitiveFixed : structSize.boxedFixed;
+        int[] variableFields = structSize.variableFields;
+        Schema[] variableSchemas = structSize.variableSchemas;
+        for (int i = 0; i < variableFields.length; i++) {
+            size += estimate(variableSchemas[i], struct.getValue(variableFields[i]));
+        }
+        return size;
+    }
+
+    /**
+     * A view that can still be written by copying its row is its row. Otherwise every value held for a field, decoded
+     * or put, replaces the bytes the field takes up in the row.
+     */
+    private static long estimate(BinaryStruct struct) {
+        long size = BINARY_STRUCT + struct.rowLength();
+        if (struct.matchesRow()) {
+            return size;
+        }
+        List<Field> fields = struct.schema().getFields();
+        size += align(ARRAY_HEADER + REFERENCE * fields.size());
+        for (Field field : fields) {
+            int index = field.getIndex();
+            if (struct.isHeld(index)) {
+                size += estimate(field.getSchema(), struct.getValue(index)) - struct.encodedLength(index);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * estimate the heap size of a value without schema, by its class
+     * @param value
+     * @return bytes
+     */
+    public static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return STRING + align(ARRAY_HEADER + ((String) value).length());
+        }
+        if (value instanceof byte[]) {
+            return align(ARRAY_HEADER + ((byte[]) value).length);
+        }
+        if (value instanceof ByteBuffer) {
+            return BYTE_BUFFER + ((ByteBuffer) value).remaining();
+        }
+        if (value instanceof Struct) {
+            return estimate((Struct) value);
+        }
+        if (value instanceof Collection) {
+            return estimate(null, (Collection<?>) value);
+        }
+        if (value instanceof Map) {
+            return estimate(null, null, (Map<?, ?>) value);
+        }
+        if (value instanceof BigDecimal) {
+            return BIG_DECIMAL + align(ARRAY_HEADER + ((BigDecimal) value).unscaledValue().bitLength() / 8 + 1);
+        }
+        if (value instanceof java.util.Date) {
+            return DATE;
+        }
+        return BOXED;
+    }
+
+    private static long estimate(Schema elementSchema, Collection<?> values) {
+        long size = LIST + align(ARRAY_HEADER + REFERENCE * values.size());
+        for (Object element : values) {
+            size += estimate(elementSchema, element);
+        }
+        return size;
+    }
+
+    private static long estimate(Schema keySchema, Schema valueSchema, Map<?, ?> map) {
+        long size = MAP + align(ARRAY_HEADER + REFERENCE * tableSize(map.size())) + (long) MAP_ENTRY * map.size();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            size += estimate(keySchema, entry.getKey()) + estimate(valueSchema, entry.getValue());
+        }
+        return size;
+    }
+
+    private static long estimateExtensions(Object extensions) {
+        if (extensions instanceof RecordExtensions) {
+            RecordExtensions recordExtensions = (RecordExtensions) extensions;
+            long[] size = {align(OBJECT_HEADER + 4 * REFERENCE) + 2 * align(ARRAY_HEADER + REFERENCE * recordExtensions.size())};
+            recordExtensions.forEach((key, value) -> size[0] += estimate(key) + estimate(value));
+            return size[0];
+        }
+        if (extensions instanceof KeyValue) {
+            KeyValue keyValue = (KeyValue) extensions;
+            int count = keyValue.keySet().size();
+            long size = MAP + MAP + align(ARRAY_HEADER + REFERENCE * tableSize(count)) + (long) MAP_ENTRY * count;
+            for (String key : keyValue.keySet()) {
+                size += estimate(key) + estimate(keyValue.getString(key));
+            }
+            return size;
+        }
+        return 0;
+    }
+
+    private static int tableSize(int size) {
+        return size == 0 ? 0 : Integer.highestOneBit(Math.max(1, size * 4 / 3) - 1) << 1;
+    }
+
+    static int align(int size) {
+        return (size + 7) & ~7;
+    }
+
+    /**
+     * Fixed-width part of the structs of a schema: the struct, its value array, boxed or slab held primitive fields. A
+     * primitive struct's value array only holds its variable fields.
+     */
+    static final class StructSize {
+        final long boxedFixed;
+        final long primitiveFixed;
+        final int[] variableFields;
+        final Schema[] variableSchemas;
+
+        StructSize(Schema schema) {
+            FieldType[] slotTypes = schema.primitiveSlotTypes();
+            List<Field> fields = schema.getFields();
+            int primitiveCount = 0;
+            for (FieldType slotType : slotTypes) {
+                if (slotType != null) {
+                    primitiveCount++;
+                }
+            }
+            variableFields = new int[fields.size() - primitiveCount];
+            variableSchemas = new Schema[variableFields.length];
+            int i = 0;
+            for (Field field : fields) {
+                if (slotTypes[field.getIndex()] == null) {
+                    variableFields[i] = field.getIndex();
+                    variableSchemas[i++] = field.getSchema();
+                }
+            }
+            boxedFixed = STRUCT + align(ARRAY_HEADER + REFERENCE * fields.size()) + (long) BOXED * primitiveCount;
+            int objectArray = variableFields.length == 0 ? 0 : align(ARRAY_HEADER + REFERENCE * variableFields.length);
+            int slabLength = slotTypes.length + ((slotTypes.length + 63) >>> 6);
+            primitiveFixed = PRIMITIVE_STRUCT + objectArray + align(ARRAY_HEADER + 8 * slabLength);
+        }
+    }
+}
@@ -22,14 +22,19 @@ import io.openmessaging.connector.api.errors.ConnectException;
 
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Schema
@@ -44,12 +49,32 @@ public class Schema {
     /**
      * Maps known logical types to a list of Java classes that can be used to represent them.
      */
-    private static final Map<String, List<Class>> LOGICAL_TYPE_CLASSES = new HashMap<>();
+    private static final Map<String, List<Class<?>>> LOGICAL_TYPE_CLASSES = new HashMap<>();
 
     /**
-     * Maps the Java classes to the corresponding Schema.Type.
+     * Maps the Java classes to the corresponding Schema.Type. Mappings may be added, but a class resolved through
+     * {@link #schemaType(Class)} keeps the type it resolved to.
      */
-    public static final Map<Class<?>, FieldType> JAVA_CLASS_SCHEMA_TYPES = new HashMap<>();
+    public static final Map<Class<?>, FieldType> JAVA_CLASS_SCHEMA_TYPES = new SchemaTypeMap();
+
+    /**
+     * bumped whenever a class may have been added to {@link #JAVA_CLASS_SCHEMA_TYPES}, so cached misses resolve again
+     */
+    private static final AtomicInteger SCHEMA_TYPES_VERSION = new AtomicInteger();
+
+    /**
+     * Resolves Java classes to their Schema.Type, either directly through {@link #JAVA_CLASS_SCHEMA_TYPES} or
+     * through a class mapped there that the class extends or implements. Each class is resolved once, later
+     * lookups are lock free. A class that resolves to no type is resolved again after a mapping was added.
+     */
+    private static final ClassValue<SchemaTypeSlot> CLASS_SCHEMA_TYPES = new ClassValue<SchemaTypeSlot>() {
+        @Override
+        protected SchemaTypeSlot computeValue(Class<?> klass) {
+            SchemaTypeSlot slot = new SchemaTypeSlot();
+            slot.resolve(klass);
+            return slot;
+        }
+    };
 
     static {
         SCHEMA_TYPE_CLASSES.put(FieldType.INT8, Collections.singletonList((Class) Byte.class));
@@ -71,10 +96,10 @@ public class Schema {
             }
         }
 
-        LOGICAL_TYPE_CLASSES.put(Decimal.LOGICAL_NAME, Collections.singletonList((Class) BigDecimal.class));
-        LOGICAL_TYPE_CLASSES.put(Date.LOGICAL_NAME, Collections.singletonList((Class) java.util.Date.class));
-        LOGICAL_TYPE_CLASSES.put(Time.LOGICAL_NAME, Collections.singletonList((Class) java.util.Date.class));
-        LOGICAL_TYPE_CLASSES.put(Timestamp.LOGICAL_NAME, Collections.singletonList((Class) java.util.Date.class));
+        LOGICAL_TYPE_CLASSES.put(Decimal.LOGICAL_NAME, Collections.<Class<?>>singletonList(BigDecimal.class));
+        LOGICAL_TYPE_CLASSES.put(Date.LOGICAL_NAME, Collections.<Class<?>>singletonList(java.util.Date.class));
+        LOGICAL_TYPE_CLASSES.put(Time.LOGICAL_NAME, Collections.<Class<?>>singletonList(java.util.Date.class));
+        LOGICAL_TYPE_CLASSES.put(Timestamp.LOGICAL_NAME, Collections.<Class<?>>singletonList(java.util.Date.class));
 
     }
 
@@ -115,6 +140,37 @@ public class Schema {
     private Schema keySchema;
     private Schema valueSchema;
 
+    /**
+     * frozen schemas reject modification and cache their hash code and fingerprint
+     */
+    private boolean frozen;
+    /**
+     * set on the instance held by {@link SchemaRegistry}
+     */
+    private boolean canonical;
+    private int hash;
+    private long fingerprint;
+    /**
+     * primitive storage layout of struct fields, cached once frozen
+     */
+    private PrimitiveStruct.Layout primitiveLayout;
+    /**
+     * binary row layout of struct fields, cached once frozen
+     */
+    private BinaryRowFormat.Layout binaryRowLayout;
+    /**
+     * compiled validator, cached once frozen
+     */
+    private SchemaValidator validator;
+    /**
+     * fixed-width size of struct values, cached once frozen
+     */
+    private RecordSizeEstimator.StructSize structSize;
+    /**
+     * scale of a Decimal schema, cached once frozen
+     */
+    private Integer decimalScale;
+
     /**
      * Construct a Schema. Most users should not construct schemas manually, preferring {@link SchemaBuilder} instead.
      */
@@ -173,6 +229,7 @@ public class Schema {
     }
 
     public void setVersion(Integer version) {
+        checkMutable();
         this.version = version;
     }
 
@@ -181,6 +238,7 @@ public class Schema {
     }
 
     public void setOptional(boolean optional) {
+        checkMutable();
         this.optional = optional;
     }
 
@@ -189,6 +247,7 @@ public class Schema {
     }
 
     public void setDefaultValue(Object defaultValue) {
+        checkMutable();
         this.defaultValue = defaultValue;
     }
 
@@ -197,6 +256,7 @@ public class Schema {
     }
 
     public void setDoc(String doc) {
+        checkMutable();
         this.doc = doc;
     }
 
@@ -205,6 +265,7 @@ public class Schema {
     }
 
     public void setFieldsByName(Map<String, Field> fieldsByName) {
+        checkMutable();
         this.fieldsByName = fieldsByName;
     }
 
@@ -213,6 +274,7 @@ public class Schema {
     }
 
     public void setKeySchema(Schema keySchema) {
+        checkMutable();
         this.keySchema = keySchema;
     }
 
@@ -221,6 +283,7 @@ public class Schema {
     }
 
     public void setValueSchema(Schema valueSchema) {
+        checkMutable();
         this.valueSchema = valueSchema;
     }
 
@@ -229,6 +292,7 @@ public class Schema {
     }
 
     public void setName(String name) {
+        checkMutable();
         this.name = name;
     }
 
@@ -237,6 +301,7 @@ public class Schema {
     }
 
     public void setFieldType(FieldType fieldType) {
+        checkMutable();
         this.fieldType = fieldType;
     }
 
@@ -245,6 +310,7 @@ public class Schema {
     }
 
     public void setFields(List<Field> fields) {
+        checkMutable();
         this.fields = fields;
     }
 
@@ -253,21 +319,216 @@ public class Schema {
     }
 
     public void setParameters(Map<String, String> parameters) {
+        checkMutable();
         this.parameters = parameters;
     }
 
     // end getter and setter
 
+    /**
+     * Whether this schema is frozen. Schemas produced by {@link SchemaBuilder#build()} are always frozen.
+     * @return true if the schema can no longer be modified
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Freeze this schema. A frozen schema rejects modification and computes its hash code and fingerprint once.
+     * Nested field, key and value schemas are replaced by their canonical instances, see {@link SchemaRegistry},
+     * and the fields by frozen copies, so fields and nested schemas owned by the caller stay mutable.
+     * @return this schema
+     */
+    public Schema freeze() {
+        if (frozen) {
+            return this;
+        }
+        if (fields != null) {
+            List<Field> frozenFields = new ArrayList<>(fields.size());
+            Map<String, Field> frozenFieldsByName = new HashMap<>(fields.size());
+            for (Field field : fields) {
+                Field frozenField = new Field(field.getIndex(), field.getName(), SchemaRegistry.intern(field.getSchema()));
+                frozenField.freeze();
+                frozenFields.add(frozenField);
+                frozenFieldsByName.put(frozenField.getName(), frozenField);
+            }
+            fields = Collections.unmodifiableList(frozenFields);
+            fieldsByName = Collections.unmodifiableMap(frozenFieldsByName);
+        } else if (fieldsByName != null) {
+            fieldsByName = Collections.unmodifiableMap(new HashMap<>(fieldsByName));
+        }
+        if (parameters != null) {
+            parameters = Collections.unmodifiableMap(new LinkedHashMap<>(parameters));
+        }
+        keySchema = SchemaRegistry.intern(keySchema);
+        valueSchema = SchemaRegistry.intern(valueSchema);
+        hash = computeHashCode();
+        fingerprint = SchemaFingerprint.compute(this);
+        frozen = true;
+        return this;
+    }
+
+    /**
+     * Stable 64-bit structural fingerprint, equal schemas always have equal fingerprints.
+     * @return fingerprint
+     */
+    public long fingerprint() {
+        return frozen ? fingerprint : SchemaFingerprint.compute(this);
+    }
+
+    /**
+     * Copy of this schema that is not frozen, sharing fields and nested schemas until it is frozen.
+     */
+    Schema unfrozenCopy() {
+        return new Schema(name, fieldType, optional, defaultValue, version, doc,
+                fields == null ? null : new ArrayList<>(fields), keySchema, valueSchema, parameters);
+    }
+
+    boolean isCanonical() {
+        return canonical;
+    }
+
+    void markCanonical() {
+        this.canonical = true;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new ConnectException("Cannot modify frozen schema " + name);
+        }
+    }
+
     /**
      * get field
      * @param fieldName field name
      * @return field
      */
     public Field getField(String fieldName) {
-        if (fieldsByName.containsKey(fieldName)){
-            return fieldsByName.get(fieldName);
+        return fieldsByName.get(fieldName);
+    }
+
+    /**
+     * Resolve a reusable handle for the named field, see {@link FieldHandle}.
+     * @param fieldName field name
+     * @return field handle
+     */
+    public FieldHandle fieldHandle(String fieldName) {
+        return FieldHandle.of(this, fieldName);
+    }
+
+    /**
+     * Field types of the struct fields that can be stored unboxed, indexed by {@link Field#getIndex()}. Slots of
+     * fields holding objects, including logical types, are null.
+     * @return primitive slot types
+     */
+    FieldType[] primitiveSlotTypes() {
+        return primitiveLayout().slotTypes;
+    }
+
+    /**
+     * Layout of the struct fields in the storage of {@link PrimitiveStruct}.
+     * @return layout
+     */
+    PrimitiveStruct.Layout primitiveLayout() {
+        PrimitiveStruct.Layout layout = primitiveLayout;
+        if (layout == null) {
+            FieldType[] slotTypes = new FieldType[fields.size()];
+            for (Field field : fields) {
+                Schema fieldSchema = field.getSchema();
+                if (isPrimitiveSlot(fieldSchema)) {
+                    slotTypes[field.getIndex()] = fieldSchema.getFieldType();
+                }
+            }
+            layout = new PrimitiveStruct.Layout(slotTypes);
+            if (frozen) {
+                primitiveLayout = layout;
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * Layout of the struct fields in the binary row format of {@link BinaryStruct}.
+     * @return layout
+     */
+    BinaryRowFormat.Layout binaryRowLayout() {
+        BinaryRowFormat.Layout layout = binaryRowLayout;
+        if (layout == null) {
+            layout = new BinaryRowFormat.Layout(this);
+            if (frozen) {
+                binaryRowLayout = layout;
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * Scale parameter of a {@link Decimal} schema, parsed once when the schema is frozen.
+     * @return scale
+     * @throws ConnectException if the scale parameter is missing or not a number
+     */
+    public int decimalScale() {
+        Integer scale = decimalScale;
+        if (scale == null) {
+            String scaleString = parameters == null ? null : parameters.get(Decimal.SCALE_FIELD);
+            if (scaleString == null) {
+                throw new ConnectException("Invalid Decimal schema: scale parameter not found.");
+            }
+            try {
+                scale = Integer.valueOf(scaleString);
+            } catch (NumberFormatException e) {
+                throw new ConnectException("Invalid scale parameter found in Decimal schema: ", e);
+            }
+            if (frozen) {
+                decimalScale = scale;
+            }
+        }
+        return scale;
+    }
+
+    /**
+     * Validator compiled from this schema, see {@link SchemaValidator}.
+     * @return validator
+     */
+    SchemaValidator validator() {
+        SchemaValidator compiled = validator;
+        if (compiled == null) {
+            compiled = SchemaValidator.compile(this);
+            if (frozen) {
+                validator = compiled;
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Fixed-width size of the structs of this schema, see {@link RecordSizeEstimator}.
+     * @return struct size
+     */
+    RecordSizeEstimator.StructSize structSize() {
+        RecordSizeEstimator.StructSize size = structSize;
+        if (size == null) {
+            size = new RecordSizeEstimator.StructSize(this);
+            if (frozen) {
+                structSize = size;
+            }
+        }
+        return size;
+    }
+
+    private static boolean isPrimitiveSlot(Schema schema) {
+        switch (schema.getFieldType()) {
+            case INT8:
+            case INT16:
+            case INT32:
+            case INT64:
+            case FLOAT32:
+            case FLOAT64:
+            case BOOLEAN:
+                return !LOGICAL_TYPE_CLASSES.containsKey(schema.getName());
+            default:
+                return false;
         }
-        return null;
     }
 
     /**
@@ -275,6 +536,7 @@ public class Schema {
      * @param field field
      */
     public void addField(Field field) {
+        checkMutable();
         this.fields.add(field);
         this.fieldsByName.put(field.getName(), field);
     }
@@ -303,6 +565,10 @@ public class Schema {
      * @param value value
      */
     public static void validateValue(String name, Schema schema, Object value) {
+        if (schema.frozen) {
+            schema.validator().validate(name, value);
+            return;
+        }
         // check optional
         if (value == null) {
             if (!schema.isOptional()) {
@@ -313,7 +579,7 @@ public class Schema {
         }
 
         // check field type
-        List<Class> expectedClasses = expectedClassesFor(schema);
+        List<Class<?>> expectedClasses = expectedClassesFor(schema);
         if (expectedClasses == null) {
             throw new ConnectException("Invalid Java object for schema type " + schema.getFieldType()
                     + ": " + value.getClass()
@@ -341,7 +607,7 @@ public class Schema {
         switch (schema.getFieldType()) {
             case STRUCT:
                 Struct struct = (Struct) value;
-                if (!struct.schema().equals(schema)) {
+                if (struct.schema() != schema && !struct.schema().equals(schema)) {
                     throw new ConnectException("Struct schemas do not match.");
                 }
                 struct.validate();
@@ -367,14 +633,23 @@ public class Schema {
      * @param schema schema
      * @return class list
      */
-    private static List<Class> expectedClassesFor(Schema schema) {
-        List<Class> expectedClasses = LOGICAL_TYPE_CLASSES.get(schema.getName());
+    static List<Class<?>> expectedClassesFor(Schema schema) {
+        List<Class<?>> expectedClasses = LOGICAL_TYPE_CLASSES.get(schema.getName());
         if (expectedClasses == null) {
-            expectedClasses = SCHEMA_TYPE_CLASSES.getOrDefault(schema.getFieldType(), Collections.emptyList());
+            expectedClasses = schemaTypeClasses(schema.getFieldType());
         }
         return expectedClasses;
     }
 
+    /**
+     * typed view of {@link #SCHEMA_TYPE_CLASSES}, whose raw element type is kept for compatibility
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Class<?>> schemaTypeClasses(FieldType fieldType) {
+        List<?> classes = SCHEMA_TYPE_CLASSES.get(fieldType);
+        return classes == null ? Collections.<Class<?>>emptyList() : (List<Class<?>>) classes;
+    }
+
 
     /**
      *  Get the type associated with the given class.
@@ -382,21 +657,110 @@ public class Schema {
      * @return field type
      */
     public static FieldType schemaType(Class<?> klass) {
-        synchronized (JAVA_CLASS_SCHEMA_TYPES) {
-            FieldType schemaType = JAVA_CLASS_SCHEMA_TYPES.get(klass);
-            if (Objects.nonNull(schemaType)) {
-                return schemaType;
-            }
-            for (Map.Entry<Class<?>, FieldType> entry : JAVA_CLASS_SCHEMA_TYPES.entrySet()) {
-                try {
-                    klass.asSubclass(entry.getKey());
-                    JAVA_CLASS_SCHEMA_TYPES.put(klass, entry.getValue());
-                    return entry.getValue();
-                } catch (ClassCastException e) {
+        SchemaTypeSlot slot = CLASS_SCHEMA_TYPES.get(klass);
+        FieldType schemaType = slot.schemaType;
+        if (schemaType == null && slot.version != SCHEMA_TYPES_VERSION.get()) {
+            schemaType = slot.resolve(klass);
+        }
+        return schemaType;
+    }
+
+    /**
+     * The type a class resolved to. A miss stays in place rather than being removed from the {@link ClassValue},
+     * since removing an entry invalidates the cached entries of all classes.
+     */
+    private static final class SchemaTypeSlot {
+
+        /**
+         * type the class resolved to, null if none
+         */
+        private volatile FieldType schemaType;
+        /**
+         * version of the mappings a miss was resolved against
+         */
+        private volatile int version;
+
+        synchronized FieldType resolve(Class<?> klass) {
+            int current = SCHEMA_TYPES_VERSION.get();
+            FieldType resolved = JAVA_CLASS_SCHEMA_TYPES.get(klass);
+            if (Objects.isNull(resolved)) {
+                for (Map.Entry<Class<?>, FieldType> entry : JAVA_CLASS_SCHEMA_TYPES.entrySet()) {
+                    if (entry.getKey().isAssignableFrom(klass)) {
+                        resolved = entry.getValue();
+                        break;
+                    }
                 }
             }
+            schemaType = resolved;
+            version = current;
+            return resolved;
+        }
+    }
+
+    /**
+     * Bumps {@link #SCHEMA_TYPES_VERSION} on every method that may add a class. Replacing or removing a mapping does
+     * not, classes resolved before keep their type.
+     */
+    private static final class SchemaTypeMap extends ConcurrentHashMap<Class<?>, FieldType> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public FieldType put(Class<?> key, FieldType value) {
+            try {
+                return super.put(key, value);
+            } finally {
+                SCHEMA_TYPES_VERSION.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void putAll(Map<? extends Class<?>, ? extends FieldType> m) {
+            try {
+                super.putAll(m);
+            } finally {
+                SCHEMA_TYPES_VERSION.incrementAndGet();
+            }
+        }
+
+        @Override
+        public FieldType putIfAbsent(Class<?> key, FieldType value) {
+            try {
+                return super.putIfAbsent(key, value);
+            } finally {
+                SCHEMA_TYPES_VERSION.incrementAndGet();
+            }
+        }
+
+        @Override
+        public FieldType computeIfAbsent(Class<?> key,
+            Function<? super Class<?>, ? extends FieldType> mappingFunction) {
+            try {
+                return super.computeIfAbsent(key, mappingFunction);
+            } finally {
+                SCHEMA_TYPES_VERSION.incrementAndGet();
+            }
+        }
+
+        @Override
+        public FieldType compute(Class<?> key,
+            BiFunction<? super Class<?>, ? super FieldType, ? extends FieldType> remappingFunction) {
+            try {
+                return super.compute(key, remappingFunction);
+            } finally {
+                SCHEMA_TYPES_VERSION.incrementAndGet();
+            }
+        }
+
+        @Override
+        public FieldType merge(Class<?> key, FieldType value,
+            BiFunction<? super FieldType, ? super FieldType, ? extends FieldType> remappingFunction) {
+            try {
+                return super.merge(key, value, remappingFunction);
+            } finally {
+                SCHEMA_TYPES_VERSION.incrementAndGet();
+            }
         }
-        return null;
     }
 
     @Override
@@ -404,11 +768,18 @@ public class Schema {
         if (this == o) return true;
         if (!(o instanceof Schema)) return false;
         Schema schema = (Schema) o;
+        if (frozen && schema.frozen && (hash != schema.hash || (canonical && schema.canonical))) {
+            return false;
+        }
         return isOptional() == schema.isOptional() && Objects.equals(getName(), schema.getName()) && Objects.equals(getVersion(), schema.getVersion()) && Objects.equals(getDefaultValue(), schema.getDefaultValue()) && Objects.equals(getDoc(), schema.getDoc()) && getFieldType() == schema.getFieldType() && Objects.equals(getFields(), schema.getFields()) && Objects.equals(getParameters(), schema.getParameters()) && Objects.equals(getKeySchema(), schema.getKeySchema()) && Objects.equals(getValueSchema(), schema.getValueSchema());
     }
 
     @Override
     public int hashCode() {
+        return frozen ? hash : computeHashCode();
+    }
+
+    private int computeHashCode() {
         return Objects.hash(getName(), getVersion(), isOptional(), getDefaultValue(), getDoc(), getFieldType(), getFields(), getParameters(), getKeySchema(), getValueSchema());
     }
 
@@ -409,12 +409,14 @@ public class SchemaBuilder {
     }
 
     /**
-     * Build the Schema using the current settings
+     * Build the Schema using the current settings. The schema is frozen, see {@link Schema#freeze()}, and
+     * structurally equal schemas resolve to one canonical instance through {@link SchemaRegistry}.
      *
      * @return the {@link Schema}
      */
     public Schema build() {
-        return new Schema(name, type, isOptional(), defaultValue, version, doc,
-                fields == null ? null : Collections.unmodifiableList(new ArrayList<>(fields.values())), keySchema, valueSchema, parameters);
+        return SchemaRegistry.intern(new Schema(name, type, isOptional(), defaultValue, version, doc,
+                fields == null ? null : new ArrayList<>(fields.values()), keySchema, valueSchema,
+                parameters == null ? null : new LinkedHashMap<>(parameters)).freeze());
     }
 }
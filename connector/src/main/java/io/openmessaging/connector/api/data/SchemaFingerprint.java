@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structural 64-bit fingerprint of a {@link Schema}.
+ * <p>
+ * Schemas that are {@link Schema#equals(Object) equal} always have the same fingerprint, so it can be used to
+ * bucket schemas before falling back to a full structural comparison.
+ */
+final class SchemaFingerprint {
+
+    private static final long SEED = 0xCBF29CE484222325L;
+    private static final long NULL = 0x5BD1E9955BD1E995L;
+
+    private SchemaFingerprint() {
+    }
+
+    /**
+     * compute the fingerprint of a schema, nested schemas contribute their own (cached when frozen) fingerprint
+     * @param schema schema
+     * @return fingerprint
+     */
+    static long compute(Schema schema) {
+        long h = SEED;
+        h = mix(h, schema.getFieldType() == null ? NULL : schema.getFieldType().ordinal());
+        h = mix(h, hash(schema.getName()));
+        h = mix(h, schema.getVersion() == null ? NULL : schema.getVersion());
+        h = mix(h, schema.isOptional() ? 1 : 0);
+        h = mix(h, hash(schema.getDoc()));
+        h = mix(h, hashValue(schema.getDefaultValue()));
+        h = mix(h, hashFields(schema.getFields()));
+        h = mix(h, hashParameters(schema.getParameters()));
+        h = mix(h, of(schema.getKeySchema()));
+        h = mix(h, of(schema.getValueSchema()));
+        return h;
+    }
+
+    private static long of(Schema schema) {
+        return schema == null ? NULL : schema.fingerprint();
+    }
+
+    private static long hashFields(List<Field> fields) {
+        if (fields == null) {
+            return NULL;
+        }
+        long h = mix(SEED, fields.size());
+        for (Field field : fields) {
+            if (field == null) {
+                h = mix(h, NULL);
+                continue;
+            }
+            h = mix(h, field.getIndex());
+            h = mix(h, hash(field.getName()));
+            h = mix(h, of(field.getSchema()));
+        }
+        return h;
+    }
+
+    /**
+     * Map equality ignores iteration order, so entries are combined commutatively.
+     */
+    private static long hashParameters(Map<String, String> parameters) {
+        if (parameters == null) {
+            return NULL;
+        }
+        long sum = 0;
+        for (Map.Entry<String, String> entry : parameters.entrySet()) {
+            sum += mix(hash(entry.getKey()), hash(entry.getValue()));
+        }
+        return mix(mix(SEED, parameters.size()), sum);
+    }
+
+    private static long hashValue(Object value) {
+        if (value == null) {
+            return NULL;
+        }
+        if (value instanceof byte[]) {
+            return Arrays.hashCode((byte[]) value);
+        }
+        if (value instanceof String) {
+            return hash((String) value);
+        }
+        return value.hashCode();
+    }
+
+    private static long hash(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        long h = SEED;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return h;
+    }
+
+    private static long mix(long h, long value) {
+        h ^= value;
+        h *= 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Intern pool of canonical {@link Schema} instances.
+ * <p>
+ * Schemas are keyed by their structural fingerprint, so structurally equal schemas built independently resolve to
+ * one shared instance and later comparisons between them succeed on reference identity. Canonical schemas are
+ * frozen. The pool only references them weakly, a canonical schema nobody uses any more is dropped by the garbage
+ * collector and expunged from the pool, so schemas generated at runtime do not accumulate.
+ */
+public final class SchemaRegistry {
+
+    private static final ConcurrentMap<Long, Ref> SCHEMAS = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Schema> COLLECTED = new ReferenceQueue<>();
+
+    private SchemaRegistry() {
+    }
+
+    /**
+     * Get the canonical instance of the given schema, registering it if no equal schema is known yet. A schema that
+     * is not frozen is left as is and a frozen copy of it is interned instead, see {@link Schema#freeze()}.
+     * @param schema schema
+     * @return the canonical schema, or the frozen schema if it cannot be interned
+     */
+    public static Schema intern(Schema schema) {
+        if (schema == null) {
+            return null;
+        }
+        expunge();
+        if (!schema.isFrozen()) {
+            schema = schema.unfrozenCopy().freeze();
+        }
+        Long fingerprint = schema.fingerprint();
+        while (true) {
+            Ref ref = SCHEMAS.get(fingerprint);
+            Schema canonical = ref == null ? null : ref.get();
+            if (canonical != null) {
+                // a fingerprint collision leaves the schema uninterned
+                return canonical.equals(schema) ? canonical : schema;
+            }
+            Ref candidate = new Ref(fingerprint, schema);
+            boolean registered = ref == null
+                ? SCHEMAS.putIfAbsent(fingerprint, candidate) == null
+                : SCHEMAS.replace(fingerprint, ref, candidate);
+            if (registered) {
+                schema.markCanonical();
+                return schema;
+            }
+            // raced with another registration or with the collection of the previous canonical instance, retry
+        }
+    }
+
+    /**
+     * number of canonical schemas, including ones collected but not expunged yet
+     * @return size
+     */
+    public static int size() {
+        return SCHEMAS.size();
+    }
+
+    private static void expunge() {
+        Object collected;
+        while ((collected = COLLECTED.poll()) != null) {
+            Ref ref = (Ref) collected;
+            SCHEMAS.remove(ref.fingerprint, ref);
+        }
+    }
+
+    private static final class Ref extends WeakReference<Schema> {
+
+        private final Long fingerprint;
+
+        Ref(Long fingerprint, Schema schema) {
+            super(schema, COLLECTED);
+            this.fingerprint = fingerprint;
+        }
+    }
+}
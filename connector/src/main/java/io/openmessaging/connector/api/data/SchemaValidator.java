@@ -0,0 +1,190 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import io.openmessaging.connector.api.errors.ConnectException;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validator compiled from a {@link Schema}, with expected classes, optionality and the validators of nested
+ * schemas resolved up front. It performs the same checks as {@link Schema#validateValue(String, Schema, Object)}.
+ */
+abstract class SchemaValidator {
+
+    private final FieldType fieldType;
+    private final boolean optional;
+    private final Class<?>[] expectedClasses;
+
+    SchemaValidator(Schema schema) {
+        this.fieldType = schema.getFieldType();
+        this.optional = schema.isOptional();
+        this.expectedClasses = Schema.expectedClassesFor(schema).toArray(new Class<?>[0]);
+    }
+
+    /**
+     * compile the validator of a schema, nested schemas contribute their own (cached when frozen) validator
+     * @param schema schema
+     * @return validator
+     */
+    static SchemaValidator compile(Schema schema) {
+        switch (schema.getFieldType()) {
+            case STRUCT:
+                return new StructValidator(schema);
+            case ARRAY:
+                return new ArrayValidator(schema);
+            case MAP:
+                return new MapValidator(schema);
+            default:
+                return new ValueValidator(schema);
+        }
+    }
+
+    /**
+     * Validate that the value can be used with the schema
+     * @param name field name
+     * @param value value
+     */
+    final void validate(String name, Object value) {
+        if (value == null) {
+            if (!optional) {
+                throw new ConnectException("Invalid value: null used for required field: \"" + name
+                        + "\", schema type: " + fieldType);
+            }
+            return;
+        }
+        if (!isExpectedClass(value)) {
+            throw new ConnectException("Invalid Java object for schema type " + fieldType
+                    + ": " + value.getClass()
+                    + " for field: \"" + name + "\"");
+        }
+        validateNested(value);
+    }
+
+    /**
+     * Validate that the struct has filled in all the necessary fields with valid values.
+     * @param struct struct of the compiled schema
+     */
+    void validateFields(Struct struct) {
+        throw new ConnectException("Cannot validate fields of non-struct type " + fieldType);
+    }
+
+    /**
+     * validate the content of a value of the expected class
+     */
+    abstract void validateNested(Object value);
+
+    private boolean isExpectedClass(Object value) {
+        Class<?>[] classes = expectedClasses;
+        if (classes.length == 1) {
+            return classes[0].isInstance(value);
+        }
+        for (Class<?> expectedClass : classes) {
+            if (expectedClass.isInstance(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class ValueValidator extends SchemaValidator {
+        ValueValidator(Schema schema) {
+            super(schema);
+        }
+
+        @Override
+        void validateNested(Object value) {
+        }
+    }
+
+    private static final class StructValidator extends SchemaValidator {
+        private final Schema schema;
+        private final String[] names;
+        private final boolean[] nullable;
+        private final SchemaValidator[] fieldValidators;
+
+        StructValidator(Schema schema) {
+            super(schema);
+            this.schema = schema;
+            List<Field> fields = schema.getFields();
+            this.names = new String[fields.size()];
+            this.nullable = new boolean[fields.size()];
+            this.fieldValidators = new SchemaValidator[fields.size()];
+            for (Field field : fields) {
+                Schema fieldSchema = field.getSchema();
+                int index = field.getIndex();
+                names[index] = field.getName();
+                nullable[index] = fieldSchema.isOptional() || fieldSchema.getDefaultValue() != null;
+                fieldValidators[index] = fieldSchema.validator();
+            }
+        }
+
+        @Override
+        void validateNested(Object value) {
+            Struct struct = (Struct) value;
+            if (struct.schema() != schema && !struct.schema().equals(schema)) {
+                throw new ConnectException("Struct schemas do not match.");
+            }
+            struct.validate();
+        }
+
+        @Override
+        void validateFields(Struct struct) {
+            for (int i = 0; i < fieldValidators.length; i++) {
+                Object value = struct.getValue(i);
+                if (value == null && nullable[i]) {
+                    continue;
+                }
+                fieldValidators[i].validate(names[i], value);
+            }
+        }
+    }
+
+    private static final class ArrayValidator extends SchemaValidator {
+        private final SchemaValidator elementValidator;
+
+        ArrayValidator(Schema schema) {
+            super(schema);
+            this.elementValidator = schema.getValueSchema().validator();
+        }
+
+        @Override
+        void validateNested(Object value) {
+            for (Object entry : (List<?>) value) {
+                elementValidator.validate(null, entry);
+            }
+        }
+    }
+
+    private static final class MapValidator extends SchemaValidator {
+        private final SchemaValidator keyValidator;
+        private final SchemaValidator valueValidator;
+
+        MapValidator(Schema schema) {
+            super(schema);
+            this.keyValidator = schema.getKeySchema().validator();
+            this.valueValidator = schema.getValueSchema().validator();
+        }
+
+        @Override
+        void validateNested(Object value) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                keyValidator.validate(null, entry.getKey());
+                valueValidator.validate(null, entry.getValue());
+            }
+        }
+    }
+}
@@ -45,6 +45,17 @@ public class Struct {
         this.values = new Object[schema.getFields().size()];
     }
 
+    /**
+     * construct a struct whose storage is provided by a subclass
+     */
+    Struct(Schema schema, Object[] values) {
+        if (schema.getFieldType() != FieldType.STRUCT) {
+            throw new ConnectException("Not a struct schema: " + schema);
+        }
+        this.schema = schema;
+        this.values = values;
+    }
+
 
 
 
@@ -72,7 +83,7 @@ public class Struct {
      * @return
      */
     public Object get(Field field) {
-        Object val = values[field.getIndex()];
+        Object val = getValue(field.getIndex());
         if (val == null && field.getSchema().getDefaultValue() != null) {
             val = field.getSchema().getDefaultValue();
         }
@@ -80,9 +91,18 @@ public class Struct {
     }
 
 
+    /**
+     * get data by a resolved field handle
+     * @param handle field handle
+     * @return
+     */
+    public Object get(FieldHandle handle) {
+        return get(resolveField(handle));
+    }
+
     public Object getWithoutDefault(String fieldName) {
         Field field = lookupField(fieldName);
-        return values[field.getIndex()];
+        return getValue(field.getIndex());
     }
 
     /**
@@ -154,11 +174,16 @@ public class Struct {
      * @return
      */
     public byte[] getBytes(String fieldName) {
-        Object bytes = getCheckType(fieldName, FieldType.BYTES);
-        if (bytes instanceof ByteBuffer) {
-            return ((ByteBuffer) bytes).array();
-        }
-        return (byte[]) bytes;
+        return toByteArray(getCheckType(fieldName, FieldType.BYTES));
+    }
+
+    /**
+     * get a BYTES field as a read-only buffer positioned at the first byte, without copying the bytes.
+     * @param fieldName
+     * @return
+     */
+    public ByteBuffer getByteBuffer(String fieldName) {
+        return toByteBuffer(getCheckType(fieldName, FieldType.BYTES));
     }
 
     /**
@@ -168,14 +193,14 @@ public class Struct {
      * @return
      */
     public <T> List<T> getArray(String fieldName) {
-        return (List<T>) getCheckType(fieldName, FieldType.ARRAY);
+        return uncheckedCast(getCheckType(fieldName, FieldType.ARRAY));
     }
 
     /**
      * cast the result to a Map.
      */
     public <K, V> Map<K, V> getMap(String fieldName) {
-        return (Map<K, V>) getCheckType(fieldName, FieldType.MAP);
+        return uncheckedCast(getCheckType(fieldName, FieldType.MAP));
     }
 
     /**
@@ -185,6 +210,120 @@ public class Struct {
         return (Struct) getCheckType(fieldName, FieldType.STRUCT);
     }
 
+    /**
+     * cast the result to a Byte.
+     * @param handle field handle
+     * @return
+     */
+    public Byte getInt8(FieldHandle handle) {
+        return (Byte) getCheckType(handle, FieldType.INT8);
+    }
+
+    /**
+     * cast the result to a Short.
+     * @param handle field handle
+     * @return
+     */
+    public Short getInt16(FieldHandle handle) {
+        return (Short) getCheckType(handle, FieldType.INT16);
+    }
+
+    /**
+     * cast the result to a Integer.
+     * @param handle field handle
+     * @return
+     */
+    public Integer getInt32(FieldHandle handle) {
+        return (Integer) getCheckType(handle, FieldType.INT32);
+    }
+
+    /**
+     * cast the result to a Long.
+     * @param handle field handle
+     * @return
+     */
+    public Long getInt64(FieldHandle handle) {
+        return (Long) getCheckType(handle, FieldType.INT64);
+    }
+
+    /**
+     * cast the result to a Float.
+     * @param handle field handle
+     * @return
+     */
+    public Float getFloat32(FieldHandle handle) {
+        return (Float) getCheckType(handle, FieldType.FLOAT32);
+    }
+
+    /**
+     * cast the result to a Double.
+     * @param handle field handle
+     * @return
+     */
+    public Double getFloat64(FieldHandle handle) {
+        return (Double) getCheckType(handle, FieldType.FLOAT64);
+    }
+
+    /**
+     * cast the result to a Boolean.
+     * @param handle field handle
+     * @return
+     */
+    public Boolean getBoolean(FieldHandle handle) {
+        return (Boolean) getCheckType(handle, FieldType.BOOLEAN);
+    }
+
+    /**
+     * cast the result to a String.
+     * @param handle field handle
+     * @return
+     */
+    public String getString(FieldHandle handle) {
+        return (String) getCheckType(handle, FieldType.STRING);
+    }
+
+    /**
+     * cast the result to a byte[].
+     * @param handle field handle
+     * @return
+     */
+    public byte[] getBytes(FieldHandle handle) {
+        return toByteArray(getCheckType(handle, FieldType.BYTES));
+    }
+
+    /**
+     * get a BYTES field as a read-only buffer positioned at the first byte, without copying the bytes.
+     * @param handle field handle
+     * @return
+     */
+    public ByteBuffer getByteBuffer(FieldHandle handle) {
+        return toByteBuffer(getCheckType(handle, FieldType.BYTES));
+    }
+
+    /**
+     * cast the result to a List.
+     * @param handle field handle
+     * @param <T>
+     * @return
+     */
+    public <T> List<T> getArray(FieldHandle handle) {
+        return uncheckedCast(getCheckType(handle, FieldType.ARRAY));
+    }
+
+    /**
+     * cast the result to a Map.
+     */
+    public <K, V> Map<K, V> getMap(FieldHandle handle) {
+        return uncheckedCast(getCheckType(handle, FieldType.MAP));
+    }
+
+    /**
+     * cast the result to a Struct.
+     */
+    public Struct getStruct(FieldHandle handle) {
+        return (Struct) getCheckType(handle, FieldType.STRUCT);
+    }
+
 
     /**
      * Set value by fieldName
@@ -208,18 +347,33 @@ public class Struct {
             throw new ConnectException("field cannot be null.");
         }
         Schema.validateValue(field.getName(), field.getSchema(), value);
-        values[field.getIndex()] = value;
+        setValue(field.getIndex(), value);
         return this;
     }
 
 
+    /**
+     * Set value by a resolved field handle
+     * @param handle field handle
+     * @param value
+     * @return
+     */
+    public Struct put(FieldHandle handle, Object value) {
+        return put(resolveField(handle), value);
+    }
+
+
     /**
      *  Validates that this struct has filled in all the necessary data with valid values
      */
     public void validate() {
+        if (schema.isFrozen()) {
+            schema.validator().validateFields(this);
+            return;
+        }
         for (Field field : schema.getFields()) {
             Schema fieldSchema = field.getSchema();
-            Object value = values[field.getIndex()];
+            Object value = getValue(field.getIndex());
             if (value == null && (fieldSchema.isOptional() || fieldSchema.getDefaultValue() != null)) {
                 continue;
             }
@@ -230,18 +384,32 @@ public class Struct {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Struct)) return false;
         Struct struct = (Struct) o;
-        return Objects.equals(schema, struct.schema) &&
-                Arrays.deepEquals(values, struct.values);
+        if (!Objects.equals(schema, struct.schema)) {
+            return false;
+        }
+        for (int i = 0; i < schema.getFields().size(); i++) {
+            if (!valueEquals(i, struct)) {
+                return false;
+            }
+        }
+        return true;
     }
 
+    /**
+     * Same as {@code Objects.hash(schema, Arrays.deepHashCode(getValues()))}, without copying the values.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(schema, Arrays.deepHashCode(values));
+        int valuesHash = 1;
+        for (int i = 0; i < schema.getFields().size(); i++) {
+            valuesHash = 31 * valuesHash + valueHashCode(i);
+        }
+        return 31 * (31 + Objects.hashCode(schema)) + valuesHash;
     }
 
-    private Field lookupField(String fieldName) {
+    Field lookupField(String fieldName) {
         Field field = schema.getField(fieldName);
         if (field == null) {
             throw new ConnectException(fieldName + " is not a valid field name");
@@ -249,20 +417,111 @@ public class Struct {
         return field;
     }
 
+    /**
+     * Handles resolved against this struct's schema index straight into the values, any other handle falls back
+     * to a lookup by name.
+     */
+    Field resolveField(FieldHandle handle) {
+        if (handle.getSchema() == schema) {
+            return handle.getField();
+        }
+        return lookupField(handle.getName());
+    }
+
+    private Object getCheckType(FieldHandle handle, FieldType type) {
+        if (handle.getSchema() != schema) {
+            return getCheckType(handle.getName(), type);
+        }
+        if (handle.getFieldType() != type) {
+            throw new ConnectException("Field '" + handle.getName() + "' is not of type " + type);
+        }
+        return getValue(handle.getIndex());
+    }
+
     private Object getCheckType(String fieldName, FieldType type) {
         Field field = lookupField(fieldName);
         if (field.getSchema().getFieldType() != type) {
             throw new ConnectException("Field '" + fieldName + "' is not of type " + type);
         }
-        return values[field.getIndex()];
+        return getValue(field.getIndex());
+    }
+
+    /**
+     * The bytes between position and limit of a buffer, its backing array is returned as is when it holds exactly
+     * these bytes and copied otherwise.
+     */
+    private static byte[] toByteArray(Object bytes) {
+        if (bytes instanceof ByteBuffer) {
+            ByteBuffer buffer = (ByteBuffer) bytes;
+            if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                    && buffer.remaining() == buffer.array().length) {
+                return buffer.array();
+            }
+            byte[] copy = new byte[buffer.remaining()];
+            buffer.duplicate().get(copy);
+            return copy;
+        }
+        return (byte[]) bytes;
+    }
+
+    /**
+     * Element types of ARRAY and MAP values are not checked at runtime, the caller picks them.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T uncheckedCast(Object value) {
+        return (T) value;
+    }
+
+    private static ByteBuffer toByteBuffer(Object bytes) {
+        if (bytes instanceof ByteBuffer) {
+            return ((ByteBuffer) bytes).slice().asReadOnlyBuffer();
+        }
+        return bytes == null ? null : ByteBuffer.wrap((byte[]) bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Read the raw value stored for a field index. Storage variants of struct override this pair together with
+     * {@link #getValues()} and {@link #setValues(Object[])}.
+     */
+    Object getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Store the raw, already validated value for a field index.
+     */
+    void setValue(int index, Object value) {
+        values[index] = value;
+    }
+
+    /**
+     * Compare the value of a field index with the same field of a struct of an equal schema, like
+     * {@link Arrays#deepEquals(Object[], Object[])} compares elements.
+     */
+    boolean valueEquals(int index, Struct other) {
+        return Objects.deepEquals(getValue(index), other.getValue(index));
+    }
+
+    /**
+     * Hash the value of a field index, like {@link Arrays#deepHashCode(Object[])} hashes elements.
+     */
+    int valueHashCode(int index) {
+        Object value = getValue(index);
+        if (value instanceof byte[]) {
+            return Arrays.hashCode((byte[]) value);
+        }
+        if (value instanceof Object[]) {
+            return Arrays.deepHashCode((Object[]) value);
+        }
+        return Objects.hashCode(value);
     }
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Struct{");
         boolean first = true;
-        for (int i = 0; i < values.length; i++) {
-            final Object value = values[i];
+        for (int i = 0; i < schema.getFields().size(); i++) {
+            final Object value = getValue(i);
             if (value != null) {
                 final Field field = schema.getFields().get(i);
                 if (first) {
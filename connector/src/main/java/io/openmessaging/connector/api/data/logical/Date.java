@@ -20,8 +20,7 @@ import io.openmessaging.connector.api.data.Schema;
 import io.openmessaging.connector.api.data.SchemaBuilder;
 import io.openmessaging.connector.api.errors.ConnectException;
 
-import java.util.Calendar;
-import java.util.TimeZone;
+import java.time.LocalDate;
 
 /**
  * A date representing a calendar day with no time of day or timezone.
@@ -31,8 +30,6 @@ public class Date {
 
     private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
 
-    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
-
 
     /**
      * build schema
@@ -52,23 +49,70 @@ public class Date {
      * @return the encoded value
      */
     public static int fromLogical(Schema schema, java.util.Date value) {
-        if (!(LOGICAL_NAME.equals(schema.getName()))) {
-            throw new ConnectException("Requested conversion of Date object but the schema does not match.");
-        }
-        Calendar calendar = Calendar.getInstance(UTC);
-        calendar.setTime(value);
-        if (calendar.get(Calendar.HOUR_OF_DAY) != 0 || calendar.get(Calendar.MINUTE) != 0 ||
-                calendar.get(Calendar.SECOND) != 0 || calendar.get(Calendar.MILLISECOND) != 0) {
+        return fromEpochMillis(schema, value.getTime());
+    }
+
+    /**
+     * Convert milliseconds since the Unix epoch, which must fall on midnight UTC, to the encoded format.
+     * @param schema schema
+     * @param epochMillis milliseconds since the Unix epoch
+     * @return the encoded value
+     */
+    public static int fromEpochMillis(Schema schema, long epochMillis) {
+        checkSchema(schema);
+        if (epochMillis % MILLIS_PER_DAY != 0) {
             throw new ConnectException("Kafka Connect Date type should not have any time fields set to non-zero values.");
         }
-        long unixMillis = calendar.getTimeInMillis();
-        return (int) (unixMillis / MILLIS_PER_DAY);
+        return toEpochDays(epochMillis / MILLIS_PER_DAY);
+    }
+
+    /**
+     * Convert a value from its logical format (LocalDate) to it's encoded format.
+     * @param schema schema
+     * @param value the logical value
+     * @return the encoded value
+     */
+    public static int fromLocalDate(Schema schema, LocalDate value) {
+        checkSchema(schema);
+        return toEpochDays(value.toEpochDay());
     }
 
     public static java.util.Date toLogical(Schema schema, int value) {
+        return new java.util.Date(toEpochMillis(schema, value));
+    }
+
+    /**
+     * Convert an encoded value to milliseconds since the Unix epoch.
+     * @param schema schema
+     * @param value the encoded value
+     * @return milliseconds since the Unix epoch
+     */
+    public static long toEpochMillis(Schema schema, int value) {
+        checkSchema(schema);
+        return value * MILLIS_PER_DAY;
+    }
+
+    /**
+     * Convert an encoded value to a LocalDate.
+     * @param schema schema
+     * @param value the encoded value
+     * @return the logical value
+     */
+    public static LocalDate toLocalDate(Schema schema, int value) {
+        checkSchema(schema);
+        return LocalDate.ofEpochDay(value);
+    }
+
+    private static int toEpochDays(long days) {
+        if (days != (int) days) {
+            throw new ConnectException("Date of " + days + " days since the epoch is out of range of the Date type");
+        }
+        return (int) days;
+    }
+
+    private static void checkSchema(Schema schema) {
         if (!(LOGICAL_NAME.equals(schema.getName()))) {
             throw new ConnectException("Requested conversion of Date object but the schema does not match.");
         }
-        return new java.util.Date(value * MILLIS_PER_DAY);
     }
 }
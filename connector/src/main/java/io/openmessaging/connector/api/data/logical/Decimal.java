@@ -30,6 +30,11 @@ public class Decimal {
     public static final String LOGICAL_NAME = "io.openmessaging.connector.api.data.logical.Decimal";
     public static final String SCALE_FIELD = "scale";
 
+    /**
+     * BigDecimals of up to 18 digits have an unscaled value fitting in a long
+     */
+    private static final int MAX_LONG_PRECISION = 18;
+
     /**
      *schema builder
      * @param scale
@@ -58,25 +63,66 @@ public class Decimal {
      * @return
      */
     public static byte[] fromLogical(Schema schema, BigDecimal value) {
-        if (value.scale() != scale(schema)) {
+        if (value.scale() != schema.decimalScale()) {
             throw new ConnectException("BigDecimal has mismatching scale value for given Decimal schema");
         }
+        if (value.precision() <= MAX_LONG_PRECISION) {
+            return toByteArray(value.scaleByPowerOfTen(value.scale()).longValue());
+        }
         return value.unscaledValue().toByteArray();
     }
 
     public static BigDecimal toLogical(Schema schema, byte[] value) {
-        return new BigDecimal(new BigInteger(value), scale(schema));
+        if (value.length > 0 && value.length <= Long.BYTES) {
+            long unscaled = value[0];
+            for (int i = 1; i < value.length; i++) {
+                unscaled = (unscaled << 8) | (value[i] & 0xFF);
+            }
+            return BigDecimal.valueOf(unscaled, schema.decimalScale());
+        }
+        return new BigDecimal(new BigInteger(value), schema.decimalScale());
     }
 
-    private static int scale(Schema schema) {
-        String scaleString = schema.getParameters().get(SCALE_FIELD);
-        if (scaleString == null) {
-            throw new ConnectException("Invalid Decimal schema: scale parameter not found.");
+    /**
+     * Get the unscaled value of a logical value whose unscaled value fits in a long.
+     * @param schema
+     * @param value
+     * @return the unscaled value
+     */
+    public static long unscaledLong(Schema schema, BigDecimal value) {
+        if (value.scale() != schema.decimalScale()) {
+            throw new ConnectException("BigDecimal has mismatching scale value for given Decimal schema");
+        }
+        if (value.precision() <= MAX_LONG_PRECISION) {
+            return value.scaleByPowerOfTen(value.scale()).longValue();
         }
-        try {
-            return Integer.parseInt(scaleString);
-        } catch (NumberFormatException e) {
-            throw new ConnectException("Invalid scale parameter found in Decimal schema: ", e);
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() >= Long.SIZE) {
+            throw new ConnectException("Unscaled value of " + value + " does not fit in a long");
+        }
+        return unscaled.longValue();
+    }
+
+    /**
+     * Convert an unscaled value to its logical format (BigDecimal).
+     * @param schema
+     * @param unscaled
+     * @return
+     */
+    public static BigDecimal toLogical(Schema schema, long unscaled) {
+        return BigDecimal.valueOf(unscaled, schema.decimalScale());
+    }
+
+    /**
+     * Two's complement representation of a long in the minimal number of bytes, like {@link BigInteger#toByteArray()}.
+     */
+    private static byte[] toByteArray(long unscaled) {
+        int length = (Long.SIZE - Long.numberOfLeadingZeros(unscaled < 0 ? ~unscaled : unscaled)) / 8 + 1;
+        byte[] bytes = new byte[length];
+        for (int i = length - 1; i >= 0; i--) {
+            bytes[i] = (byte) unscaled;
+            unscaled >>= 8;
         }
+        return bytes;
     }
 }
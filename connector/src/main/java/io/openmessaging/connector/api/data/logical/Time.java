@@ -20,8 +20,7 @@ import io.openmessaging.connector.api.data.Schema;
 import io.openmessaging.connector.api.data.SchemaBuilder;
 import io.openmessaging.connector.api.errors.ConnectException;
 
-import java.util.Calendar;
-import java.util.TimeZone;
+import java.time.LocalTime;
 
 
 /**
@@ -35,7 +34,7 @@ public class Time {
 
     private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
 
-    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final long NANOS_PER_MILLI = 1000 * 1000;
 
     /**
      * Returns a SchemaBuilder for a Time. By returning a SchemaBuilder you can override additional schema settings such
@@ -57,25 +56,64 @@ public class Time {
      * @return
      */
     public static int fromLogical(Schema schema, java.util.Date value) {
-        if (!(LOGICAL_NAME.equals(schema.getName()))) {
-            throw new ConnectException("Requested conversion of Time object but the schema does not match.");
-        }
-        Calendar calendar = Calendar.getInstance(UTC);
-        calendar.setTime(value);
-        long unixMillis = calendar.getTimeInMillis();
-        if (unixMillis < 0 || unixMillis > MILLIS_PER_DAY) {
+        return fromEpochMillis(schema, value.getTime());
+    }
+
+    /**
+     * Convert milliseconds since the Unix epoch, which must fall within the first day, to the encoded format.
+     * @param schema schema
+     * @param epochMillis milliseconds since the Unix epoch
+     * @return the encoded value
+     */
+    public static int fromEpochMillis(Schema schema, long epochMillis) {
+        checkSchema(schema, "Time");
+        if (epochMillis < 0 || epochMillis > MILLIS_PER_DAY) {
             throw new ConnectException("Kafka Connect Time type should not have any date fields set to non-zero values.");
         }
-        return (int) unixMillis;
+        return (int) epochMillis;
+    }
+
+    /**
+     * Convert a value from its logical format (LocalTime) to it's encoded format, truncating to milliseconds.
+     * @param schema schema
+     * @param value the logical value
+     * @return the encoded value
+     */
+    public static int fromLocalTime(Schema schema, LocalTime value) {
+        checkSchema(schema, "Time");
+        return (int) (value.toNanoOfDay() / NANOS_PER_MILLI);
     }
 
     public static java.util.Date toLogical(Schema schema, int value) {
+        checkSchema(schema, "Time");
+        checkRange(value);
+        return new java.util.Date(value);
+    }
+
+    /**
+     * Convert an encoded value to a LocalTime.
+     * @param schema schema
+     * @param value the encoded value
+     * @return the logical value
+     */
+    public static LocalTime toLocalTime(Schema schema, int value) {
+        checkSchema(schema, "Time");
+        checkRange(value);
+        if (value == MILLIS_PER_DAY) {
+            throw new ConnectException("Time value of 86400000 milliseconds cannot be represented as LocalTime");
+        }
+        return LocalTime.ofNanoOfDay(value * NANOS_PER_MILLI);
+    }
+
+    private static void checkSchema(Schema schema, String type) {
         if (!(LOGICAL_NAME.equals(schema.getName()))) {
-            throw new ConnectException("Requested conversion of Date object but the schema does not match.");
+            throw new ConnectException("Requested conversion of " + type + " object but the schema does not match.");
         }
+    }
+
+    private static void checkRange(int value) {
         if (value  < 0 || value > MILLIS_PER_DAY) {
             throw new ConnectException("Time values must use number of milliseconds greater than 0 and less than 86400000");
         }
-        return new java.util.Date(value);
     }
 }
@@ -20,6 +20,8 @@ import io.openmessaging.connector.api.data.Schema;
 import io.openmessaging.connector.api.data.SchemaBuilder;
 import io.openmessaging.connector.api.errors.ConnectException;
 
+import java.time.Instant;
+
 /**
  *  A timestamp representing an absolute time, without timezone information. The corresponding Java type is a
  *  java.util.Date. The underlying representation is a long representing the number of milliseconds since Unix epoch.
@@ -44,16 +46,40 @@ public class Timestamp {
      * Convert a value from its logical format (Date) to it's encoded format.
      */
     public static long fromLogical(Schema schema, java.util.Date value) {
-        if (!(LOGICAL_NAME.equals(schema.getName()))) {
-            throw new ConnectException("Requested conversion of Timestamp object but the schema does not match.");
-        }
+        checkSchema(schema);
         return value.getTime();
     }
 
+    /**
+     * Convert a value from its logical format (Instant) to it's encoded format, truncating to milliseconds.
+     * @param schema schema
+     * @param value the logical value
+     * @return the encoded value
+     */
+    public static long fromInstant(Schema schema, Instant value) {
+        checkSchema(schema);
+        return value.toEpochMilli();
+    }
+
     public static java.util.Date toLogical(Schema schema, long value) {
+        checkSchema(schema);
+        return new java.util.Date(value);
+    }
+
+    /**
+     * Convert an encoded value to an Instant.
+     * @param schema schema
+     * @param value the encoded value
+     * @return the logical value
+     */
+    public static Instant toInstant(Schema schema, long value) {
+        checkSchema(schema);
+        return Instant.ofEpochMilli(value);
+    }
+
+    private static void checkSchema(Schema schema) {
         if (!(LOGICAL_NAME.equals(schema.getName()))) {
             throw new ConnectException("Requested conversion of Timestamp object but the schema does not match.");
         }
-        return new java.util.Date(value);
     }
 }
@@ -0,0 +1,190 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Distribution of non-negative values, such as latencies in nanoseconds or batch sizes.
+ * <p>
+ * Values are counted in log-linear buckets: exact below 16, then eight buckets per power of two, so a percentile is
+ * off by at most 12.5%. Recording increments one bucket and the sum of a stripe picked by the recording thread,
+ * stripes are allocated on first use so a histogram recorded from one thread costs one stripe. Snapshots merge the
+ * stripes and are consistent per bucket, not across buckets.
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKETS << 1;
+    private static final int BUCKETS = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+    private static final int SUM = BUCKETS;
+    private static final int MAX = BUCKETS + 1;
+
+    private static final int STRIPES;
+
+    static {
+        int stripes = 1;
+        while (stripes < Math.min(Runtime.getRuntime().availableProcessors(), 16)) {
+            stripes <<= 1;
+        }
+        STRIPES = stripes;
+    }
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    /**
+     * Record a value, negative values are recorded as 0.
+     *
+     * @param value value
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        AtomicLongArray stripe = stripe();
+        stripe.getAndIncrement(index(value));
+        stripe.getAndAdd(SUM, value);
+        long max;
+        while (value > (max = stripe.get(MAX)) && !stripe.compareAndSet(MAX, max, value)) {
+            // raced with a larger value or another update of the max
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long sum = 0;
+        long max = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            AtomicLongArray stripe = stripes.get(i);
+            if (stripe == null) {
+                continue;
+            }
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                counts[bucket] += stripe.get(bucket);
+            }
+            sum += stripe.get(SUM);
+            max = Math.max(max, stripe.get(MAX));
+        }
+        return new Snapshot(counts, sum, max);
+    }
+
+    private AtomicLongArray stripe() {
+        long id = Thread.currentThread().getId();
+        int i = (int) (id ^ (id >>> 16)) & (STRIPES - 1);
+        AtomicLongArray stripe = stripes.get(i);
+        if (stripe == null) {
+            stripes.compareAndSet(i, null, new AtomicLongArray(BUCKETS + 2));
+            stripe = stripes.get(i);
+        }
+        return stripe;
+    }
+
+    static int index(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * get the largest value counted in a bucket
+     */
+    static long upperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        int sub = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((SUB_BUCKETS + sub) * width) + width - 1;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * Values recorded up to the time of the snapshot.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long sum, long max) {
+            long count = 0;
+            for (long bucket : counts) {
+                count += bucket;
+            }
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * get the value below which a share of the values fall
+         * @param quantile share between 0 and 1
+         * @return upper bound of the bucket holding the quantile, at most the max, 0 if empty
+         */
+        public long getPercentile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(Math.max(0, Math.min(1, quantile)) * count);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                "count=" + count +
+                ", mean=" + getMean() +
+                ", p50=" + getPercentile(0.5) +
+                ", p99=" + getPercentile(0.99) +
+                ", max=" + max +
+                '}';
+        }
+    }
+}
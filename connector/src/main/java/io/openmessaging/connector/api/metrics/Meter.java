@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts events and reports their rate per second.
+ * <p>
+ * Marking adds to a {@link LongAdder} and, once per window of {@link #RATE_WINDOW_MS}, closes the window that just
+ * ended. The windows follow the clock from the creation of the meter, so reading the rate does not change it.
+ */
+public class Meter {
+
+    public static final long RATE_WINDOW_MS = 1000;
+
+    private static final long RATE_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(RATE_WINDOW_MS);
+
+    private final LongAdder count = new LongAdder();
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+
+    private volatile long windowEndNanos;
+    /**
+     * guarded by this
+     */
+    private long windowStartCount;
+    private volatile double rate = Double.NaN;
+
+    public Meter() {
+        this(System::nanoTime);
+    }
+
+    Meter(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+        this.windowEndNanos = startNanos + RATE_WINDOW_NANOS;
+    }
+
+    public void mark() {
+        tick();
+        count.increment();
+    }
+
+    public void mark(long n) {
+        tick();
+        count.add(n);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * get the rate since the meter was created
+     * @return events per second
+     */
+    public double getMeanRate() {
+        return perSecond(count.sum(), nanoClock.getAsLong() - startNanos);
+    }
+
+    /**
+     * get the rate of the latest complete window, the mean rate before the first one completed
+     * @return events per second
+     */
+    public double getRate() {
+        tick();
+        double latest = rate;
+        return Double.isNaN(latest) ? getMeanRate() : latest;
+    }
+
+    private void tick() {
+        if (nanoClock.getAsLong() - windowEndNanos >= 0) {
+            advance();
+        }
+    }
+
+    /**
+     * close the window that ended. Every mark after its end advances first, so the events counted since it
+     * started all fell into it, and a window that ended after it without any mark had none.
+     */
+    private synchronized void advance() {
+        long now = nanoClock.getAsLong();
+        long end = windowEndNanos;
+        if (now - end < 0) {
+            return;
+        }
+        long current = count.sum();
+        long skipped = (now - end) / RATE_WINDOW_NANOS;
+        rate = skipped == 0 ? perSecond(current - windowStartCount, RATE_WINDOW_NANOS) : 0;
+        windowStartCount = current;
+        windowEndNanos = end + (skipped + 1) * RATE_WINDOW_NANOS;
+    }
+
+    private static double perSecond(long events, long nanos) {
+        return nanos <= 0 ? 0 : events * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "Meter{" +
+            "count=" + getCount() +
+            ", meanRate=" + getMeanRate() +
+            '}';
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Metrics of a source or sink task, handed out by the runtime through the task context.
+ * <p>
+ * The runtime records the latencies of poll or put, of record commits and of offset flushes in nanoseconds, the
+ * sizes of polled or put batches, the records and the errors, tasks may mark the bytes they read or write and
+ * register metrics of their own by name. Recording never locks.
+ */
+public class TaskMetrics {
+
+    private final Histogram pollLatency = new Histogram();
+    private final Histogram putLatency = new Histogram();
+    private final Histogram commitLatency = new Histogram();
+    private final Histogram flushLatency = new Histogram();
+    private final Histogram batchSize = new Histogram();
+    private final Meter records = new Meter();
+    private final Meter bytes = new Meter();
+    private final Counter errors = new Counter();
+    private final Counter retries = new Counter();
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Meter> meters = new ConcurrentHashMap<>();
+
+    /**
+     * get the latency of source polls in nanoseconds
+     * @return
+     */
+    public Histogram getPollLatency() {
+        return pollLatency;
+    }
+
+    /**
+     * get the latency of sink puts in nanoseconds
+     * @return
+     */
+    public Histogram getPutLatency() {
+        return putLatency;
+    }
+
+    /**
+     * get the latency of committing records, to the source task or to the transport of a sink, in nanoseconds
+     * @return
+     */
+    public Histogram getCommitLatency() {
+        return commitLatency;
+    }
+
+    /**
+     * get the latency of flushing offsets, to the offset store of a source or through the sink task, in nanoseconds
+     * @return
+     */
+    public Histogram getFlushLatency() {
+        return flushLatency;
+    }
+
+    /**
+     * get the number of records of polled or put batches
+     * @return
+     */
+    public Histogram getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * get the records polled or put
+     * @return
+     */
+    public Meter getRecords() {
+        return records;
+    }
+
+    /**
+     * get the bytes read or written, marked by the task
+     * @return
+     */
+    public Meter getBytes() {
+        return bytes;
+    }
+
+    public Counter getErrors() {
+        return errors;
+    }
+
+    public Counter getRetries() {
+        return retries;
+    }
+
+    /**
+     * get or register a counter of the task
+     * @param name metric name
+     * @return
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * get or register a histogram of the task
+     * @param name metric name
+     * @return
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * get or register a meter of the task
+     * @param name metric name
+     * @return
+     */
+    public Meter meter(String name) {
+        return meters.computeIfAbsent(name, key -> new Meter());
+    }
+
+    /**
+     * Flatten the current values for reporting, histograms as count, mean, p50, p99 and max, meters as count and
+     * rate.
+     *
+     * @return values by metric name, sorted
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> values = new TreeMap<>();
+        put(values, "poll.latency", pollLatency);
+        put(values, "put.latency", putLatency);
+        put(values, "commit.latency", commitLatency);
+        put(values, "flush.latency", flushLatency);
+        put(values, "batch.size", batchSize);
+        put(values, "records", records);
+        put(values, "bytes", bytes);
+        values.put("errors", errors.getCount());
+        values.put("retries", retries.getCount());
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().getCount());
+        }
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            put(values, entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, Meter> entry : meters.entrySet()) {
+            put(values, entry.getKey(), entry.getValue());
+        }
+        return values;
+    }
+
+    private static void put(Map<String, Object> values, String name, Histogram histogram) {
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        values.put(name + ".count", snapshot.getCount());
+        values.put(name + ".mean", snapshot.getMean());
+        values.put(name + ".p50", snapshot.getPercentile(0.5));
+        values.put(name + ".p99", snapshot.getPercentile(0.99));
+        values.put(name + ".max", snapshot.getMax());
+    }
+
+    private static void put(Map<String, Object> values, String name, Meter meter) {
+        values.put(name + ".count", meter.getCount());
+        values.put(name + ".rate", meter.getRate());
+    }
+
+    @Override
+    public String toString() {
+        return "TaskMetrics" + toMap();
+    }
+}
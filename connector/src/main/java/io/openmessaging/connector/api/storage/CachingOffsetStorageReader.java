@@ -0,0 +1,202 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.storage;
+
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link OffsetStorageReader} decorator caching the offsets read from the backing store.
+ * <p>
+ * Sources knowing their partitions up front call {@link #prefetch(Collection)} in {@code SourceTask.start}, which
+ * reads them through {@link OffsetStorageReader#readOffsets(Collection)} in chunks of {@code batchSize}, so starting
+ * a task with many partitions costs one round-trip per chunk instead of one per partition. Later reads are served
+ * from the cache, misses go to the backing store and are cached as well. Partitions without an offset are cached
+ * too, so they are not read again. The cache keeps the {@code maxEntries} most recently read partitions.
+ * <p>
+ * The cache does not see offsets written to the store after they were read, {@link #invalidate(RecordPartition)}
+ * or {@link #clear()} it when reading offsets again after a write.
+ */
+public class CachingOffsetStorageReader implements OffsetStorageReader {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+    /**
+     * cached for partitions without an offset
+     */
+    private static final RecordOffset ABSENT = new RecordOffset(Collections.emptyMap());
+
+    private final OffsetStorageReader delegate;
+    private final int batchSize;
+    /**
+     * in access order, guarded by itself
+     */
+    private final LinkedHashMap<RecordPartition, RecordOffset> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingOffsetStorageReader(OffsetStorageReader delegate) {
+        this(delegate, DEFAULT_BATCH_SIZE, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param delegate reader of the backing store
+     * @param batchSize partitions read from the backing store at once
+     * @param maxEntries partitions kept in the cache
+     */
+    public CachingOffsetStorageReader(OffsetStorageReader delegate, int batchSize, final int maxEntries) {
+        if (batchSize <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("Invalid batch size " + batchSize + " or max entries " + maxEntries);
+        }
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.cache = new LinkedHashMap<RecordPartition, RecordOffset>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RecordPartition, RecordOffset> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Read the offsets of partitions not cached yet into the cache, in chunks of the batch size.
+     *
+     * @param partitions partitions read later
+     */
+    public void prefetch(Collection<RecordPartition> partitions) {
+        List<RecordPartition> missing = new ArrayList<>();
+        synchronized (cache) {
+            for (RecordPartition partition : partitions) {
+                if (!cache.containsKey(partition)) {
+                    missing.add(partition);
+                }
+            }
+        }
+        load(missing, null);
+    }
+
+    @Override
+    public RecordOffset readOffset(RecordPartition partition) {
+        RecordOffset offset;
+        synchronized (cache) {
+            offset = cache.get(partition);
+        }
+        if (offset != null) {
+            hits.increment();
+            return offset == ABSENT ? null : offset;
+        }
+        misses.increment();
+        offset = delegate.readOffset(partition);
+        synchronized (cache) {
+            cache.put(partition, offset == null ? ABSENT : offset);
+        }
+        return offset;
+    }
+
+    @Override
+    public Map<RecordPartition, RecordOffset> readOffsets(Collection<RecordPartition> partitions) {
+        Map<RecordPartition, RecordOffset> offsets = new HashMap<>();
+        List<RecordPartition> missing = new ArrayList<>();
+        synchronized (cache) {
+            for (RecordPartition partition : partitions) {
+                RecordOffset offset = cache.get(partition);
+                if (offset == null) {
+                    missing.add(partition);
+                } else if (offset != ABSENT) {
+                    offsets.put(partition, offset);
+                }
+            }
+        }
+        hits.add(partitions.size() - missing.size());
+        misses.add(missing.size());
+        load(missing, offsets);
+        return offsets;
+    }
+
+    /**
+     * Drop the cached offset of a partition.
+     *
+     * @param partition partition
+     */
+    public void invalidate(RecordPartition partition) {
+        synchronized (cache) {
+            cache.remove(partition);
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * get the number of cached partitions
+     * @return
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * get the share of reads served from the cache
+     * @return hit rate between 0 and 1, 0 before the first read
+     */
+    public double hitRate() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /**
+     * read partitions in chunks into the cache, and into offsets if not null
+     */
+    private void load(List<RecordPartition> partitions, Map<RecordPartition, RecordOffset> offsets) {
+        for (int from = 0; from < partitions.size(); from += batchSize) {
+            List<RecordPartition> chunk = partitions.subList(from, Math.min(from + batchSize, partitions.size()));
+            Map<RecordPartition, RecordOffset> read = delegate.readOffsets(chunk);
+            synchronized (cache) {
+                for (RecordPartition partition : chunk) {
+                    RecordOffset offset = read == null ? null : read.get(partition);
+                    cache.put(partition, offset == null ? ABSENT : offset);
+                    if (offset != null && offsets != null) {
+                        offsets.put(partition, offset);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.storage;
+
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link OffsetStorageWriter} decorator keeping only the newest offset per partition and writing them to the
+ * backing store in one {@link OffsetStorageWriter#writeOffset(Map)} call per flush, so sources writing an offset per
+ * record cost the store one write per interval.
+ * <p>
+ * Offsets are flushed every {@code flushIntervalMs} once {@link #start()}ed, as soon as {@code maxPending}
+ * partitions wait for a flush, on {@link #flush()} and finally on {@link #stop()}. An offset written again while a
+ * flush is in progress is kept for the next flush, the flush only drops the offsets it wrote. A failed timer flush
+ * keeps its offsets for the next one, a failed explicit flush throws. Null offsets are ignored.
+ */
+public class CoalescingOffsetStorageWriter implements OffsetStorageWriter {
+
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 1000;
+    public static final int DEFAULT_MAX_PENDING = 10000;
+
+    private final OffsetStorageWriter delegate;
+    private final long flushIntervalMs;
+    private final int maxPending;
+
+    private final Map<RecordPartition, RecordOffset> pending = new ConcurrentHashMap<>();
+    /**
+     * serializes flushes, so an older offset never overwrites a newer one in the store
+     */
+    private final Object flushLock = new Object();
+
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushedOffsets = new LongAdder();
+
+    private ScheduledExecutorService timer;
+    private volatile Throwable lastFailure;
+
+    public CoalescingOffsetStorageWriter(OffsetStorageWriter delegate) {
+        this(delegate, DEFAULT_FLUSH_INTERVAL_MS, DEFAULT_MAX_PENDING);
+    }
+
+    /**
+     * @param delegate writer of the backing store
+     * @param flushIntervalMs interval of timer flushes
+     * @param maxPending partitions waiting for a flush before a write flushes
+     */
+    public CoalescingOffsetStorageWriter(OffsetStorageWriter delegate, long flushIntervalMs, int maxPending) {
+        if (flushIntervalMs <= 0 || maxPending <= 0) {
+            throw new IllegalArgumentException("Invalid flush interval " + flushIntervalMs + " or max pending "
+                + maxPending);
+        }
+        this.delegate = delegate;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Start flushing on a timer thread.
+     */
+    public synchronized void start() {
+        if (timer != null) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "offset-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the timer and flush the pending offsets.
+     *
+     * @throws InterruptedException if interrupted while waiting for a timer flush in progress
+     */
+    public void stop() throws InterruptedException {
+        ScheduledExecutorService stopped;
+        synchronized (this) {
+            stopped = timer;
+            timer = null;
+        }
+        if (stopped != null) {
+            stopped.shutdown();
+            stopped.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+        flush();
+    }
+
+    @Override
+    public void writeOffset(RecordPartition partition, RecordOffset position) {
+        if (position == null) {
+            return;
+        }
+        pending.put(partition, position);
+        writes.increment();
+        flushIfFull();
+    }
+
+    @Override
+    public void writeOffset(Map<RecordPartition, RecordOffset> positions) {
+        for (Map.Entry<RecordPartition, RecordOffset> entry : positions.entrySet()) {
+            if (entry.getValue() != null) {
+                pending.put(entry.getKey(), entry.getValue());
+                writes.increment();
+            }
+        }
+        flushIfFull();
+    }
+
+    /**
+     * Write the pending offsets to the backing store.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Map<RecordPartition, RecordOffset> flushed = new HashMap<>(pending);
+            delegate.writeOffset(flushed);
+            for (Map.Entry<RecordPartition, RecordOffset> entry : flushed.entrySet()) {
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+            flushes.increment();
+            flushedOffsets.add(flushed.size());
+        }
+    }
+
+    /**
+     * get the number of partitions waiting for a flush
+     * @return
+     */
+    public int pending() {
+        return pending.size();
+    }
+
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
+    public long getFlushedOffsets() {
+        return flushedOffsets.sum();
+    }
+
+    /**
+     * get the error the last failed timer flush threw
+     * @return error, or null
+     */
+    public Throwable getLastFailure() {
+        return lastFailure;
+    }
+
+    private void flushIfFull() {
+        if (pending.size() >= maxPending) {
+            flush();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable e) {
+            lastFailure = e;
+        }
+    }
+}
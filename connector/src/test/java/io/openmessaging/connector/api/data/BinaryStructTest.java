@@ -0,0 +1,119 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryStructTest {
+
+    private static final Schema INNER = SchemaBuilder.struct()
+        .name("inner")
+        .field("x", SchemaBuilder.int32().build())
+        .field("tag", SchemaBuilder.string().build())
+        .build();
+
+    private static final Schema OUTER = SchemaBuilder.struct()
+        .name("outer")
+        .field("id", SchemaBuilder.int64().build())
+        .field("name", SchemaBuilder.string().build())
+        .field("inner", INNER)
+        .field("tags", SchemaBuilder.array(SchemaBuilder.string().build()).build())
+        .build();
+
+    private static Struct outer() {
+        Struct inner = new Struct(INNER);
+        inner.put("x", 1);
+        inner.put("tag", "a");
+        Struct outer = new Struct(OUTER);
+        outer.put("id", 42L);
+        outer.put("name", "row");
+        outer.put("inner", inner);
+        outer.put("tags", new ArrayList<>(Arrays.asList("t1", "t2")));
+        return outer;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Struct struct = outer();
+        BinaryStruct view = new BinaryStruct(OUTER, BinaryStruct.encode(struct));
+        assertEquals(struct, view);
+        assertEquals(struct, new BinaryStruct(OUTER, BinaryStruct.encode(view)));
+    }
+
+    @Test
+    public void testUntouchedViewCopiesRow() {
+        ByteBuffer row = BinaryStruct.encode(outer());
+        BinaryStruct view = new BinaryStruct(OUTER, row.duplicate());
+        assertEquals(42L, (long) view.getInt64("id"));
+        assertEquals(1, (int) view.getStruct("inner").getInt32("x"));
+        assertTrue(view.matchesRow());
+        assertEquals(row, BinaryStruct.encode(view));
+    }
+
+    @Test
+    public void testNestedEditIsEncoded() {
+        BinaryStruct view = new BinaryStruct(OUTER, BinaryStruct.encode(outer()));
+        view.getStruct("inner").put("x", 7);
+        assertFalse(view.isModified());
+        assertFalse(view.matchesRow());
+
+        BinaryStruct decoded = new BinaryStruct(OUTER, BinaryStruct.encode(view));
+        assertEquals(7, (int) decoded.getStruct("inner").getInt32("x"));
+        assertEquals("a", decoded.getStruct("inner").getString("tag"));
+        assertEquals(42L, (long) decoded.getInt64("id"));
+    }
+
+    @Test
+    public void testNestedEditOfReEncodedViewIsEncoded() {
+        BinaryStruct view = new BinaryStruct(OUTER, BinaryStruct.encode(outer()));
+        view.getStruct("inner").put("tag", "changed");
+        BinaryStruct decoded = new BinaryStruct(OUTER, BinaryStruct.encode(view));
+        decoded.getStruct("inner").put("x", 9);
+
+        BinaryStruct twice = new BinaryStruct(OUTER, BinaryStruct.encode(decoded));
+        assertEquals(9, (int) twice.getStruct("inner").getInt32("x"));
+        assertEquals("changed", twice.getStruct("inner").getString("tag"));
+    }
+
+    @Test
+    public void testDecodedListEditIsEncoded() {
+        BinaryStruct view = new BinaryStruct(OUTER, BinaryStruct.encode(outer()));
+        List<String> tags = view.getArray("tags");
+        tags.add("t3");
+
+        BinaryStruct decoded = new BinaryStruct(OUTER, BinaryStruct.encode(view));
+        assertEquals(Arrays.asList("t1", "t2", "t3"), decoded.getArray("tags"));
+    }
+
+    @Test
+    public void testPutIsEncoded() {
+        BinaryStruct view = new BinaryStruct(OUTER, BinaryStruct.encode(outer()));
+        view.put("name", "renamed");
+        assertTrue(view.isModified());
+
+        BinaryStruct decoded = new BinaryStruct(OUTER, BinaryStruct.encode(view));
+        assertEquals("renamed", decoded.getString("name"));
+        assertEquals(1, (int) decoded.getStruct("inner").getInt32("x"));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class ConnectRecordTest {
+
+    private static final RecordPosition POSITION = RecordPosition.of(
+        new RecordPartition(Collections.singletonMap("queue", "q0")),
+        new RecordOffset(Collections.singletonMap("offset", 7L)));
+
+    private static ConnectRecord record(Object key, Object data) {
+        return new ConnectRecord(POSITION, 1000L, SchemaBuilder.string().build(), key,
+            SchemaBuilder.string().build(), data);
+    }
+
+    @Test
+    public void testEqualRecordsHashEqually() {
+        ConnectRecord record = record("k", "v");
+        ConnectRecord copy = record("k", "v");
+        record.addExtension("trace", "1");
+        copy.addExtension("trace", "1");
+        // one record keeps its compact extensions, the other converts them to a key value
+        copy.getExtensions();
+        assertEquals(record, copy);
+        assertEquals(record.hashCode(), copy.hashCode());
+    }
+
+    @Test
+    public void testKeyDataAndExtensionsAreCompared() {
+        ConnectRecord record = record("k", "v");
+        assertNotEquals(record, record("k2", "v"));
+        assertNotEquals(record, record("k", "v2"));
+        ConnectRecord extended = record("k", "v");
+        extended.addExtension("trace", "1");
+        assertNotEquals(record, extended);
+        assertNotEquals(extended, record);
+    }
+
+    @Test
+    public void testExtensionFormsCompareByContent() {
+        ConnectRecord compact = record("k", "v");
+        compact.addExtension("trace", "1");
+        compact.addExtension("span", "2");
+        ConnectRecord keyValue = record("k", "v");
+        keyValue.addExtension("span", "2");
+        keyValue.addExtension("trace", "1");
+        keyValue.getExtensions();
+        assertEquals(compact, keyValue);
+        assertEquals(keyValue, compact);
+
+        keyValue.getExtensions().put("trace", "3");
+        assertNotEquals(compact, keyValue);
+        assertNotEquals(keyValue, compact);
+        keyValue.getExtensions().put("trace", "1");
+        keyValue.getExtensions().put("baggage", "4");
+        assertNotEquals(compact, keyValue);
+    }
+
+    @Test
+    public void testHashOnlyCoversTimestampAndPosition() {
+        Set<Integer> hashes = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            ConnectRecord record = record("k" + i, "v" + i);
+            record.addExtension("trace", String.valueOf(i));
+            hashes.add(record.hashCode());
+        }
+        // equal timestamps and positions, the rest is left to equals
+        assertEquals(1, hashes.size());
+    }
+}
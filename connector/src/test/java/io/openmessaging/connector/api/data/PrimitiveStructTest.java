@@ -0,0 +1,182 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import io.openmessaging.connector.api.errors.ConnectException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PrimitiveStructTest {
+
+    private static final double DELTA = 0;
+
+    private static final Schema SCHEMA = SchemaBuilder.struct()
+        .name("row")
+        .field("int8", SchemaBuilder.int8().build())
+        .field("int16", SchemaBuilder.int16().build())
+        .field("int32", SchemaBuilder.int32().build())
+        .field("int64", SchemaBuilder.int64().build())
+        .field("float32", SchemaBuilder.float32().build())
+        .field("float64", SchemaBuilder.float64().build())
+        .field("bool", SchemaBuilder.bool().build())
+        .field("name", SchemaBuilder.string().build())
+        .field("payload", SchemaBuilder.bytes().build())
+        .field("count", SchemaBuilder.int32().optional().defaultValue(5).build())
+        .build();
+
+    private static <T extends Struct> T fill(T struct) {
+        struct.put("int8", (byte) -8);
+        struct.put("int16", (short) 1600);
+        struct.put("int32", 320000);
+        struct.put("int64", 6400000000L);
+        struct.put("float32", 3.5f);
+        struct.put("float64", -6.25d);
+        struct.put("bool", true);
+        struct.put("name", "row-1");
+        struct.put("payload", new byte[] {1, 2, 3});
+        return struct;
+    }
+
+    @Test
+    public void testBoxedRoundTrip() {
+        PrimitiveStruct struct = fill(new PrimitiveStruct(SCHEMA));
+        assertEquals(Byte.valueOf((byte) -8), struct.getInt8("int8"));
+        assertEquals(Short.valueOf((short) 1600), struct.get("int16"));
+        assertEquals(Integer.valueOf(320000), struct.getInt32("int32"));
+        assertEquals(Long.valueOf(6400000000L), struct.getInt64("int64"));
+        assertEquals(Float.valueOf(3.5f), struct.getFloat32("float32"));
+        assertEquals(Double.valueOf(-6.25d), struct.getFloat64("float64"));
+        assertEquals(Boolean.TRUE, struct.getBoolean("bool"));
+        assertEquals("row-1", struct.getString("name"));
+        assertArrayEquals(new byte[] {1, 2, 3}, struct.getBytes("payload"));
+        assertEquals(5, struct.get("count"));
+        assertArrayEquals(fill(new Struct(SCHEMA)).getValues(), struct.getValues());
+    }
+
+    @Test
+    public void testUnboxedRoundTrip() {
+        PrimitiveStruct struct = new PrimitiveStruct(SCHEMA);
+        struct.putLong("int8", Byte.MIN_VALUE);
+        struct.putLong("int16", Short.MAX_VALUE);
+        struct.putLong("int32", Integer.MIN_VALUE);
+        struct.putLong(SCHEMA.fieldHandle("int64"), Long.MAX_VALUE);
+        struct.putDouble("float32", 0.1d);
+        struct.putDouble("float64", 0.1d);
+        assertEquals(Byte.MIN_VALUE, struct.getLong("int8"));
+        assertEquals(Short.MAX_VALUE, struct.getLong("int16"));
+        assertEquals(Integer.MIN_VALUE, struct.getLong("int32"));
+        assertEquals(Long.MAX_VALUE, struct.getLong(SCHEMA.fieldHandle("int64")));
+        // FLOAT32 values are narrowed
+        assertEquals((float) 0.1d, struct.getDouble("float32"), DELTA);
+        assertEquals(0.1d, struct.getDouble("float64"), DELTA);
+        assertEquals(5, struct.getLong("count"));
+        // unboxed writes are visible through the boxed accessors
+        assertEquals(Integer.valueOf(Integer.MIN_VALUE), struct.getInt32("int32"));
+        assertEquals(Float.valueOf((float) 0.1d), struct.getFloat32("float32"));
+    }
+
+    @Test
+    public void testNullFields() {
+        PrimitiveStruct struct = fill(new PrimitiveStruct(SCHEMA));
+        struct.put("int64", null);
+        struct.put("name", null);
+        assertTrue(struct.isNull("int64"));
+        assertTrue(struct.isNull("name"));
+        assertTrue(struct.isNull("count"));
+        assertNull(struct.getInt64("int64"));
+        assertNull(struct.getString("name"));
+        try {
+            struct.getLong("int64");
+            fail("read a null field as a long");
+        } catch (ConnectException e) {
+            assertEquals("Field 'int64' is null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testOutOfRangeAndMistypedWritesRejected() {
+        PrimitiveStruct struct = new PrimitiveStruct(SCHEMA);
+        try {
+            struct.putLong("int8", 128);
+            fail("stored 128 in an INT8 field");
+        } catch (ConnectException e) {
+            assertEquals("Value 128 out of range for field 'int8' of type INT8", e.getMessage());
+        }
+        try {
+            struct.putLong("float64", 1);
+            fail("stored a long in a FLOAT64 field");
+        } catch (ConnectException e) {
+            assertEquals("Field 'float64' is not of an integer type", e.getMessage());
+        }
+        try {
+            struct.putDouble("int32", 1);
+            fail("stored a double in an INT32 field");
+        } catch (ConnectException e) {
+            assertEquals("Field 'int32' is not of a floating point type", e.getMessage());
+        }
+        assertTrue(struct.isNull("int8"));
+    }
+
+    @Test
+    public void testEqualsAndHashCodeMatchStruct() {
+        Struct boxed = fill(new Struct(SCHEMA));
+        PrimitiveStruct primitive = fill(new PrimitiveStruct(SCHEMA));
+        assertEquals(boxed, primitive);
+        assertEquals(primitive, boxed);
+        assertEquals(boxed.hashCode(), primitive.hashCode());
+        assertEquals(primitive, fill(new PrimitiveStruct(SCHEMA)));
+        assertEquals(primitive.hashCode(), fill(new PrimitiveStruct(SCHEMA)).hashCode());
+
+        boxed.put("float64", Double.NaN);
+        primitive.putDouble("float64", Double.longBitsToDouble(0x7ff8000000000001L));
+        assertEquals(boxed, primitive);
+        assertEquals(primitive, boxed);
+        assertEquals(boxed.hashCode(), primitive.hashCode());
+
+        boxed.put("int16", null);
+        primitive.put("int16", null);
+        assertEquals(boxed, primitive);
+        assertEquals(boxed.hashCode(), primitive.hashCode());
+    }
+
+    @Test
+    public void testDifferentValuesNotEqual() {
+        PrimitiveStruct primitive = fill(new PrimitiveStruct(SCHEMA));
+        PrimitiveStruct other = fill(new PrimitiveStruct(SCHEMA));
+        other.putLong("int32", 1);
+        assertNotEquals(primitive, other);
+        assertNotEquals(fill(new Struct(SCHEMA)), other);
+        assertNotEquals(other, fill(new Struct(SCHEMA)));
+
+        // a zero is not an unset slot
+        other = fill(new PrimitiveStruct(SCHEMA));
+        primitive.putLong("int64", 0);
+        other.put("int64", null);
+        assertNotEquals(primitive, other);
+
+        primitive = fill(new PrimitiveStruct(SCHEMA));
+        primitive.putDouble("float64", 0.0d);
+        other = fill(new PrimitiveStruct(SCHEMA));
+        other.putDouble("float64", -0.0d);
+        assertNotEquals(primitive, other);
+    }
+}
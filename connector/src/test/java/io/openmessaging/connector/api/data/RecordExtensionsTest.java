@@ -0,0 +1,164 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import io.openmessaging.KeyValue;
+import io.openmessaging.internal.DefaultKeyValue;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Extensions are shared between records and instances, every change must leave the instances it started from as they
+ * were.
+ */
+public class RecordExtensionsTest {
+
+    private static Map<String, String> toMap(RecordExtensions extensions) {
+        Map<String, String> map = new LinkedHashMap<>();
+        extensions.forEach(map::put);
+        return map;
+    }
+
+    private static Map<String, String> map(String... keyValues) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put(keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+
+    private static void assertContent(Map<String, String> expected, RecordExtensions extensions) {
+        assertEquals(expected, toMap(extensions));
+        assertEquals(expected.size(), extensions.size());
+        assertEquals(expected.hashCode(), extensions.hashCode());
+        for (Map.Entry<String, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), extensions.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void testWithLeavesFlatSetUnchanged() {
+        RecordExtensions base = RecordExtensions.of("a", "1", "b", "2");
+        RecordExtensions added = base.with("c", "3");
+        RecordExtensions replaced = base.with("a", "9");
+        assertContent(map("a", "1", "b", "2"), base);
+        assertContent(map("a", "1", "b", "2", "c", "3"), added);
+        assertContent(map("a", "9", "b", "2"), replaced);
+        assertSame(base, base.with("a", "1"));
+    }
+
+    @Test
+    public void testSiblingsOfSharedBaseDoNotAlias() {
+        RecordExtensions shared = RecordExtensions.of("trace", "t", "source", "s");
+        RecordExtensions first = shared.with("seq", "1");
+        RecordExtensions second = shared.with("seq", "2");
+        // replacing a value held in an overlay must not write through to the overlay of a sibling
+        RecordExtensions firstReplaced = first.with("seq", "10");
+        RecordExtensions secondShadowed = second.with("trace", "t2");
+        assertContent(map("trace", "t", "source", "s"), shared);
+        assertContent(map("trace", "t", "source", "s", "seq", "1"), first);
+        assertContent(map("trace", "t", "source", "s", "seq", "2"), second);
+        assertContent(map("trace", "t", "source", "s", "seq", "10"), firstReplaced);
+        assertContent(map("trace", "t2", "source", "s", "seq", "2"), secondShadowed);
+    }
+
+    @Test
+    public void testFoldedOverlayLeavesOriginalsUnchanged() {
+        RecordExtensions base = RecordExtensions.of("base", "0");
+        Map<String, String> expected = map("base", "0");
+        RecordExtensions[] versions = new RecordExtensions[RecordExtensions.MAX_OVERLAY * 3];
+        RecordExtensions extensions = base;
+        for (int i = 0; i < versions.length; i++) {
+            extensions = extensions.with("k" + i, "v" + i);
+            versions[i] = extensions;
+        }
+        for (int i = 0; i < versions.length; i++) {
+            expected.put("k" + i, "v" + i);
+            assertContent(expected, versions[i]);
+        }
+        assertContent(map("base", "0"), base);
+    }
+
+    @Test
+    public void testSourcesAreCopied() {
+        Map<String, String> map = new HashMap<>(map("a", "1"));
+        RecordExtensions fromMap = RecordExtensions.of(map);
+        map.put("a", "2");
+        map.put("b", "3");
+        assertContent(map("a", "1"), fromMap);
+
+        KeyValue keyValue = new DefaultKeyValue().put("a", "1");
+        RecordExtensions fromKeyValue = RecordExtensions.of(keyValue);
+        keyValue.put("a", "2");
+        assertContent(map("a", "1"), fromKeyValue);
+
+        KeyValue copy = fromKeyValue.toKeyValue();
+        copy.put("a", "3");
+        copy.put("b", "4");
+        assertContent(map("a", "1"), fromKeyValue);
+    }
+
+    @Test
+    public void testKeySetIsUnmodifiable() {
+        RecordExtensions extensions = RecordExtensions.of("a", "1").with("b", "2");
+        try {
+            extensions.keySet().remove("a");
+            fail("removed a key through the key set");
+        } catch (UnsupportedOperationException expected) {
+        }
+        assertContent(map("a", "1", "b", "2"), extensions);
+    }
+
+    @Test
+    public void testWithAllLeavesBothUnchanged() {
+        RecordExtensions left = RecordExtensions.of("a", "1", "b", "2");
+        RecordExtensions right = RecordExtensions.of("b", "3", "c", "4");
+        assertContent(map("a", "1", "b", "3", "c", "4"), left.withAll(right));
+        assertContent(map("a", "1", "b", "2"), left);
+        assertContent(map("b", "3", "c", "4"), right);
+        assertEquals(RecordExtensions.of(map("c", "4", "b", "3", "a", "1")), left.withAll(right));
+    }
+
+    @Test
+    public void testRecordsSharingExtensionsDoNotAlias() {
+        RecordExtensions shared = RecordExtensions.of("trace", "t");
+        ConnectRecord first = new ConnectRecord(null, null, 1L);
+        ConnectRecord second = new ConnectRecord(null, null, 2L);
+        first.addExtensions(shared);
+        second.addExtensions(shared);
+        assertSame(shared, first.getRecordExtensions());
+
+        first.addExtension("seq", "1");
+        assertEquals("1", first.getExtension("seq"));
+        assertNull(second.getExtension("seq"));
+
+        // the key value form is the record's own copy
+        second.getExtensions().put("trace", "changed");
+        assertEquals("changed", second.getExtension("trace"));
+        assertEquals("t", first.getExtension("trace"));
+        assertContent(map("trace", "t"), shared);
+        assertNotSame(shared, second.getRecordExtensions());
+    }
+}
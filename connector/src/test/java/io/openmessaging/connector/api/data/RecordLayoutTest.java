@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * What a {@link ConnectRecord} costs on top of the partition, offset and payload it references, measured with JOL
+ * so the assertions hold with and without compressed oops.
+ */
+public class RecordLayoutTest {
+
+    /**
+     * the fields a record needs: a primitive timestamp and six references
+     */
+    @SuppressWarnings("unused")
+    private static final class MinimalRecord {
+        long timestamp;
+        Object keySchema;
+        Object key;
+        Object schema;
+        Object data;
+        Object position;
+        Object extensions;
+    }
+
+    private static long instanceSize(Class<?> klass) {
+        return ClassLayout.parseClass(klass).instanceSize();
+    }
+
+    @Test
+    public void testRecordHasNoPaddingFields() {
+        assertEquals(instanceSize(MinimalRecord.class), instanceSize(ConnectRecord.class));
+    }
+
+    @Test
+    public void testRecordWithTimestampAddsOnlyItsPosition() {
+        RecordPartition partition = new RecordPartition(Collections.singletonMap("queue", "topic-0"));
+        RecordOffset offset = new RecordOffset(Collections.singletonMap("offset", 1L));
+        String data = "payload";
+        long referenced = GraphLayout.parseInstance(partition, offset, data).totalSize();
+
+        ConnectRecord record = new ConnectRecord(partition, offset, System.currentTimeMillis(), null, data);
+        // no boxed timestamp
+        assertEquals(instanceSize(ConnectRecord.class) + instanceSize(RecordPosition.class),
+            GraphLayout.parseInstance(record).totalSize() - referenced);
+    }
+
+    @Test
+    public void testBareRecordSharesEmptyPosition() {
+        ConnectRecord bare = new ConnectRecord(null, null, null);
+        assertSame(RecordPosition.EMPTY, bare.getPosition());
+        assertEquals(instanceSize(ConnectRecord.class) + instanceSize(RecordPosition.class),
+            GraphLayout.parseInstance(bare).totalSize());
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RecordPartitionPoolTest {
+
+    private static RecordPartition partition(String queue) {
+        Map<String, Object> partition = new HashMap<>();
+        partition.put("queue", queue);
+        partition.put("broker", "broker-a");
+        return new RecordPartition(partition);
+    }
+
+    /**
+     * intern partitions without keeping any reference to the canonical instances
+     */
+    private static void internUnreferenced(RecordPartitionPool pool, String... queues) {
+        for (String queue : queues) {
+            pool.intern(partition(queue));
+        }
+    }
+
+    @Test
+    public void testInternReturnsCanonicalInstance() {
+        RecordPartitionPool pool = new RecordPartitionPool(16);
+        ImmutableRecordPartition canonical = pool.intern(partition("q0"));
+        assertEquals(partition("q0"), canonical);
+        assertSame(canonical, pool.intern(partition("q0")));
+        assertSame(canonical, pool.intern(partition("q0").getPartition()));
+        assertSame(canonical, pool.intern(new ImmutableRecordPartition(partition("q0").getPartition())));
+        assertNotSame(canonical, pool.intern(partition("q1")));
+        assertEquals(2, pool.size());
+        assertNull(pool.intern((RecordPartition) null));
+        assertNull(pool.intern((Map<String, ?>) null));
+    }
+
+    @Test
+    public void testCanonicalInstanceIsImmutable() {
+        RecordPartitionPool pool = new RecordPartitionPool(16);
+        Map<String, Object> map = new HashMap<>(partition("q0").getPartition());
+        ImmutableRecordPartition canonical = pool.intern(map);
+        map.put("queue", "q1");
+        assertEquals(partition("q0"), canonical);
+        try {
+            canonical.getPartition().clear();
+            fail("modified a pooled partition");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void testFullPoolReturnsUnpooledCopies() {
+        RecordPartitionPool pool = new RecordPartitionPool(2);
+        ImmutableRecordPartition q0 = pool.intern(partition("q0"));
+        ImmutableRecordPartition q1 = pool.intern(partition("q1"));
+        ImmutableRecordPartition q2 = pool.intern(partition("q2"));
+        assertEquals(partition("q2"), q2);
+        assertNotSame(q2, pool.intern(partition("q2")));
+        assertEquals(2, pool.size());
+        // partitions pooled before the pool filled up stay canonical
+        assertSame(q0, pool.intern(partition("q0")));
+        assertSame(q1, pool.intern(partition("q1")));
+    }
+
+    @Test
+    public void testCollectedPartitionsFreeTheirSlots() throws InterruptedException {
+        RecordPartitionPool pool = new RecordPartitionPool(2);
+        ImmutableRecordPartition kept = pool.intern(partition("kept"));
+        internUnreferenced(pool, "dropped");
+        assertEquals(2, pool.size());
+        long deadline = System.currentTimeMillis() + 10000;
+        ImmutableRecordPartition added = pool.intern(partition("added"));
+        while (added != pool.intern(partition("added")) && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+            added = pool.intern(partition("added"));
+        }
+        assertSame(added, pool.intern(partition("added")));
+        assertSame(kept, pool.intern(partition("kept")));
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    public void testClear() {
+        RecordPartitionPool pool = new RecordPartitionPool(16);
+        ImmutableRecordPartition q0 = pool.intern(partition("q0"));
+        pool.clear();
+        assertEquals(0, pool.size());
+        assertNotSame(q0, pool.intern(partition("q0")));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testConcurrentInternAgreesOnCanonicalInstance() throws InterruptedException {
+        RecordPartitionPool pool = new RecordPartitionPool(1024);
+        int threads = 4;
+        int partitions = 256;
+        ImmutableRecordPartition[][] interned = new ImmutableRecordPartition[threads][partitions];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            ImmutableRecordPartition[] results = interned[t];
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < partitions; i++) {
+                    results[i] = pool.intern(partition("q" + i));
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        for (int i = 0; i < partitions; i++) {
+            for (int t = 1; t < threads; t++) {
+                assertSame(interned[0][i], interned[t][i]);
+            }
+        }
+        assertEquals(partitions, pool.size());
+    }
+
+    @Test
+    public void testMaxSize() {
+        try {
+            new RecordPartitionPool(0);
+            fail("created an empty pool");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("0"));
+        }
+        assertSame(RecordPartitionPool.shared(), RecordPartitionPool.shared());
+        assertEquals(RecordPartitionPool.DEFAULT_MAX_SIZE, RecordPartitionPool.shared().getMaxSize());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import static io.openmessaging.connector.api.data.RecordSizeEstimator.ARRAY_HEADER;
+import static io.openmessaging.connector.api.data.RecordSizeEstimator.BINARY_STRUCT;
+import static io.openmessaging.connector.api.data.RecordSizeEstimator.REFERENCE;
+import static io.openmessaging.connector.api.data.RecordSizeEstimator.align;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RecordSizeEstimatorTest {
+
+    private static final Schema SCHEMA = SchemaBuilder.struct()
+        .name("row")
+        .field("id", SchemaBuilder.int64().build())
+        .field("name", SchemaBuilder.string().build())
+        .field("note", SchemaBuilder.string().build())
+        .build();
+
+    private static BinaryStruct view() {
+        Struct struct = new Struct(SCHEMA);
+        struct.put("id", 1L);
+        struct.put("name", "abc");
+        struct.put("note", "some longer note");
+        ByteBuffer row = BinaryStruct.encode(struct);
+        return new BinaryStruct(SCHEMA, row);
+    }
+
+    @Test
+    public void testUnmodifiedViewIsItsRow() {
+        BinaryStruct view = view();
+        assertEquals(BINARY_STRUCT + view.rowLength(), RecordSizeEstimator.estimate(view));
+    }
+
+    @Test
+    public void testModifiedViewAddsDeltas() {
+        BinaryStruct view = view();
+        view.put("name", "abcdefgh");
+        long expected = BINARY_STRUCT + view.rowLength() + align(ARRAY_HEADER + REFERENCE * 3)
+            + RecordSizeEstimator.estimate("abcdefgh") - "abc".length();
+        assertEquals(expected, RecordSizeEstimator.estimate(view));
+    }
+
+    @Test
+    public void testModifiedViewDoesNotDecodeOtherFields() {
+        BinaryStruct view = view();
+        view.put("id", 2L);
+        RecordSizeEstimator.estimate(view);
+        assertTrue(view.isHeld(0));
+        assertFalse(view.isHeld(1));
+        assertFalse(view.isHeld(2));
+    }
+
+    @Test
+    public void testFieldPutToNull() {
+        BinaryStruct view = view();
+        view.put("note", null);
+        long expected = BINARY_STRUCT + view.rowLength() + align(ARRAY_HEADER + REFERENCE * 3)
+            - "some longer note".length();
+        assertEquals(expected, RecordSizeEstimator.estimate(view));
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SchemaTest {
+
+    private static class Unmapped {
+    }
+
+    private static class Registered {
+    }
+
+    private static class RegisteredChild extends Registered {
+    }
+
+    @Test
+    public void testSchemaTypeOfMappedAndDerivedClasses() {
+        assertEquals(FieldType.INT64, Schema.schemaType(Long.class));
+        assertEquals(FieldType.ARRAY, Schema.schemaType(ArrayList.class));
+        assertEquals(FieldType.MAP, Schema.schemaType(HashMap.class));
+        assertEquals(FieldType.ARRAY, Schema.schemaType(ArrayList.class));
+    }
+
+    @Test
+    public void testUnknownClassStaysUnknown() {
+        assertNull(Schema.schemaType(Unmapped.class));
+        assertNull(Schema.schemaType(Unmapped.class));
+    }
+
+    @Test
+    public void testMissResolvedAgainAfterMappingAdded() {
+        assertNull(Schema.schemaType(RegisteredChild.class));
+        assertNull(Schema.schemaType(Registered.class));
+        Schema.JAVA_CLASS_SCHEMA_TYPES.put(Registered.class, FieldType.STRUCT);
+        assertEquals(FieldType.STRUCT, Schema.schemaType(Registered.class));
+        assertEquals(FieldType.STRUCT, Schema.schemaType(RegisteredChild.class));
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data;
+
+import io.openmessaging.connector.api.data.logical.Date;
+import io.openmessaging.connector.api.data.logical.Decimal;
+import io.openmessaging.connector.api.errors.ConnectException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The validator compiled for a frozen schema reports the same errors as the recursive checks of an unfrozen one.
+ */
+public class SchemaValidatorTest {
+
+    private static Schema schema(String name, FieldType type, boolean optional, List<Field> fields,
+        Schema keySchema, Schema valueSchema) {
+        return new Schema(name, type, optional, null, null, null, fields, keySchema, valueSchema, null);
+    }
+
+    private static Schema primitive(FieldType type) {
+        return schema(null, type, false, null, null, null);
+    }
+
+    private static Schema row() {
+        List<Field> fields = new ArrayList<>();
+        fields.add(new Field(0, "id", primitive(FieldType.INT64)));
+        fields.add(new Field(1, "name", schema(null, FieldType.STRING, true, null, null, null)));
+        fields.add(new Field(2, "tags", schema(null, FieldType.ARRAY, true, null, null, primitive(FieldType.STRING))));
+        return schema("row", FieldType.STRUCT, false, fields, null, null);
+    }
+
+    private static Schema envelope() {
+        List<Field> fields = new ArrayList<>();
+        fields.add(new Field(0, "op", primitive(FieldType.STRING)));
+        fields.add(new Field(1, "after", row()));
+        return schema("envelope", FieldType.STRUCT, false, fields, null, null);
+    }
+
+    private static Struct row(Schema schema) {
+        return new Struct(schema).put("id", 1L).put("name", "row-1");
+    }
+
+    /**
+     * message of the error validating the value against the schema, null if the value is valid
+     */
+    private static String error(Schema schema, Object value) {
+        try {
+            Schema.validateValue(schema, value);
+            return null;
+        } catch (ConnectException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Validate against an unfrozen schema and the frozen copy of an identical one, the value being built for each.
+     * @return the error both reported
+     */
+    private static String sameError(Supplier<Schema> schemas, Function<Schema, Object> values) {
+        Schema unfrozen = schemas.get();
+        Schema frozen = schemas.get().freeze();
+        assertFalse(unfrozen.isFrozen());
+        assertTrue(frozen.isFrozen());
+        String expected = error(unfrozen, values.apply(unfrozen));
+        assertEquals(expected, error(frozen, values.apply(frozen)));
+        return expected;
+    }
+
+    private static String sameError(Supplier<Schema> schemas, Object value) {
+        return sameError(schemas, schema -> value);
+    }
+
+    @Test
+    public void testPrimitiveTypes() {
+        Map<FieldType, Object> valid = new HashMap<>();
+        valid.put(FieldType.INT8, (byte) 1);
+        valid.put(FieldType.INT16, (short) 1);
+        valid.put(FieldType.INT32, 1);
+        valid.put(FieldType.INT64, 1L);
+        valid.put(FieldType.FLOAT32, 1f);
+        valid.put(FieldType.FLOAT64, 1d);
+        valid.put(FieldType.BOOLEAN, true);
+        valid.put(FieldType.STRING, "1");
+        valid.put(FieldType.BYTES, new byte[] {1});
+        for (Map.Entry<FieldType, Object> entry : valid.entrySet()) {
+            FieldType type = entry.getKey();
+            assertNull(sameError(() -> primitive(type), entry.getValue()));
+            assertEquals("Invalid Java object for schema type " + type + ": class java.lang.Object for field: \"null\"",
+                sameError(() -> primitive(type), new Object()));
+            assertEquals("Invalid value: null used for required field: \"null\", schema type: " + type,
+                sameError(() -> primitive(type), (Object) null));
+            assertNull(sameError(() -> schema(null, type, true, null, null, null), (Object) null));
+        }
+        // a wider integer is not accepted for a narrower type
+        assertEquals("Invalid Java object for schema type INT32: class java.lang.Long for field: \"null\"",
+            sameError(() -> primitive(FieldType.INT32), 1L));
+    }
+
+    @Test
+    public void testLogicalTypes() {
+        assertNull(sameError(() -> schema(Date.LOGICAL_NAME, FieldType.INT32, false, null, null, null),
+            new java.util.Date(0)));
+        assertEquals("Invalid Java object for schema type INT32: class java.lang.Integer for field: \"null\"",
+            sameError(() -> schema(Date.LOGICAL_NAME, FieldType.INT32, false, null, null, null), 0));
+        Supplier<Schema> decimal = () -> schema(Decimal.LOGICAL_NAME, FieldType.BYTES, false, null, null, null);
+        assertNull(sameError(decimal, new BigDecimal("1.25")));
+        assertEquals("Invalid Java object for schema type BYTES: class [B for field: \"null\"",
+            sameError(decimal, new byte[] {1}));
+    }
+
+    @Test
+    public void testStruct() {
+        assertNull(sameError(SchemaValidatorTest::row, SchemaValidatorTest::row));
+        assertEquals("Invalid value: null used for required field: \"id\", schema type: INT64",
+            sameError(SchemaValidatorTest::row, schema -> new Struct(schema).put("name", "row-1")));
+        assertEquals("Invalid Java object for schema type INT64: class java.lang.String for field: \"id\"",
+            sameError(SchemaValidatorTest::row, schema -> {
+                Struct struct = row(schema);
+                struct.setValue(0, "1");
+                return struct;
+            }));
+        assertEquals("Invalid Java object for schema type STRING: class java.lang.Integer for field: \"null\"",
+            sameError(SchemaValidatorTest::row, schema -> {
+                Struct struct = row(schema);
+                struct.setValue(2, Arrays.asList("a", 1));
+                return struct;
+            }));
+        assertEquals("Struct schemas do not match.",
+            sameError(SchemaValidatorTest::row, schema -> new Struct(envelope())));
+        assertEquals("Invalid Java object for schema type STRUCT: class java.lang.String for field: \"null\"",
+            sameError(SchemaValidatorTest::row, "row"));
+    }
+
+    @Test
+    public void testNestedStruct() {
+        assertNull(sameError(SchemaValidatorTest::envelope,
+            schema -> new Struct(schema).put("op", "c").put("after", row(schema.getField("after").getSchema()))));
+        assertEquals("Invalid value: null used for required field: \"id\", schema type: INT64",
+            sameError(SchemaValidatorTest::envelope, schema -> {
+                Struct after = row(schema.getField("after").getSchema());
+                Struct struct = new Struct(schema).put("op", "c").put("after", after);
+                after.setValue(0, null);
+                return struct;
+            }));
+        assertEquals("Invalid value: null used for required field: \"after\", schema type: STRUCT",
+            sameError(SchemaValidatorTest::envelope, schema -> new Struct(schema).put("op", "c")));
+    }
+
+    @Test
+    public void testArray() {
+        Supplier<Schema> longs = () -> schema(null, FieldType.ARRAY, false, null, null, primitive(FieldType.INT64));
+        assertNull(sameError(longs, Arrays.asList(1L, 2L)));
+        assertNull(sameError(longs, Collections.emptyList()));
+        assertEquals("Invalid Java object for schema type INT64: class java.lang.Integer for field: \"null\"",
+            sameError(longs, Arrays.asList(1L, 2)));
+        assertEquals("Invalid value: null used for required field: \"null\", schema type: INT64",
+            sameError(longs, Arrays.asList(1L, null)));
+        assertEquals("Invalid Java object for schema type ARRAY: class java.util.HashMap for field: \"null\"",
+            sameError(longs, new HashMap<>()));
+        assertNull(sameError(() -> schema(null, FieldType.ARRAY, false, null, null, row()),
+            schema -> Collections.singletonList(row(schema.getValueSchema()))));
+    }
+
+    @Test
+    public void testMap() {
+        Supplier<Schema> counts = () -> schema(null, FieldType.MAP, false, null,
+            primitive(FieldType.STRING), primitive(FieldType.INT32));
+        assertNull(sameError(counts, Collections.singletonMap("a", 1)));
+        assertEquals("Invalid Java object for schema type STRING: class java.lang.Integer for field: \"null\"",
+            sameError(counts, Collections.singletonMap(1, 1)));
+        assertEquals("Invalid Java object for schema type INT32: class java.lang.String for field: \"null\"",
+            sameError(counts, Collections.singletonMap("a", "1")));
+        assertEquals("Invalid value: null used for required field: \"null\", schema type: INT32",
+            sameError(counts, Collections.singletonMap("a", null)));
+        assertEquals("Invalid Java object for schema type MAP: class java.util.ArrayList for field: \"null\"",
+            sameError(counts, new ArrayList<>()));
+    }
+}
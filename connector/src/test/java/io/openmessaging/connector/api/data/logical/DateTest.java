@@ -0,0 +1,94 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data.logical;
+
+import io.openmessaging.connector.api.errors.ConnectException;
+
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class DateTest {
+
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+
+    private static void assertRejected(String message, Runnable conversion) {
+        try {
+            conversion.run();
+            fail("converted, expected: " + message);
+        } catch (ConnectException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRoundTripAtRangeBoundaries() {
+        int[] days = {Integer.MIN_VALUE, -141428, -1, 0, 1, 19000, Integer.MAX_VALUE};
+        for (int day : days) {
+            long millis = day * MILLIS_PER_DAY;
+            assertEquals(millis, Date.toEpochMillis(Date.SCHEMA, day));
+            assertEquals(day, Date.fromEpochMillis(Date.SCHEMA, millis));
+            assertEquals(millis, Date.toLogical(Date.SCHEMA, day).getTime());
+            assertEquals(day, Date.fromLogical(Date.SCHEMA, new java.util.Date(millis)));
+            assertEquals(LocalDate.ofEpochDay(day), Date.toLocalDate(Date.SCHEMA, day));
+            assertEquals(day, Date.fromLocalDate(Date.SCHEMA, LocalDate.ofEpochDay(day)));
+        }
+    }
+
+    @Test
+    public void testMatchesUtcCalendar() {
+        // before the epoch and before the Gregorian cutover, where Calendar switches to the Julian calendar
+        long[] days = {-200000, -141428, -141427, -719162, -1, 0, 18993};
+        for (long day : days) {
+            Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+            calendar.setTimeInMillis(day * MILLIS_PER_DAY);
+            assertEquals(day, Date.fromLogical(Date.SCHEMA, calendar.getTime()));
+        }
+    }
+
+    @Test
+    public void testOutOfRangeDatesRejected() {
+        assertRejected("Date of 2147483648 days since the epoch is out of range of the Date type",
+            () -> Date.fromEpochMillis(Date.SCHEMA, (Integer.MAX_VALUE + 1L) * MILLIS_PER_DAY));
+        assertRejected("Date of -2147483649 days since the epoch is out of range of the Date type",
+            () -> Date.fromLogical(Date.SCHEMA, new java.util.Date((Integer.MIN_VALUE - 1L) * MILLIS_PER_DAY)));
+        assertRejected("Date of 2147483648 days since the epoch is out of range of the Date type",
+            () -> Date.fromLocalDate(Date.SCHEMA, LocalDate.ofEpochDay(Integer.MAX_VALUE + 1L)));
+        assertRejected("Date of 365241780471 days since the epoch is out of range of the Date type",
+            () -> Date.fromLocalDate(Date.SCHEMA, LocalDate.MAX));
+    }
+
+    @Test
+    public void testTimeOfDayRejected() {
+        String message = "Kafka Connect Date type should not have any time fields set to non-zero values.";
+        assertRejected(message, () -> Date.fromEpochMillis(Date.SCHEMA, 1));
+        assertRejected(message, () -> Date.fromEpochMillis(Date.SCHEMA, -1));
+        assertRejected(message, () -> Date.fromLogical(Date.SCHEMA, new java.util.Date(MILLIS_PER_DAY - 1)));
+    }
+
+    @Test
+    public void testSchemaMismatchRejected() {
+        String message = "Requested conversion of Date object but the schema does not match.";
+        assertRejected(message, () -> Date.fromEpochMillis(Time.SCHEMA, 0));
+        assertRejected(message, () -> Date.toLogical(Timestamp.SCHEMA, 0));
+        assertRejected(message, () -> Date.toLocalDate(Time.SCHEMA, 0));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data.logical;
+
+import io.openmessaging.connector.api.data.Schema;
+import io.openmessaging.connector.api.errors.ConnectException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the long fast paths against the BigInteger encoding on random values, including the edges of the long
+ * range.
+ */
+public class DecimalTest {
+
+    private static final int RUNS = 20000;
+
+    private final Random random = new Random(0x5EEDL);
+
+    private BigDecimal randomDecimal(int scale) {
+        int bits = 1 + random.nextInt(96);
+        BigInteger unscaled = new BigInteger(bits, random);
+        return new BigDecimal(random.nextBoolean() ? unscaled.negate() : unscaled, scale);
+    }
+
+    private int randomScale() {
+        return random.nextInt(41) - 10;
+    }
+
+    @Test
+    public void testEncodingMatchesUnscaledBytes() {
+        for (int i = 0; i < RUNS; i++) {
+            int scale = randomScale();
+            BigDecimal value = randomDecimal(scale);
+            assertArrayEquals(value.unscaledValue().toByteArray(), Decimal.fromLogical(Decimal.schema(scale), value));
+        }
+    }
+
+    @Test
+    public void testRoundTrip() {
+        for (int i = 0; i < RUNS; i++) {
+            int scale = randomScale();
+            Schema schema = Decimal.schema(scale);
+            BigDecimal value = randomDecimal(scale);
+            assertEquals(value, Decimal.toLogical(schema, Decimal.fromLogical(schema, value)));
+        }
+    }
+
+    @Test
+    public void testUnscaledLongRoundTrip() {
+        for (int i = 0; i < RUNS; i++) {
+            int scale = randomScale();
+            Schema schema = Decimal.schema(scale);
+            BigDecimal value = randomDecimal(scale);
+            boolean fits = value.unscaledValue().bitLength() < Long.SIZE;
+            try {
+                long unscaled = Decimal.unscaledLong(schema, value);
+                assertTrue(fits);
+                assertEquals(value.unscaledValue().longValue(), unscaled);
+                assertEquals(value, Decimal.toLogical(schema, unscaled));
+            } catch (ConnectException e) {
+                assertFalse(fits);
+            }
+        }
+    }
+
+    @Test
+    public void testLongEdges() {
+        long[] edges = {0, 1, -1, 127, -128, 128, -129, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE - 1,
+            Long.MIN_VALUE + 1, 999999999999999999L, -999999999999999999L};
+        for (int scale = -3; scale <= 20; scale++) {
+            Schema schema = Decimal.schema(scale);
+            for (long edge : edges) {
+                BigDecimal value = BigDecimal.valueOf(edge, scale);
+                byte[] encoded = Decimal.fromLogical(schema, value);
+                assertArrayEquals(BigInteger.valueOf(edge).toByteArray(), encoded);
+                assertEquals(value, Decimal.toLogical(schema, encoded));
+                assertEquals(edge, Decimal.unscaledLong(schema, value));
+            }
+        }
+    }
+
+    @Test(expected = ConnectException.class)
+    public void testMismatchingScale() {
+        Decimal.fromLogical(Decimal.schema(2), new BigDecimal("1.234"));
+    }
+
+    @Test
+    public void testScaleOfUnfrozenSchema() {
+        Schema schema = Decimal.builder(3).build();
+        Schema copy = new Schema(schema.getName(), schema.getFieldType(), schema.isOptional(), null,
+            schema.getVersion(), null, null, null, null, new HashMap<>(schema.getParameters()));
+        assertEquals(3, copy.decimalScale());
+        copy.getParameters().put(Decimal.SCALE_FIELD, "5");
+        assertEquals(5, copy.decimalScale());
+        assertEquals(3, schema.decimalScale());
+    }
+}
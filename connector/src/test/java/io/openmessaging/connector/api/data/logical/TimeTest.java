@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data.logical;
+
+import io.openmessaging.connector.api.errors.ConnectException;
+
+import java.time.LocalTime;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class TimeTest {
+
+    private static final int MILLIS_PER_DAY = 86400000;
+
+    private static void assertRejected(String message, Runnable conversion) {
+        try {
+            conversion.run();
+            fail("converted, expected: " + message);
+        } catch (ConnectException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRoundTripAtRangeBoundaries() {
+        int[] values = {0, 1, 45296789, MILLIS_PER_DAY - 1};
+        for (int value : values) {
+            assertEquals(value, Time.fromEpochMillis(Time.SCHEMA, value));
+            assertEquals(value, Time.toLogical(Time.SCHEMA, value).getTime());
+            assertEquals(value, Time.fromLogical(Time.SCHEMA, new java.util.Date(value)));
+            assertEquals(value, Time.fromLocalTime(Time.SCHEMA, Time.toLocalTime(Time.SCHEMA, value)));
+        }
+        // the end of the day is a valid Time, but not a LocalTime
+        assertEquals(MILLIS_PER_DAY, Time.fromEpochMillis(Time.SCHEMA, MILLIS_PER_DAY));
+        assertEquals(MILLIS_PER_DAY, Time.toLogical(Time.SCHEMA, MILLIS_PER_DAY).getTime());
+        assertRejected("Time value of 86400000 milliseconds cannot be represented as LocalTime",
+            () -> Time.toLocalTime(Time.SCHEMA, MILLIS_PER_DAY));
+    }
+
+    @Test
+    public void testLocalTimeTruncatedToMillis() {
+        assertEquals(MILLIS_PER_DAY - 1, Time.fromLocalTime(Time.SCHEMA, LocalTime.MAX));
+        assertEquals(1, Time.fromLocalTime(Time.SCHEMA, LocalTime.ofNanoOfDay(1999999)));
+        assertEquals(LocalTime.of(12, 34, 56, 789000000), Time.toLocalTime(Time.SCHEMA, 45296789));
+    }
+
+    @Test
+    public void testOutOfRangeTimesRejected() {
+        String message = "Kafka Connect Time type should not have any date fields set to non-zero values.";
+        assertRejected(message, () -> Time.fromEpochMillis(Time.SCHEMA, -1));
+        assertRejected(message, () -> Time.fromEpochMillis(Time.SCHEMA, MILLIS_PER_DAY + 1));
+        assertRejected(message, () -> Time.fromLogical(Time.SCHEMA, new java.util.Date(19000L * MILLIS_PER_DAY)));
+        String range = "Time values must use number of milliseconds greater than 0 and less than 86400000";
+        assertRejected(range, () -> Time.toLogical(Time.SCHEMA, -1));
+        assertRejected(range, () -> Time.toLocalTime(Time.SCHEMA, MILLIS_PER_DAY + 1));
+    }
+
+    @Test
+    public void testSchemaMismatchRejected() {
+        String message = "Requested conversion of Time object but the schema does not match.";
+        assertRejected(message, () -> Time.fromEpochMillis(Date.SCHEMA, 0));
+        assertRejected(message, () -> Time.toLogical(Date.SCHEMA, 0));
+        assertRejected(message, () -> Time.fromLocalTime(Timestamp.SCHEMA, LocalTime.MIDNIGHT));
+    }
+}
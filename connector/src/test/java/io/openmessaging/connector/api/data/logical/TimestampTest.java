@@ -0,0 +1,49 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.data.logical;
+
+import io.openmessaging.connector.api.errors.ConnectException;
+
+import java.time.Instant;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimestampTest {
+
+    @Test
+    public void testRoundTripAtRangeBoundaries() {
+        long[] values = {Long.MIN_VALUE, -1, 0, 1, 1641645296789L, Long.MAX_VALUE};
+        for (long value : values) {
+            assertEquals(value, Timestamp.toLogical(Timestamp.SCHEMA, value).getTime());
+            assertEquals(value, Timestamp.fromLogical(Timestamp.SCHEMA, new java.util.Date(value)));
+            assertEquals(Instant.ofEpochMilli(value), Timestamp.toInstant(Timestamp.SCHEMA, value));
+            assertEquals(value, Timestamp.fromInstant(Timestamp.SCHEMA, Instant.ofEpochMilli(value)));
+        }
+    }
+
+    @Test
+    public void testInstantTruncatedToMillis() {
+        assertEquals(1000, Timestamp.fromInstant(Timestamp.SCHEMA, Instant.ofEpochSecond(1, 999999)));
+        // before the epoch, truncation rounds towards negative infinity
+        assertEquals(-1000, Timestamp.fromInstant(Timestamp.SCHEMA, Instant.ofEpochSecond(-1, 500000)));
+    }
+
+    @Test(expected = ConnectException.class)
+    public void testSchemaMismatchRejected() {
+        Timestamp.toInstant(Date.SCHEMA, 0);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MeterTest {
+
+    private static final double DELTA = 1e-9;
+
+    private final AtomicLong nanos = new AtomicLong(TimeUnit.SECONDS.toNanos(42));
+    private final Meter meter = new Meter(nanos::get);
+
+    private void advanceMillis(long millis) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    public void testMeanRateBeforeFirstWindow() {
+        meter.mark(50);
+        advanceMillis(500);
+        assertEquals(100, meter.getRate(), DELTA);
+    }
+
+    @Test
+    public void testReadsDoNotResetTheWindow() {
+        meter.mark(100);
+        advanceMillis(1000);
+        meter.mark(300);
+        advanceMillis(100);
+        assertEquals(100, meter.getRate(), DELTA);
+        // reading often and early must not shrink the window the rate is computed over
+        advanceMillis(1);
+        assertEquals(100, meter.getRate(), DELTA);
+        advanceMillis(899);
+        assertEquals(300, meter.getRate(), DELTA);
+        assertEquals(300, meter.getRate(), DELTA);
+        advanceMillis(999);
+        assertEquals(300, meter.getRate(), DELTA);
+    }
+
+    @Test
+    public void testWindowsFollowTheClockWithoutReads() {
+        meter.mark(100);
+        advanceMillis(1500);
+        meter.mark(200);
+        advanceMillis(400);
+        meter.mark(50);
+        advanceMillis(200);
+        // the window from 1s to 2s held the last 250 events
+        assertEquals(250, meter.getRate(), DELTA);
+    }
+
+    @Test
+    public void testIdleWindowsReportZero() {
+        meter.mark(100);
+        advanceMillis(1000);
+        assertEquals(100, meter.getRate(), DELTA);
+        advanceMillis(2500);
+        assertEquals(0, meter.getRate(), DELTA);
+        assertEquals(100, meter.getCount());
+        meter.mark(10);
+        advanceMillis(1000);
+        assertEquals(10, meter.getRate(), DELTA);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.storage;
+
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CachingOffsetStorageReaderTest {
+
+    private static final double DELTA = 1e-9;
+
+    private final Store store = new Store();
+
+    private static RecordPartition partition(int i) {
+        return new RecordPartition(Collections.singletonMap("queue", "q" + i));
+    }
+
+    private static RecordOffset offset(long offset) {
+        return new RecordOffset(Collections.singletonMap("offset", offset));
+    }
+
+    private static List<RecordPartition> partitions(int from, int to) {
+        List<RecordPartition> partitions = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            partitions.add(partition(i));
+        }
+        return partitions;
+    }
+
+    @Test
+    public void testPrefetchReadsInChunks() {
+        for (int i = 0; i < 25; i++) {
+            store.offsets.put(partition(i), offset(i));
+        }
+        CachingOffsetStorageReader reader = new CachingOffsetStorageReader(store, 10, 100);
+        reader.prefetch(partitions(0, 25));
+        assertEquals(Arrays.asList(10, 10, 5), store.chunks);
+        assertEquals(25, reader.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(offset(i), reader.readOffset(partition(i)));
+        }
+        assertEquals(store.offsets, reader.readOffsets(partitions(0, 25)));
+        // prefetching cached partitions does not read them again
+        reader.prefetch(partitions(20, 30));
+        assertEquals(Arrays.asList(10, 10, 5, 5), store.chunks);
+        assertEquals(0, store.singleReads);
+        assertEquals(50, reader.getHits());
+        assertEquals(0, reader.getMisses());
+    }
+
+    @Test
+    public void testMissesReadInChunks() {
+        store.offsets.put(partition(1), offset(1));
+        store.offsets.put(partition(3), offset(3));
+        CachingOffsetStorageReader reader = new CachingOffsetStorageReader(store, 2, 100);
+        reader.readOffset(partition(0));
+        Map<RecordPartition, RecordOffset> offsets = reader.readOffsets(partitions(0, 5));
+        assertEquals(store.offsets, offsets);
+        // partition 0 is cached, the four others are read two at a time
+        assertEquals(Arrays.asList(2, 2), store.chunks);
+        assertEquals(1, reader.getHits());
+        assertEquals(5, reader.getMisses());
+    }
+
+    @Test
+    public void testAbsentOffsetsCached() {
+        CachingOffsetStorageReader reader = new CachingOffsetStorageReader(store, 10, 100);
+        assertNull(reader.readOffset(partition(0)));
+        assertNull(reader.readOffset(partition(0)));
+        assertEquals(1, store.singleReads);
+
+        reader.prefetch(partitions(1, 3));
+        assertTrue(reader.readOffsets(partitions(0, 3)).isEmpty());
+        assertNull(reader.readOffset(partition(2)));
+        assertEquals(1, store.singleReads);
+        assertEquals(Collections.singletonList(2), store.chunks);
+        assertEquals(3, reader.size());
+
+        // an offset written later is only seen once invalidated
+        store.offsets.put(partition(0), offset(7));
+        assertNull(reader.readOffset(partition(0)));
+        reader.invalidate(partition(0));
+        assertEquals(offset(7), reader.readOffset(partition(0)));
+    }
+
+    @Test
+    public void testLeastRecentlyReadEvicted() {
+        for (int i = 0; i < 4; i++) {
+            store.offsets.put(partition(i), offset(i));
+        }
+        CachingOffsetStorageReader reader = new CachingOffsetStorageReader(store, 10, 3);
+        reader.readOffset(partition(0));
+        reader.readOffset(partition(1));
+        reader.readOffset(partition(2));
+        reader.readOffset(partition(0));
+        reader.readOffset(partition(3));
+        assertEquals(3, reader.size());
+        assertEquals(4, store.singleReads);
+
+        // partition 1 was read least recently
+        reader.readOffset(partition(0));
+        reader.readOffset(partition(3));
+        assertEquals(4, store.singleReads);
+        assertEquals(offset(1), reader.readOffset(partition(1)));
+        assertEquals(5, store.singleReads);
+
+        // prefetching more partitions than fit keeps the last ones
+        reader.clear();
+        reader.prefetch(partitions(0, 4));
+        assertEquals(3, reader.size());
+        reader.readOffsets(partitions(1, 4));
+        assertEquals(Collections.singletonList(4), store.chunks);
+    }
+
+    @Test
+    public void testHitRate() {
+        store.offsets.put(partition(0), offset(0));
+        CachingOffsetStorageReader reader = new CachingOffsetStorageReader(store, 10, 100);
+        assertEquals(0, reader.hitRate(), DELTA);
+        reader.readOffset(partition(0));
+        reader.readOffset(partition(0));
+        reader.readOffset(partition(0));
+        reader.readOffset(partition(0));
+        assertEquals(0.75, reader.hitRate(), DELTA);
+        reader.readOffsets(partitions(0, 4));
+        assertEquals(4, reader.getHits());
+        assertEquals(4, reader.getMisses());
+        assertEquals(0.5, reader.hitRate(), DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSize() {
+        new CachingOffsetStorageReader(store, 0, 100);
+    }
+
+    /**
+     * Backing store counting the reads it serves.
+     */
+    private static class Store implements OffsetStorageReader {
+
+        final Map<RecordPartition, RecordOffset> offsets = new HashMap<>();
+        final List<Integer> chunks = new ArrayList<>();
+        int singleReads;
+
+        @Override
+        public RecordOffset readOffset(RecordPartition partition) {
+            singleReads++;
+            return offsets.get(partition);
+        }
+
+        @Override
+        public Map<RecordPartition, RecordOffset> readOffsets(Collection<RecordPartition> partitions) {
+            chunks.add(partitions.size());
+            Map<RecordPartition, RecordOffset> read = new HashMap<>();
+            for (RecordPartition partition : partitions) {
+                if (offsets.containsKey(partition)) {
+                    read.put(partition, offsets.get(partition));
+                }
+            }
+            return read;
+        }
+    }
+}
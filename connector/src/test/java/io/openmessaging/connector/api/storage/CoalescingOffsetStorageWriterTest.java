@@ -0,0 +1,231 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.api.storage;
+
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CoalescingOffsetStorageWriterTest {
+
+    private final Store store = new Store();
+
+    private static RecordPartition partition(int i) {
+        return new RecordPartition(Collections.singletonMap("queue", "q" + i));
+    }
+
+    private static RecordOffset offset(long offset) {
+        return new RecordOffset(Collections.singletonMap("offset", offset));
+    }
+
+    private static Map<RecordPartition, RecordOffset> offsets(Object... partitionOffsets) {
+        Map<RecordPartition, RecordOffset> offsets = new HashMap<>();
+        for (int i = 0; i < partitionOffsets.length; i += 2) {
+            offsets.put(partition((Integer) partitionOffsets[i]), offset((Integer) partitionOffsets[i + 1]));
+        }
+        return offsets;
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedException {
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLastWriteWins() {
+        CoalescingOffsetStorageWriter writer = new CoalescingOffsetStorageWriter(store, 60000, 100);
+        writer.writeOffset(partition(0), offset(1));
+        writer.writeOffset(partition(0), offset(2));
+        writer.writeOffset(partition(1), offset(1));
+        writer.writeOffset(offsets(0, 3, 2, 1));
+        writer.writeOffset(partition(2), null);
+        assertEquals(3, writer.pending());
+        assertTrue(store.flushed().isEmpty());
+
+        writer.flush();
+        assertEquals(Collections.singletonList(offsets(0, 3, 1, 1, 2, 1)), store.flushed());
+        assertEquals(0, writer.pending());
+        assertEquals(5, writer.getWrites());
+        assertEquals(1, writer.getFlushes());
+        assertEquals(3, writer.getFlushedOffsets());
+
+        // nothing pending, nothing written
+        writer.flush();
+        assertEquals(1, store.flushed().size());
+    }
+
+    @Test
+    public void testFlushWhenMaxPendingReached() {
+        CoalescingOffsetStorageWriter writer = new CoalescingOffsetStorageWriter(store, 60000, 3);
+        writer.writeOffset(partition(0), offset(0));
+        writer.writeOffset(partition(1), offset(0));
+        // rewriting a pending partition does not add to the pending count
+        writer.writeOffset(partition(1), offset(1));
+        assertTrue(store.flushed().isEmpty());
+        writer.writeOffset(partition(2), offset(0));
+        assertEquals(Collections.singletonList(offsets(0, 0, 1, 1, 2, 0)), store.flushed());
+        assertEquals(0, writer.pending());
+
+        writer.writeOffset(offsets(3, 0, 4, 0, 5, 0));
+        assertEquals(2, store.flushed().size());
+        assertEquals(offsets(3, 0, 4, 0, 5, 0), store.flushed().get(1));
+    }
+
+    @Test
+    public void testWriteDuringFlushKeptForNextFlush() throws InterruptedException {
+        CoalescingOffsetStorageWriter writer = new CoalescingOffsetStorageWriter(store, 60000, 100);
+        store.block();
+        writer.writeOffset(partition(0), offset(1));
+        writer.writeOffset(partition(1), offset(1));
+        Thread flusher = new Thread(writer::flush);
+        flusher.start();
+        await(store.writing);
+        // one partition moves on while its previous offset is being written, another one is new
+        writer.writeOffset(partition(0), offset(2));
+        writer.writeOffset(partition(2), offset(1));
+        store.release.countDown();
+        flusher.join();
+
+        assertEquals(Collections.singletonList(offsets(0, 1, 1, 1)), store.flushed());
+        assertEquals(2, writer.pending());
+        writer.flush();
+        assertEquals(offsets(0, 2, 2, 1), store.flushed().get(1));
+        assertEquals(0, writer.pending());
+    }
+
+    @Test
+    public void testStopFlushesPending() throws InterruptedException {
+        CoalescingOffsetStorageWriter writer = new CoalescingOffsetStorageWriter(store, 60000, 100);
+        writer.start();
+        writer.writeOffset(partition(0), offset(1));
+        writer.writeOffset(partition(0), offset(2));
+        writer.stop();
+        assertEquals(Collections.singletonList(offsets(0, 2)), store.flushed());
+        assertEquals(0, writer.pending());
+    }
+
+    @Test
+    public void testTimerFlushes() throws InterruptedException {
+        CoalescingOffsetStorageWriter writer = new CoalescingOffsetStorageWriter(store, 10, 100);
+        writer.start();
+        writer.writeOffset(partition(0), offset(1));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writer.pending() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(Collections.singletonList(offsets(0, 1)), store.flushed());
+        writer.stop();
+        assertEquals(1, store.flushed().size());
+    }
+
+    @Test
+    public void testFailedTimerFlushKeepsOffsets() throws InterruptedException {
+        RuntimeException failure = new IllegalStateException("store unavailable");
+        store.failures.set(1);
+        store.failure = failure;
+        CoalescingOffsetStorageWriter writer = new CoalescingOffsetStorageWriter(store, 10, 100);
+        writer.writeOffset(partition(0), offset(1));
+        writer.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writer.pending() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        writer.stop();
+        assertSame(failure, writer.getLastFailure());
+        assertEquals(Collections.singletonList(offsets(0, 1)), store.flushed());
+    }
+
+    @Test
+    public void testFailedFlushThrows() {
+        RuntimeException failure = new IllegalStateException("store unavailable");
+        store.failures.set(1);
+        store.failure = failure;
+        CoalescingOffsetStorageWriter writer = new CoalescingOffsetStorageWriter(store, 60000, 100);
+        writer.writeOffset(partition(0), offset(1));
+        try {
+            writer.flush();
+            fail("flushed to a failing store");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+        assertNull(writer.getLastFailure());
+        assertEquals(1, writer.pending());
+        writer.flush();
+        assertEquals(Collections.singletonList(offsets(0, 1)), store.flushed());
+    }
+
+    /**
+     * Backing store recording the offsets of each write, optionally blocking in or failing the first write.
+     */
+    private static class Store implements OffsetStorageWriter {
+
+        private final List<Map<RecordPartition, RecordOffset>> flushed = new ArrayList<>();
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger failures = new AtomicInteger();
+        volatile RuntimeException failure;
+        private volatile boolean blocking;
+
+        void block() {
+            blocking = true;
+        }
+
+        List<Map<RecordPartition, RecordOffset>> flushed() {
+            synchronized (flushed) {
+                return new ArrayList<>(flushed);
+            }
+        }
+
+        @Override
+        public void writeOffset(RecordPartition partition, RecordOffset position) {
+            writeOffset(Collections.singletonMap(partition, position));
+        }
+
+        @Override
+        public void writeOffset(Map<RecordPartition, RecordOffset> positions) {
+            Map<RecordPartition, RecordOffset> copy = new HashMap<>(positions);
+            if (blocking) {
+                blocking = false;
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failures.getAndDecrement() > 0) {
+                throw failure;
+            }
+            synchronized (flushed) {
+                flushed.add(copy);
+            }
+        }
+    }
+}
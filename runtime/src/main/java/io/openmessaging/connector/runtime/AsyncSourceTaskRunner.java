@@ -0,0 +1,387 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.KeyValue;
+import io.openmessaging.connector.api.component.task.source.SourceTask;
+import io.openmessaging.connector.api.data.ConnectRecord;
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+import io.openmessaging.connector.api.data.RecordPosition;
+import io.openmessaging.connector.api.errors.ConnectException;
+import io.openmessaging.connector.api.metrics.Meter;
+import io.openmessaging.connector.api.metrics.TaskMetrics;
+import io.openmessaging.connector.api.storage.OffsetStorageWriter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives a {@link SourceTask} through {@link SourceTask#pollAsync} without a thread of its own, so many tasks can
+ * share the threads of one scheduler.
+ * <p>
+ * Polling is demand driven: the next poll is only requested once the previous one completed and fewer than
+ * {@link WorkerConfig#getQueueCapacity()} records are sent but not acknowledged, acknowledgements request it again.
+ * An empty poll is retried after {@link WorkerConfig#getPollTimeoutMs()}. Polled records are sent in batches of up
+ * to {@link WorkerConfig#getBatchSize()} and acknowledged in send order like in {@link SourceTaskRunner}, records
+ * are committed to the task through a {@link SourceCommitCoalescer} on the commit executor. Polling also pauses while
+ * {@link WorkerConfig#getMaxPendingRecordCommits()} records wait for their commit, so acknowledging never blocks.
+ * <p>
+ * The scheduler threads never block: sends and offset writes run one at a time in order on the blocking executor, and
+ * tasks polling through the default {@link SourceTask#pollAsync} bridge poll on it as well.
+ */
+public class AsyncSourceTaskRunner {
+
+    private final String name;
+    private final SourceTask task;
+    private final Transport transport;
+    private final OffsetStorageWriter offsetStorageWriter;
+    private final WorkerConfig config;
+    private final ScheduledExecutorService scheduler;
+    private final Executor blockingExecutor;
+    /**
+     * sends and offset writes of this task in order, on the blocking executor
+     */
+    private final Executor sends;
+    private final SourceCommitCoalescer recordCommits;
+    private final TaskMetrics metrics;
+    private final Meter sentRecords;
+
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private final AtomicInteger unacknowledged = new AtomicInteger();
+    /**
+     * sends in send order, guarded by itself
+     */
+    private final Deque<InFlight> inFlight = new ArrayDeque<>();
+    /**
+     * offsets of acknowledged records, guarded by inFlight
+     */
+    private final Map<RecordPartition, RecordOffset> offsets = new HashMap<>();
+
+    /**
+     * orders stopping against polled records being counted as unacknowledged
+     */
+    private final Object lifecycle = new Object();
+    private volatile boolean running;
+    private volatile Throwable failure;
+    private ScheduledFuture<?> offsetCommits;
+
+    /**
+     * @param name task name
+     * @param task task
+     * @param transport transport the records are sent to
+     * @param offsetStorageWriter writer of the offsets of acknowledged records
+     * @param config worker config
+     * @param scheduler threads running the non-blocking work of the task
+     * @param blockingExecutor threads for the blocking calls of the task
+     * @param commitExecutor threads committing records to the task
+     * @param metrics task metrics
+     */
+    public AsyncSourceTaskRunner(String name, SourceTask task, Transport transport,
+        OffsetStorageWriter offsetStorageWriter, WorkerConfig config, ScheduledExecutorService scheduler,
+        Executor blockingExecutor, ScheduledExecutorService commitExecutor, TaskMetrics metrics) {
+        this.name = name;
+        this.task = task;
+        this.transport = transport;
+        this.offsetStorageWriter = offsetStorageWriter;
+        this.config = config;
+        this.scheduler = scheduler;
+        this.blockingExecutor = blockingExecutor;
+        this.sends = new SerialExecutor(blockingExecutor);
+        this.metrics = metrics;
+        this.sentRecords = metrics.meter("records.sent");
+        this.recordCommits = new SourceCommitCoalescer(task, commitExecutor, config.getRecordCommitBatchSize(),
+            config.getRecordCommitLingerMs(), config.getMaxPendingRecordCommits(), metrics, this::onCommitsDrained);
+    }
+
+    /**
+     * start the task and request its first poll
+     * @param taskConfig task config
+     */
+    public synchronized void start(KeyValue taskConfig) {
+        if (running) {
+            throw new ConnectException("Task " + name + " is already running");
+        }
+        task.start(taskConfig);
+        running = true;
+        long interval = config.getOffsetCommitIntervalMs();
+        offsetCommits = scheduler.scheduleWithFixedDelay(() -> sends.execute(this::commitOffsets), interval, interval,
+            TimeUnit.MILLISECONDS);
+        scheduler.execute(this::requestPoll);
+    }
+
+    /**
+     * Stop polling, wait for the sent records to be acknowledged, write their offsets and stop the task. A poll still
+     * pending is not waited for, the records it completes with are dropped.
+     *
+     * @throws InterruptedException if interrupted while waiting for acknowledgements
+     */
+    public synchronized void stop() throws InterruptedException {
+        if (offsetCommits == null) {
+            return;
+        }
+        synchronized (lifecycle) {
+            running = false;
+        }
+        long deadline = System.currentTimeMillis() + config.getShutdownTimeoutMs();
+        while (unacknowledged.get() > 0 && failure == null
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        offsetCommits.cancel(false);
+        offsetCommits = null;
+        try {
+            recordCommits.close();
+        } catch (Throwable e) {
+            fail(e);
+        }
+        // after the offset writes already queued, so none of them reaches the task once it stopped
+        CountDownLatch committed = new CountDownLatch(1);
+        Runnable finalCommit = () -> {
+            try {
+                commitOffsets();
+            } finally {
+                committed.countDown();
+            }
+        };
+        try {
+            sends.execute(finalCommit);
+        } catch (RejectedExecutionException e) {
+            finalCommit.run();
+        }
+        committed.await(config.getShutdownTimeoutMs(), TimeUnit.MILLISECONDS);
+        task.stop();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * get the error the task failed with
+     * @return error, or null
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public TaskMetrics getMetrics() {
+        return metrics;
+    }
+
+    private boolean hasDemand() {
+        return unacknowledged.get() < config.getQueueCapacity() && recordCommits.wantsMore();
+    }
+
+    private void onCommitsDrained() {
+        if (running) {
+            scheduler.execute(this::requestPoll);
+        }
+    }
+
+    private void requestPoll() {
+        if (!running || !polling.compareAndSet(false, true)) {
+            return;
+        }
+        if (!hasDemand()) {
+            polling.set(false);
+            // an acknowledgement between the check and the reset found polling still set
+            if (hasDemand()) {
+                requestPoll();
+            }
+            return;
+        }
+        long start = System.nanoTime();
+        CompletionStage<List<ConnectRecord>> stage;
+        try {
+            stage = task.pollAsync(blockingExecutor);
+        } catch (Throwable e) {
+            polling.set(false);
+            fail(e);
+            return;
+        }
+        stage.whenCompleteAsync((records, error) -> onPolled(records, error, System.nanoTime() - start), scheduler);
+    }
+
+    private void onPolled(List<ConnectRecord> records, Throwable error, long nanos) {
+        if (error != null) {
+            polling.set(false);
+            fail(error);
+            return;
+        }
+        metrics.getPollLatency().record(nanos);
+        if (records == null || records.isEmpty()) {
+            polling.set(false);
+            if (running) {
+                scheduler.schedule(this::requestPoll, config.getPollTimeoutMs(), TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+        synchronized (lifecycle) {
+            if (!running) {
+                // stopped while polling, their offsets are not written so a restarted task polls them again
+                polling.set(false);
+                return;
+            }
+            unacknowledged.addAndGet(records.size());
+        }
+        metrics.getBatchSize().record(records.size());
+        metrics.getRecords().mark(records.size());
+        int batchSize = config.getBatchSize();
+        for (int from = 0; from < records.size(); from += batchSize) {
+            send(records.subList(from, Math.min(records.size(), from + batchSize)));
+        }
+        polling.set(false);
+        requestPoll();
+    }
+
+    private void send(List<ConnectRecord> batch) {
+        InFlight sent = new InFlight(batch);
+        synchronized (inFlight) {
+            inFlight.add(sent);
+        }
+        transmit(sent);
+    }
+
+    private void transmit(InFlight sent) {
+        try {
+            sends.execute(() -> sendNow(sent));
+        } catch (RejectedExecutionException e) {
+            completed(sent, e);
+        }
+    }
+
+    /**
+     * send on the blocking executor, transports may block until they accept the records
+     */
+    private void sendNow(InFlight sent) {
+        CompletionStage<Void> stage;
+        try {
+            stage = transport.send(sent.records);
+        } catch (Throwable e) {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            stage = failed;
+        }
+        stage.whenComplete((ignored, error) -> completed(sent, error));
+    }
+
+    private void completed(InFlight sent, Throwable error) {
+        sent.error = error;
+        sent.done = true;
+        acknowledge();
+    }
+
+    /**
+     * Acknowledge the completed sends at the head, retrying a failed one.
+     */
+    private void acknowledge() {
+        int acknowledged = 0;
+        synchronized (inFlight) {
+            InFlight head;
+            while ((head = inFlight.peek()) != null && head.done) {
+                if (head.error != null) {
+                    metrics.getErrors().increment();
+                    if (head.attempts >= config.getMaxRetries()) {
+                        fail(new ConnectException("Failed to send " + head.records.size() + " records of task "
+                            + name, head.error));
+                        return;
+                    }
+                    head.attempts++;
+                    head.done = false;
+                    head.error = null;
+                    metrics.getRetries().increment();
+                    InFlight retry = head;
+                    scheduler.schedule(() -> transmit(retry), config.getRetryBackoffMs(), TimeUnit.MILLISECONDS);
+                    break;
+                }
+                inFlight.poll();
+                sentRecords.mark(head.records.size());
+                try {
+                    recordCommits.offer(head.records);
+                } catch (Throwable e) {
+                    fail(e);
+                    return;
+                }
+                for (ConnectRecord record : head.records) {
+                    RecordPosition position = record.getPosition();
+                    if (position != null && position.getPartition() != null && position.getOffset() != null) {
+                        offsets.put(position.getPartition(), position.getOffset());
+                    }
+                }
+                acknowledged += head.records.size();
+            }
+        }
+        if (acknowledged > 0) {
+            unacknowledged.addAndGet(-acknowledged);
+            requestPoll();
+        }
+    }
+
+    private void commitOffsets() {
+        Map<RecordPartition, RecordOffset> committable;
+        synchronized (inFlight) {
+            if (offsets.isEmpty()) {
+                return;
+            }
+            committable = new HashMap<>(offsets);
+            offsets.clear();
+        }
+        try {
+            long start = System.nanoTime();
+            offsetStorageWriter.writeOffset(committable);
+            task.commit();
+            metrics.getFlushLatency().record(System.nanoTime() - start);
+        } catch (Throwable e) {
+            fail(e);
+        }
+    }
+
+    private void fail(Throwable e) {
+        if (failure == null) {
+            failure = e;
+        }
+        metrics.getErrors().increment();
+        running = false;
+    }
+
+    private static final class InFlight {
+        final List<ConnectRecord> records;
+        volatile boolean done;
+        volatile Throwable error;
+        int attempts;
+
+        InFlight(List<ConnectRecord> records) {
+            this.records = records;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.connector.api.component.connector.ConnectorContext;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Connector context recording the requests of a connector for the worker to act on.
+ */
+public class DefaultConnectorContext implements ConnectorContext {
+
+    private final String connectorName;
+    private final AtomicBoolean reconfigurationRequested = new AtomicBoolean();
+    private final AtomicReference<Exception> error = new AtomicReference<>();
+
+    public DefaultConnectorContext(String connectorName) {
+        this.connectorName = connectorName;
+    }
+
+    public String getConnectorName() {
+        return connectorName;
+    }
+
+    @Override
+    public void requestTaskReconfiguration() {
+        reconfigurationRequested.set(true);
+    }
+
+    /**
+     * get and clear the reconfiguration request
+     * @return true if the connector requested a reconfiguration since the last call
+     */
+    public boolean pollReconfigurationRequest() {
+        return reconfigurationRequested.getAndSet(false);
+    }
+
+    @Override
+    public void raiseError(Exception e) {
+        error.compareAndSet(null, e);
+    }
+
+    /**
+     * get the first error raised by the connector
+     * @return error, or null
+     */
+    public Exception getError() {
+        return error.get();
+    }
+}
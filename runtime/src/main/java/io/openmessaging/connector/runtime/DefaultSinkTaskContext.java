@@ -0,0 +1,136 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.KeyValue;
+import io.openmessaging.connector.api.component.task.sink.ErrorRecordReporter;
+import io.openmessaging.connector.api.component.task.sink.SinkTaskContext;
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+import io.openmessaging.connector.api.metrics.TaskMetrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sink task context of the embedded worker. Offset resets and pauses requested by the task are recorded here and
+ * applied by the {@link SinkTaskRunner} between two deliveries.
+ */
+public class DefaultSinkTaskContext implements SinkTaskContext {
+
+    private final String connectorName;
+    private final String taskName;
+    private final KeyValue configs;
+    private final ErrorRecordReporter errorRecordReporter;
+    private final TaskMetrics metrics;
+
+    private final Set<RecordPartition> assignment = ConcurrentHashMap.newKeySet();
+    private final Set<RecordPartition> paused = ConcurrentHashMap.newKeySet();
+    private final Map<RecordPartition, RecordOffset> offsetResets = new HashMap<>();
+
+    public DefaultSinkTaskContext(String connectorName, String taskName, KeyValue configs,
+        ErrorRecordReporter errorRecordReporter, TaskMetrics metrics) {
+        this.connectorName = connectorName;
+        this.taskName = taskName;
+        this.configs = configs;
+        this.errorRecordReporter = errorRecordReporter;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getConnectorName() {
+        return connectorName;
+    }
+
+    @Override
+    public String getTaskName() {
+        return taskName;
+    }
+
+    @Override
+    public KeyValue configs() {
+        return configs;
+    }
+
+    @Override
+    public void resetOffset(RecordPartition recordPartition, RecordOffset recordOffset) {
+        synchronized (offsetResets) {
+            offsetResets.put(recordPartition, recordOffset);
+        }
+    }
+
+    @Override
+    public void resetOffset(Map<RecordPartition, RecordOffset> offsets) {
+        synchronized (offsetResets) {
+            offsetResets.putAll(offsets);
+        }
+    }
+
+    /**
+     * get and clear the offset resets requested since the last call
+     * @return offsets by partition
+     */
+    Map<RecordPartition, RecordOffset> drainOffsetResets() {
+        synchronized (offsetResets) {
+            if (offsetResets.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            Map<RecordPartition, RecordOffset> resets = new HashMap<>(offsetResets);
+            offsetResets.clear();
+            return resets;
+        }
+    }
+
+    @Override
+    public void pause(List<RecordPartition> partitions) {
+        paused.addAll(partitions);
+    }
+
+    @Override
+    public void resume(List<RecordPartition> partitions) {
+        paused.removeAll(partitions);
+    }
+
+    boolean isPaused(RecordPartition partition) {
+        return !paused.isEmpty() && partition != null && paused.contains(partition);
+    }
+
+    @Override
+    public Set<RecordPartition> assignment() {
+        return Collections.unmodifiableSet(assignment);
+    }
+
+    /**
+     * record a partition the task received records of
+     * @param partition
+     */
+    void assign(RecordPartition partition) {
+        assignment.add(partition);
+    }
+
+    @Override
+    public ErrorRecordReporter errorRecordReporter() {
+        return errorRecordReporter;
+    }
+
+    @Override
+    public TaskMetrics metrics() {
+        return metrics;
+    }
+}
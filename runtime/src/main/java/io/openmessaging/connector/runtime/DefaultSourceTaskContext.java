@@ -0,0 +1,66 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.KeyValue;
+import io.openmessaging.connector.api.component.task.source.SourceTaskContext;
+import io.openmessaging.connector.api.metrics.TaskMetrics;
+import io.openmessaging.connector.api.storage.OffsetStorageReader;
+
+/**
+ * Source task context of the embedded worker.
+ */
+public class DefaultSourceTaskContext implements SourceTaskContext {
+
+    private final String connectorName;
+    private final String taskName;
+    private final KeyValue configs;
+    private final OffsetStorageReader offsetStorageReader;
+    private final TaskMetrics metrics;
+
+    public DefaultSourceTaskContext(String connectorName, String taskName, KeyValue configs,
+        OffsetStorageReader offsetStorageReader, TaskMetrics metrics) {
+        this.connectorName = connectorName;
+        this.taskName = taskName;
+        this.configs = configs;
+        this.offsetStorageReader = offsetStorageReader;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public OffsetStorageReader offsetStorageReader() {
+        return offsetStorageReader;
+    }
+
+    @Override
+    public String getConnectorName() {
+        return connectorName;
+    }
+
+    @Override
+    public String getTaskName() {
+        return taskName;
+    }
+
+    @Override
+    public KeyValue configs() {
+        return configs;
+    }
+
+    @Override
+    public TaskMetrics metrics() {
+        return metrics;
+    }
+}
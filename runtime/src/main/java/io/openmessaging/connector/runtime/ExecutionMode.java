@@ -0,0 +1,40 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+/**
+ * Kind of threads the poll, send and put loops of tasks run on.
+ */
+public enum ExecutionMode {
+
+    /**
+     * one platform thread per loop
+     */
+    PLATFORM,
+
+    /**
+     * one virtual thread per loop on JDK 21 and later, platform threads on older JDKs
+     */
+    VIRTUAL;
+
+    /**
+     * Whether this mode runs on threads of its own kind on this JVM.
+     *
+     * @return false for {@link #VIRTUAL} if it falls back to platform threads
+     */
+    public boolean isAvailable() {
+        return this == PLATFORM || TaskThreads.isVirtualSupported();
+    }
+}
@@ -0,0 +1,698 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+import io.openmessaging.connector.api.errors.ConnectException;
+import io.openmessaging.connector.api.storage.OffsetStorageReader;
+import io.openmessaging.connector.api.storage.OffsetStorageWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Offset storage in a directory of append-only log segments, for standalone workers without a key value store.
+ * <p>
+ * Every write appends an entry {@code [length][crc32][partition][offset]} to the memory mapped active segment and
+ * updates an in-memory index of the latest offset per partition, reads are served from the index. A full segment is
+ * sealed and a new one started. Opening the store replays the segments in order, a torn or corrupt entry at the end
+ * of a segment, left by a crash in the middle of a write, ends its replay and is overwritten by the next write.
+ * <p>
+ * Writes reach the page cache and survive a crash of the process. With {@code sync} every write call also forces
+ * the segment to the device, to survive a crash of the machine at the cost of throughput.
+ * <p>
+ * Once more than half of the bytes of the sealed segments are superseded, a background compaction writes the
+ * latest entries of the sealed segments to a temporary file and atomically renames it over the newest of them, then
+ * syncs the directory before deleting the others. A crash in between leaves segments a later compaction collapses
+ * again, replaying them is harmless since the compacted segment comes after them. Files in the directory whose name
+ * is not a segment id are ignored.
+ * <p>
+ * Partitions and offsets may hold null, strings, booleans, bytes, byte arrays and boxed integral and floating point
+ * numbers. Null offsets are ignored.
+ */
+public class FileOffsetStore implements OffsetStorageReader, OffsetStorageWriter, Closeable {
+
+    public static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+    public static final long DEFAULT_COMPACTION_INTERVAL_MS = 10000;
+
+    private static final String SUFFIX = ".log";
+    private static final String COMPACT_SUFFIX = ".compact";
+    /**
+     * length and crc of an entry
+     */
+    private static final int HEADER_BYTES = 8;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean sync;
+
+    private final Map<RecordPartition, Slot> index = new ConcurrentHashMap<>();
+    /**
+     * segments by id, the last one is active, guarded by this
+     */
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    /**
+     * guarded by this
+     */
+    private final Encoder encoder = new Encoder();
+    private Segment active;
+    private MappedByteBuffer buffer;
+    private FileChannel channel;
+    private boolean closed;
+
+    private final ScheduledExecutorService compactor;
+
+    public FileOffsetStore(Path directory) {
+        this(directory, DEFAULT_SEGMENT_BYTES, false, DEFAULT_COMPACTION_INTERVAL_MS);
+    }
+
+    /**
+     * Open the store, replaying the segments found in the directory.
+     *
+     * @param directory directory of the segments, created if missing
+     * @param segmentBytes size of a segment
+     * @param sync whether each write call is forced to the device
+     * @param compactionIntervalMs interval of compaction checks, 0 to only compact through {@link #compact()}
+     */
+    public FileOffsetStore(Path directory, int segmentBytes, boolean sync, long compactionIntervalMs) {
+        if (segmentBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("segmentBytes too small: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.sync = sync;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new ConnectException("Cannot open offset store " + directory, e);
+        }
+        if (compactionIntervalMs > 0) {
+            compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "offset-store-compaction");
+                thread.setDaemon(true);
+                return thread;
+            });
+            compactor.scheduleWithFixedDelay(this::compactQuietly, compactionIntervalMs, compactionIntervalMs,
+                TimeUnit.MILLISECONDS);
+        } else {
+            compactor = null;
+        }
+    }
+
+    @Override
+    public RecordOffset readOffset(RecordPartition partition) {
+        Slot slot = index.get(partition);
+        return slot == null ? null : slot.offset;
+    }
+
+    @Override
+    public Map<RecordPartition, RecordOffset> readOffsets(Collection<RecordPartition> partitions) {
+        Map<RecordPartition, RecordOffset> result = new HashMap<>();
+        for (RecordPartition partition : partitions) {
+            Slot slot = index.get(partition);
+            if (slot != null) {
+                result.put(partition, slot.offset);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void writeOffset(RecordPartition partition, RecordOffset position) {
+        if (position == null) {
+            return;
+        }
+        append(partition, position);
+        force();
+    }
+
+    @Override
+    public synchronized void writeOffset(Map<RecordPartition, RecordOffset> positions) {
+        boolean written = false;
+        for (Map.Entry<RecordPartition, RecordOffset> entry : positions.entrySet()) {
+            if (entry.getValue() != null) {
+                append(entry.getKey(), entry.getValue());
+                written = true;
+            }
+        }
+        if (written) {
+            force();
+        }
+    }
+
+    /**
+     * get the number of partitions with an offset
+     * @return
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * get the number of segment files
+     * @return
+     */
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Compact the sealed segments if more than half of their bytes are superseded.
+     *
+     * @return true if segments were compacted
+     * @throws IOException if writing the compacted segment failed
+     */
+    public boolean compact() throws IOException {
+        List<Long> sealed;
+        List<Map.Entry<RecordPartition, Slot>> live = new ArrayList<>();
+        synchronized (this) {
+            if (closed || segments.size() < 2) {
+                return false;
+            }
+            long bytes = 0;
+            long liveBytes = 0;
+            sealed = new ArrayList<>(segments.headMap(active.id).keySet());
+            for (Long id : sealed) {
+                bytes += segments.get(id).bytes;
+                liveBytes += segments.get(id).liveBytes;
+            }
+            if (liveBytes * 2 >= bytes) {
+                return false;
+            }
+            long last = sealed.get(sealed.size() - 1);
+            for (Map.Entry<RecordPartition, Slot> entry : index.entrySet()) {
+                if (entry.getValue().segment <= last) {
+                    live.add(entry);
+                }
+            }
+        }
+        long target = sealed.get(sealed.size() - 1);
+        Path temporary = directory.resolve(fileName(target) + COMPACT_SUFFIX);
+        Encoder compactionEncoder = new Encoder();
+        long written = 0;
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer chunk = ByteBuffer.allocate(64 * 1024);
+            for (Map.Entry<RecordPartition, Slot> entry : live) {
+                ByteBuffer encoded = compactionEncoder.encode(entry.getKey(), entry.getValue().offset);
+                if (encoded.remaining() > chunk.remaining()) {
+                    chunk.flip();
+                    written += writeFully(out, chunk);
+                    chunk.clear();
+                    if (encoded.remaining() > chunk.capacity()) {
+                        written += writeFully(out, encoded);
+                        continue;
+                    }
+                }
+                chunk.put(encoded);
+            }
+            chunk.flip();
+            written += writeFully(out, chunk);
+            out.force(true);
+        }
+        synchronized (this) {
+            if (closed) {
+                Files.deleteIfExists(temporary);
+                return false;
+            }
+            Files.move(temporary, directory.resolve(fileName(target)), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+            // the rename has to be durable before the segments it replaces are gone
+            syncDirectory();
+            for (Long id : sealed) {
+                segments.remove(id);
+                if (id != target) {
+                    Files.deleteIfExists(directory.resolve(fileName(id)));
+                }
+            }
+            Segment compacted = new Segment(target);
+            compacted.bytes = written;
+            for (Slot slot : index.values()) {
+                if (slot.segment <= target) {
+                    slot.segment = target;
+                    compacted.liveBytes += slot.size;
+                }
+            }
+            segments.put(target, compacted);
+        }
+        return true;
+    }
+
+    /**
+     * Stop compacting and force the active segment to the device.
+     */
+    @Override
+    public void close() {
+        if (compactor != null) {
+            compactor.shutdown();
+            try {
+                compactor.awaitTermination(DEFAULT_COMPACTION_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.force();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new ConnectException("Cannot close offset store " + directory, e);
+            }
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (Throwable e) {
+            // keep the segments, the next check retries
+        }
+    }
+
+    private void append(RecordPartition partition, RecordOffset offset) {
+        if (closed) {
+            throw new ConnectException("Offset store " + directory + " is closed");
+        }
+        ByteBuffer entry = encoder.encode(partition, offset);
+        int size = entry.remaining();
+        if (size > segmentBytes) {
+            throw new ConnectException("Offset entry of " + size + " bytes exceeds the segment size " + segmentBytes);
+        }
+        if (size > buffer.remaining()) {
+            roll();
+        }
+        buffer.put(entry);
+        active.bytes += size;
+        active.liveBytes += size;
+        Slot previous = index.put(partition, new Slot(offset, active.id, size));
+        if (previous != null) {
+            segments.get(previous.segment).liveBytes -= previous.size;
+        }
+    }
+
+    private void force() {
+        if (sync) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * seal the active segment and start the next one
+     */
+    private void roll() {
+        try {
+            buffer.force();
+            channel.close();
+            openActive(active.id + 1);
+        } catch (IOException e) {
+            throw new ConnectException("Cannot roll offset store segment in " + directory, e);
+        }
+    }
+
+    private void openActive(long id) throws IOException {
+        Segment segment = segments.get(id);
+        if (segment == null) {
+            segment = new Segment(id);
+            segments.put(id, segment);
+        }
+        Path path = directory.resolve(fileName(id));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, channel.size()));
+        buffer.position((int) segment.bytes);
+        active = segment;
+    }
+
+    private void recover() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SUFFIX + COMPACT_SUFFIX)) {
+                    // left by a compaction that did not finish
+                    Files.delete(file);
+                } else if (name.endsWith(SUFFIX)) {
+                    Long id = segmentId(name);
+                    if (id != null) {
+                        ids.add(id);
+                    }
+                }
+            }
+        }
+        Collections.sort(ids);
+        for (Long id : ids) {
+            Segment segment = new Segment(id);
+            segments.put(id, segment);
+            try (FileChannel in = FileChannel.open(directory.resolve(fileName(id)), StandardOpenOption.READ)) {
+                replay(segment, in.map(FileChannel.MapMode.READ_ONLY, 0, in.size()));
+            }
+        }
+        openActive(ids.isEmpty() ? 0 : ids.get(ids.size() - 1));
+        // clear what follows the last valid entry, so no stale entry is replayed after the next writes
+        int i = buffer.position();
+        for (; i + 8 <= buffer.limit(); i += 8) {
+            if (buffer.getLong(i) != 0) {
+                buffer.putLong(i, 0L);
+            }
+        }
+        for (; i < buffer.limit(); i++) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    /**
+     * read the entries of a segment into the index, up to the first torn or corrupt one
+     */
+    private void replay(Segment segment, ByteBuffer in) {
+        CRC32 crc = new CRC32();
+        while (in.remaining() >= HEADER_BYTES) {
+            int start = in.position();
+            int length = in.getInt();
+            int checksum = in.getInt();
+            if (length <= 0 || length > in.remaining()) {
+                break;
+            }
+            ByteBuffer payload = in.slice();
+            payload.limit(length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            RecordPartition partition;
+            RecordOffset offset;
+            try {
+                partition = new RecordPartition(Decoder.readMap(payload));
+                offset = new RecordOffset(Decoder.readMap(payload));
+            } catch (RuntimeException e) {
+                break;
+            }
+            in.position(start + HEADER_BYTES + length);
+            int size = HEADER_BYTES + length;
+            segment.bytes += size;
+            segment.liveBytes += size;
+            Slot previous = index.put(partition, new Slot(offset, segment.id, size));
+            if (previous != null) {
+                segments.get(previous.segment).liveBytes -= previous.size;
+            }
+        }
+    }
+
+    /**
+     * Force the entries of the directory to the device. Platforms that cannot open a directory, like Windows, order
+     * renames on their own and are skipped.
+     */
+    private void syncDirectory() throws IOException {
+        FileChannel dir;
+        try {
+            dir = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (FileChannel opened = dir) {
+            opened.force(true);
+        }
+    }
+
+    /**
+     * @return the id of a segment file name, null if the name is not one of a segment
+     */
+    private static Long segmentId(String name) {
+        String id = name.substring(0, name.length() - SUFFIX.length());
+        if (id.isEmpty()) {
+            return null;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            if (id.charAt(i) < '0' || id.charAt(i) > '9') {
+                return null;
+            }
+        }
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            // too many digits
+            return null;
+        }
+    }
+
+    private static int writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        int written = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        return written;
+    }
+
+    private static String fileName(long id) {
+        return String.format("%020d", id) + SUFFIX;
+    }
+
+    /**
+     * latest offset of a partition and the segment holding it
+     */
+    private static final class Slot {
+        final RecordOffset offset;
+        final int size;
+        volatile long segment;
+
+        Slot(RecordOffset offset, long segment, int size) {
+            this.offset = offset;
+            this.segment = segment;
+            this.size = size;
+        }
+    }
+
+    private static final class Segment {
+        final long id;
+        /**
+         * bytes of the entries
+         */
+        long bytes;
+        /**
+         * bytes of the entries still holding the latest offset of their partition
+         */
+        long liveBytes;
+
+        Segment(long id) {
+            this.id = id;
+        }
+    }
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte FLOAT = 5;
+    private static final byte BOOLEAN = 6;
+    private static final byte BYTES = 7;
+    private static final byte SHORT = 8;
+    private static final byte BYTE = 9;
+
+    /**
+     * Encodes entries into a reused buffer, not thread safe.
+     */
+    private static final class Encoder {
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer buffer = ByteBuffer.allocate(256);
+
+        /**
+         * @return the entry, valid until the next call
+         */
+        ByteBuffer encode(RecordPartition partition, RecordOffset offset) {
+            buffer.clear();
+            buffer.position(HEADER_BYTES);
+            writeMap(partition.getPartition());
+            writeMap(offset.getOffset());
+            int length = buffer.position() - HEADER_BYTES;
+            crc.reset();
+            ByteBuffer payload = buffer.duplicate();
+            payload.flip();
+            payload.position(HEADER_BYTES);
+            crc.update(payload);
+            buffer.putInt(0, length);
+            buffer.putInt(4, (int) crc.getValue());
+            buffer.flip();
+            return buffer;
+        }
+
+        private void writeMap(Map<String, ?> map) {
+            if (map == null) {
+                writeVarInt(0);
+                return;
+            }
+            writeVarInt(map.size());
+            for (Map.Entry<String, ?> entry : map.entrySet()) {
+                writeString(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        }
+
+        private void writeValue(Object value) {
+            ensure(9);
+            if (value == null) {
+                buffer.put(NULL);
+            } else if (value instanceof String) {
+                buffer.put(STRING);
+                writeString((String) value);
+            } else if (value instanceof Long) {
+                buffer.put(LONG).putLong((Long) value);
+            } else if (value instanceof Integer) {
+                buffer.put(INT).putInt((Integer) value);
+            } else if (value instanceof Double) {
+                buffer.put(DOUBLE).putDouble((Double) value);
+            } else if (value instanceof Float) {
+                buffer.put(FLOAT).putFloat((Float) value);
+            } else if (value instanceof Boolean) {
+                buffer.put(BOOLEAN).put((byte) ((Boolean) value ? 1 : 0));
+            } else if (value instanceof Short) {
+                buffer.put(SHORT).putShort((Short) value);
+            } else if (value instanceof Byte) {
+                buffer.put(BYTE).put((Byte) value);
+            } else if (value instanceof byte[]) {
+                byte[] bytes = (byte[]) value;
+                buffer.put(BYTES);
+                writeVarInt(bytes.length);
+                ensure(bytes.length);
+                buffer.put(bytes);
+            } else {
+                throw new ConnectException("Unsupported offset value type " + value.getClass().getName());
+            }
+        }
+
+        private void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        private void writeVarInt(int value) {
+            ensure(5);
+            while ((value & ~0x7f) != 0) {
+                buffer.put((byte) ((value & 0x7f) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() << 1, buffer.position() + bytes));
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+        }
+    }
+
+    private static final class Decoder {
+
+        static Map<String, Object> readMap(ByteBuffer in) {
+            int size = readVarInt(in);
+            Map<String, Object> map = new LinkedHashMap<>(size * 4 / 3 + 1);
+            for (int i = 0; i < size; i++) {
+                map.put(readString(in), readValue(in));
+            }
+            return map;
+        }
+
+        private static Object readValue(ByteBuffer in) {
+            byte type = in.get();
+            switch (type) {
+                case NULL:
+                    return null;
+                case STRING:
+                    return readString(in);
+                case LONG:
+                    return in.getLong();
+                case INT:
+                    return in.getInt();
+                case DOUBLE:
+                    return in.getDouble();
+                case FLOAT:
+                    return in.getFloat();
+                case BOOLEAN:
+                    return in.get() != 0;
+                case SHORT:
+                    return in.getShort();
+                case BYTE:
+                    return in.get();
+                case BYTES:
+                    byte[] bytes = new byte[readVarInt(in)];
+                    in.get(bytes);
+                    return bytes;
+                default:
+                    throw new IllegalStateException("Unknown value type " + type);
+            }
+        }
+
+        private static String readString(ByteBuffer in) {
+            int length = readVarInt(in);
+            if (in.hasArray()) {
+                String value = new String(in.array(), in.arrayOffset() + in.position(), length,
+                    StandardCharsets.UTF_8);
+                in.position(in.position() + length);
+                return value;
+            }
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static int readVarInt(ByteBuffer in) {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = in.get();
+                value |= (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    if (value < 0) {
+                        throw new IllegalStateException("Negative length " + value);
+                    }
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Malformed varint");
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.connector.api.data.ConnectRecord;
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A transport keeping records in a bounded in-process queue, for tests and end-to-end benchmarks of connectors
+ * without a broker.
+ * <p>
+ * Batches are queued as a whole, so handing over a batch takes the lock once whatever its size. {@link #send(List)}
+ * blocks while the queue holds capacity records, which throttles the sending source to the pace of the receiving
+ * sink. A batch larger than the capacity is accepted once the queue is empty. Committed offsets are kept and can be
+ * inspected through {@link #committedOffsets()}.
+ */
+public class InMemoryTransport implements Transport {
+
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    /**
+     * queued batches, guarded by lock
+     */
+    private final Deque<List<ConnectRecord>> batches = new ArrayDeque<>();
+    private int size;
+
+    private final Map<RecordPartition, RecordOffset> committed = new ConcurrentHashMap<>();
+
+    public InMemoryTransport(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public CompletionStage<Void> send(List<ConnectRecord> records) {
+        if (records.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        lock.lock();
+        try {
+            while (size > 0 && size + records.size() > capacity) {
+                notFull.await();
+            }
+            // copied, the sender keeps its batch for retries
+            batches.add(new ArrayList<>(records));
+            size += records.size();
+            notEmpty.signal();
+            return CompletableFuture.completedFuture(null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<ConnectRecord> receive(int maxRecords, long timeout, TimeUnit unit) throws InterruptedException {
+        List<ConnectRecord> records;
+        lock.lock();
+        try {
+            long nanos = unit.toNanos(timeout);
+            while (size == 0) {
+                if (nanos <= 0) {
+                    return Collections.emptyList();
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            List<ConnectRecord> head = batches.peek();
+            if (head.size() >= maxRecords || batches.size() == 1) {
+                // the common case: hand over a whole batch, or the first part of it
+                if (head.size() <= maxRecords) {
+                    records = batches.poll();
+                } else {
+                    records = new ArrayList<>(head.subList(0, maxRecords));
+                    batches.poll();
+                    batches.addFirst(new ArrayList<>(head.subList(maxRecords, head.size())));
+                }
+            } else {
+                records = new ArrayList<>(Math.min(maxRecords, size));
+                List<ConnectRecord> batch;
+                while ((batch = batches.peek()) != null && records.size() + batch.size() <= maxRecords) {
+                    records.addAll(batches.poll());
+                }
+            }
+            size -= records.size();
+            notFull.signalAll();
+            if (size > 0) {
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return records;
+    }
+
+    @Override
+    public void commit(Map<RecordPartition, RecordOffset> offsets) {
+        committed.putAll(offsets);
+    }
+
+    /**
+     * get the number of records waiting to be received
+     * @return
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<RecordPartition, RecordOffset> committedOffsets() {
+        return Collections.unmodifiableMap(committed);
+    }
+}
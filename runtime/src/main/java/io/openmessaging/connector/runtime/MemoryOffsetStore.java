@@ -0,0 +1,64 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+import io.openmessaging.connector.api.storage.OffsetStorageReader;
+import io.openmessaging.connector.api.storage.OffsetStorageWriter;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Offset storage kept in memory, offsets are lost when the worker stops.
+ */
+public class MemoryOffsetStore implements OffsetStorageReader, OffsetStorageWriter {
+
+    private final Map<RecordPartition, RecordOffset> offsets = new ConcurrentHashMap<>();
+
+    @Override
+    public RecordOffset readOffset(RecordPartition partition) {
+        return offsets.get(partition);
+    }
+
+    @Override
+    public Map<RecordPartition, RecordOffset> readOffsets(Collection<RecordPartition> partitions) {
+        Map<RecordPartition, RecordOffset> result = new HashMap<>();
+        for (RecordPartition partition : partitions) {
+            RecordOffset offset = offsets.get(partition);
+            if (offset != null) {
+                result.put(partition, offset);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void writeOffset(RecordPartition partition, RecordOffset position) {
+        offsets.put(partition, position);
+    }
+
+    @Override
+    public void writeOffset(Map<RecordPartition, RecordOffset> positions) {
+        offsets.putAll(positions);
+    }
+
+    public int size() {
+        return offsets.size();
+    }
+}
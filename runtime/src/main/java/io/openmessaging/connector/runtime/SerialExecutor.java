@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs tasks one at a time in submission order on the threads of another executor, so the calls of one runner keep
+ * their order while many runners share the threads.
+ */
+final class SerialExecutor implements Executor {
+
+    private final Executor executor;
+    /**
+     * tasks not started yet, guarded by this
+     */
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    /**
+     * whether a thread of the executor runs the tasks, guarded by this
+     */
+    private boolean active;
+
+    SerialExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public synchronized void execute(Runnable task) {
+        tasks.add(task);
+        if (!active) {
+            try {
+                executor.execute(this::drain);
+                active = true;
+            } catch (RejectedExecutionException e) {
+                tasks.remove(task);
+                throw e;
+            }
+        }
+    }
+
+    private synchronized Runnable next() {
+        Runnable task = tasks.poll();
+        if (task == null) {
+            active = false;
+        }
+        return task;
+    }
+
+    private void drain() {
+        Runnable task;
+        while ((task = next()) != null) {
+            boolean completed = false;
+            try {
+                task.run();
+                completed = true;
+            } finally {
+                if (!completed) {
+                    // the error propagates to this thread, the remaining tasks continue on another one
+                    executor.execute(this::drain);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.KeyValue;
+import io.openmessaging.connector.api.component.task.sink.SinkTask;
+import io.openmessaging.connector.api.data.ConnectRecord;
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+import io.openmessaging.connector.api.data.RecordPosition;
+import io.openmessaging.connector.api.errors.ConnectException;
+import io.openmessaging.connector.api.errors.RetriableException;
+import io.openmessaging.connector.api.metrics.TaskMetrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a {@link SinkTask} on a dedicated thread of the {@link WorkerConfig#getExecutionMode()}: records are
+ * received from the {@link Transport} in batches of up to {@link WorkerConfig#getBatchSize()} and handed to
+ * {@link SinkTask#put(List)}.
+ * <p>
+ * Records of partitions paused through the {@link DefaultSinkTaskContext} are held back and delivered once the
+ * partition is resumed, receiving stops while {@link WorkerConfig#getQueueCapacity()} records are held. Resetting the
+ * offset of a partition drops its held records and makes the reset offset the one committed next, before the
+ * transport seeks. A put
+ * failing with a {@link RetriableException} is retried with the same records. Every
+ * {@link WorkerConfig#getOffsetCommitIntervalMs()} and on stop the offsets of the delivered records are passed
+ * through {@link SinkTask#preCommit(Map)} and the returned ones committed to the transport.
+ */
+public class SinkTaskRunner {
+
+    private final String name;
+    private final SinkTask task;
+    private final DefaultSinkTaskContext context;
+    private final Transport transport;
+    private final WorkerConfig config;
+    private final TaskMetrics metrics;
+
+    private final Map<RecordPartition, RecordOffset> currentOffsets = new HashMap<>();
+    private final Map<RecordPartition, List<ConnectRecord>> held = new LinkedHashMap<>();
+    private int heldCount;
+
+    private volatile boolean running;
+    private volatile Throwable failure;
+    private Thread thread;
+
+    public SinkTaskRunner(String name, SinkTask task, DefaultSinkTaskContext context, Transport transport,
+        WorkerConfig config, TaskMetrics metrics) {
+        this.name = name;
+        this.task = task;
+        this.context = context;
+        this.transport = transport;
+        this.config = config;
+        this.metrics = metrics;
+    }
+
+    /**
+     * start the task and its thread
+     * @param taskConfig task config
+     */
+    public synchronized void start(KeyValue taskConfig) {
+        if (running) {
+            throw new ConnectException("Task " + name + " is already running");
+        }
+        task.start(taskConfig);
+        running = true;
+        thread = TaskThreads.newThread(config.getExecutionMode(), this::run, name + "-put");
+        thread.start();
+    }
+
+    /**
+     * Stop receiving, commit the offsets of the delivered records and stop the task once the loop exited.
+     *
+     * @throws InterruptedException if interrupted while waiting for the thread
+     */
+    public synchronized void stop() throws InterruptedException {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        TaskThreads.join(thread, config.getShutdownTimeoutMs());
+        thread = null;
+        task.stop();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * get the error the task failed with
+     * @return error, or null
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public TaskMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void run() {
+        long nextCommit = System.currentTimeMillis() + config.getOffsetCommitIntervalMs();
+        try {
+            while (running) {
+                Map<RecordPartition, RecordOffset> resets = context.drainOffsetResets();
+                if (!resets.isEmpty()) {
+                    dropHeld(resets.keySet());
+                    // the next commit must not go past the new position
+                    currentOffsets.putAll(resets);
+                    transport.seek(resets);
+                }
+                List<ConnectRecord> records = releaseHeld();
+                if (heldCount < config.getQueueCapacity()) {
+                    for (ConnectRecord record : transport.receive(config.getBatchSize(), config.getPollTimeoutMs(),
+                        TimeUnit.MILLISECONDS)) {
+                        RecordPartition partition = partitionOf(record);
+                        if (context.isPaused(partition)) {
+                            held.computeIfAbsent(partition, key -> new ArrayList<>()).add(record);
+                            heldCount++;
+                        } else {
+                            records.add(record);
+                        }
+                    }
+                } else if (records.isEmpty()) {
+                    Thread.sleep(config.getPollTimeoutMs());
+                }
+                if (!records.isEmpty()) {
+                    put(records);
+                }
+                if (System.currentTimeMillis() >= nextCommit) {
+                    commitOffsets();
+                    nextCommit = System.currentTimeMillis() + config.getOffsetCommitIntervalMs();
+                }
+            }
+            commitOffsets();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            if (failure == null) {
+                failure = e;
+            }
+            metrics.getErrors().increment();
+            running = false;
+        }
+    }
+
+    /**
+     * take the held records of partitions resumed since
+     */
+    private List<ConnectRecord> releaseHeld() {
+        List<ConnectRecord> records = new ArrayList<>();
+        if (held.isEmpty()) {
+            return records;
+        }
+        for (Iterator<Map.Entry<RecordPartition, List<ConnectRecord>>> it = held.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<RecordPartition, List<ConnectRecord>> entry = it.next();
+            if (!context.isPaused(entry.getKey())) {
+                records.addAll(entry.getValue());
+                heldCount -= entry.getValue().size();
+                it.remove();
+            }
+        }
+        return records;
+    }
+
+    /**
+     * drop the held records of partitions that are repositioned, they are received again from the new offset
+     */
+    private void dropHeld(Set<RecordPartition> partitions) {
+        for (RecordPartition partition : partitions) {
+            List<ConnectRecord> dropped = held.remove(partition);
+            if (dropped != null) {
+                heldCount -= dropped.size();
+            }
+        }
+    }
+
+    private void put(List<ConnectRecord> records) throws InterruptedException {
+        int attempts = 0;
+        while (true) {
+            long start = System.nanoTime();
+            try {
+                task.put(records);
+                metrics.getPutLatency().record(System.nanoTime() - start);
+                metrics.getBatchSize().record(records.size());
+                metrics.getRecords().mark(records.size());
+                break;
+            } catch (RetriableException e) {
+                metrics.getErrors().increment();
+                if (attempts++ >= config.getMaxRetries()) {
+                    throw e;
+                }
+                metrics.getRetries().increment();
+                Thread.sleep(config.getRetryBackoffMs());
+            }
+        }
+        for (ConnectRecord record : records) {
+            RecordPosition position = record.getPosition();
+            if (position != null && position.getPartition() != null && position.getOffset() != null) {
+                if (currentOffsets.put(position.getPartition(), position.getOffset()) == null) {
+                    context.assign(position.getPartition());
+                }
+            }
+        }
+    }
+
+    private void commitOffsets() {
+        if (currentOffsets.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<RecordPartition, RecordOffset> committable = task.preCommit(new HashMap<>(currentOffsets));
+        metrics.getFlushLatency().record(System.nanoTime() - start);
+        if (committable != null && !committable.isEmpty()) {
+            start = System.nanoTime();
+            transport.commit(committable);
+            metrics.getCommitLatency().record(System.nanoTime() - start);
+        }
+    }
+
+    private static RecordPartition partitionOf(ConnectRecord record) {
+        RecordPosition position = record.getPosition();
+        return position == null ? null : position.getPartition();
+    }
+}
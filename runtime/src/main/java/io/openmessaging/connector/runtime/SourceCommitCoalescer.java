@@ -0,0 +1,273 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.connector.api.component.task.source.SourceTask;
+import io.openmessaging.connector.api.data.ConnectRecord;
+import io.openmessaging.connector.api.errors.ConnectException;
+import io.openmessaging.connector.api.metrics.TaskMetrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gathers acknowledged records of a {@link SourceTask} and hands them to {@link SourceTask#commit(List, java.util.Map)}
+ * in batches on an executor thread, so sources acknowledging upstream pay one round-trip per batch instead of one
+ * per record.
+ * <p>
+ * A batch is committed once {@code batchSize} records are acknowledged or {@code lingerMs} after the first of them,
+ * whichever comes first. Batches are committed one at a time in acknowledgement order, so the records of a partition
+ * reach the task in the order they were acknowledged. {@link #acknowledge(List)} blocks while {@code maxPending}
+ * records wait for a commit, which bounds the commit lag when the task commits slower than records are sent. Callers
+ * that must not block use {@link #offer(List)} instead and stop producing records while {@link #wantsMore()} is
+ * false, the drain listener tells them when a commit made room again.
+ * <p>
+ * If the task fails to commit, the error is kept and rethrown by the next {@link #acknowledge(List)}.
+ */
+public class SourceCommitCoalescer {
+
+    private final SourceTask task;
+    private final ScheduledExecutorService executor;
+    private final int batchSize;
+    private final long lingerMs;
+    private final int maxPending;
+    private final TaskMetrics metrics;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    /**
+     * acknowledged records not taken by a commit yet, guarded by lock
+     */
+    private List<ConnectRecord> pending = new ArrayList<>();
+    /**
+     * whether a commit of a full batch is submitted and did not take the pending records yet, guarded by lock
+     */
+    private boolean flushQueued;
+    /**
+     * serializes commits, so batches reach the task in the order they were taken
+     */
+    private final Object commitLock = new Object();
+
+    private final Runnable drainListener;
+
+    private volatile Throwable failure;
+    private volatile boolean closed;
+
+    /**
+     * @param task task to commit records to
+     * @param executor executor the commits run on
+     * @param batchSize records committed at once
+     * @param lingerMs maximum time an acknowledged record waits for its batch to fill up
+     * @param maxPending records waiting for a commit before acknowledging blocks
+     * @param metrics metrics recording the commit latency
+     */
+    public SourceCommitCoalescer(SourceTask task, ScheduledExecutorService executor, int batchSize, long lingerMs,
+        int maxPending, TaskMetrics metrics) {
+        this(task, executor, batchSize, lingerMs, maxPending, metrics, null);
+    }
+
+    /**
+     * @param task task to commit records to
+     * @param executor executor the commits run on
+     * @param batchSize records committed at once
+     * @param lingerMs maximum time an acknowledged record waits for its batch to fill up
+     * @param maxPending records waiting for a commit before acknowledging blocks
+     * @param metrics metrics recording the commit latency
+     * @param drainListener run on the committing thread once a commit took the pending records while
+     *     {@link #wantsMore()} was false, may be null
+     */
+    public SourceCommitCoalescer(SourceTask task, ScheduledExecutorService executor, int batchSize, long lingerMs,
+        int maxPending, TaskMetrics metrics, Runnable drainListener) {
+        if (batchSize <= 0 || maxPending < batchSize) {
+            throw new IllegalArgumentException("Invalid batch size " + batchSize + " or max pending " + maxPending);
+        }
+        this.task = task;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.maxPending = maxPending;
+        this.metrics = metrics;
+        this.drainListener = drainListener;
+    }
+
+    /**
+     * Queue acknowledged records for a commit.
+     *
+     * @param records records in acknowledgement order
+     * @throws InterruptedException if interrupted while waiting for pending records to be committed
+     * @throws ConnectException if a previous commit failed or the coalescer is closed
+     */
+    public void acknowledge(List<ConnectRecord> records) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (pending.size() >= maxPending && failure == null && !closed) {
+                notFull.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+        offer(records);
+    }
+
+    /**
+     * Queue acknowledged records for a commit without waiting, even if {@code maxPending} records wait already.
+     *
+     * @param records records in acknowledgement order
+     * @throws ConnectException if a previous commit failed or the coalescer is closed
+     */
+    public void offer(List<ConnectRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        boolean startLinger;
+        boolean flushNow = false;
+        lock.lock();
+        try {
+            checkState();
+            startLinger = pending.isEmpty();
+            pending.addAll(records);
+            if (pending.size() >= batchSize && !flushQueued) {
+                flushQueued = true;
+                flushNow = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            if (flushNow) {
+                executor.execute(this::commitPending);
+            } else if (startLinger) {
+                executor.schedule(this::commitPending, lingerMs, TimeUnit.MILLISECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            // executor shut down, commit on the calling thread
+            commitPending();
+        }
+    }
+
+    /**
+     * Commit the pending records on the calling thread and wait for commits in progress.
+     *
+     * @throws ConnectException if a commit failed
+     */
+    public void flush() {
+        commitPending();
+        checkFailure();
+    }
+
+    /**
+     * Commit the pending records and reject further acknowledgements.
+     *
+     * @throws ConnectException if a commit failed
+     */
+    public void close() {
+        flush();
+        lock.lock();
+        try {
+            closed = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * whether fewer than maxPending records wait for a commit
+     * @return true if acknowledging would not block
+     */
+    public boolean wantsMore() {
+        lock.lock();
+        try {
+            return pending.size() < maxPending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * get the number of records waiting for a commit
+     * @return
+     */
+    public int pending() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * get the error a commit failed with
+     * @return error, or null
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    private void commitPending() {
+        synchronized (commitLock) {
+            List<ConnectRecord> batch;
+            lock.lock();
+            try {
+                flushQueued = false;
+                if (pending.isEmpty() || failure != null) {
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>(Math.min(batch.size(), maxPending));
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (drainListener != null && batch.size() >= maxPending) {
+                drainListener.run();
+            }
+            try {
+                long start = System.nanoTime();
+                task.commit(batch, Collections.emptyMap());
+                metrics.getCommitLatency().record(System.nanoTime() - start);
+            } catch (Throwable e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    notFull.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    private void checkState() {
+        checkFailure();
+        if (closed) {
+            throw new ConnectException("Commit coalescer is closed");
+        }
+    }
+
+    private void checkFailure() {
+        Throwable e = failure;
+        if (e != null) {
+            throw new ConnectException("Failed to commit records", e);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.connector.api.data.ConnectRecord;
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+import io.openmessaging.connector.api.data.RecordPosition;
+import io.openmessaging.connector.api.storage.OffsetStorageWriter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns acknowledgements of records sent out of order into the offsets that are safe to write to an
+ * {@link OffsetStorageWriter}: the offset of a partition only advances to a record once it and every record of
+ * the partition tracked before it are acknowledged.
+ * <p>
+ * Each partition numbers its records and keeps the ones in flight in a ring of offsets with a bitset of the
+ * acknowledged ones. An acknowledgement sets a bit, and only an acknowledgement of the oldest record in flight
+ * moves the watermark, clearing the bits it passes, so each record costs constant amortized time. The ring doubles
+ * when full. A record in flight costs one reference and one bit, whatever the number of records in flight.
+ * <p>
+ * Tracking and acknowledging may happen on different threads, the state of a partition is guarded by itself.
+ */
+public class SourceOffsetTracker {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<RecordPartition, PartitionTracker> partitions = new ConcurrentHashMap<>();
+    /**
+     * partitions whose committable offset moved since the last {@link #committableOffsets()}
+     */
+    private final Queue<PartitionTracker> advanced = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Start tracking a record about to be sent.
+     *
+     * @param record record
+     * @return ticket to acknowledge the record with, null if the record has no partition or offset
+     */
+    public Ticket track(ConnectRecord record) {
+        RecordPosition position = record.getPosition();
+        if (position == null || position.getPartition() == null || position.getOffset() == null) {
+            return null;
+        }
+        PartitionTracker tracker = partitions.get(position.getPartition());
+        if (tracker == null) {
+            tracker = partitions.computeIfAbsent(position.getPartition(), PartitionTracker::new);
+        }
+        long sequence = tracker.add(position.getOffset());
+        inFlight.incrementAndGet();
+        return new Ticket(tracker, sequence);
+    }
+
+    /**
+     * Acknowledge a sent record, acknowledging a record twice has no effect.
+     *
+     * @param ticket ticket returned when the record was tracked, may be null
+     */
+    public void acknowledge(Ticket ticket) {
+        if (ticket == null) {
+            return;
+        }
+        PartitionTracker tracker = ticket.tracker;
+        Acknowledgement acknowledgement = tracker.acknowledge(ticket.sequence);
+        if (acknowledgement == Acknowledgement.IGNORED) {
+            return;
+        }
+        inFlight.decrementAndGet();
+        if (acknowledgement == Acknowledgement.ADVANCED && tracker.markAdvanced()) {
+            advanced.add(tracker);
+        }
+    }
+
+    /**
+     * Take the offsets that moved since the last call.
+     *
+     * @return latest committable offset of every partition that advanced
+     */
+    public Map<RecordPartition, RecordOffset> committableOffsets() {
+        Map<RecordPartition, RecordOffset> offsets = new HashMap<>();
+        PartitionTracker tracker;
+        while ((tracker = advanced.poll()) != null) {
+            offsets.put(tracker.partition, tracker.takeCommittable());
+        }
+        return offsets;
+    }
+
+    /**
+     * get the committable offset of a partition
+     * @param partition partition
+     * @return offset of the latest record acknowledged together with all records before it, or null
+     */
+    public RecordOffset committableOffset(RecordPartition partition) {
+        PartitionTracker tracker = partitions.get(partition);
+        return tracker == null ? null : tracker.committable();
+    }
+
+    /**
+     * get the number of tracked records not acknowledged yet
+     * @return
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Identifies a tracked record.
+     */
+    public static final class Ticket {
+        private final PartitionTracker tracker;
+        private final long sequence;
+
+        private Ticket(PartitionTracker tracker, long sequence) {
+            this.tracker = tracker;
+            this.sequence = sequence;
+        }
+
+        public RecordPartition getPartition() {
+            return tracker.partition;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+    }
+
+    private enum Acknowledgement {
+        /**
+         * the record was not in flight or acknowledged already
+         */
+        IGNORED,
+        /**
+         * the record was acknowledged, a record before it is still in flight
+         */
+        ACKNOWLEDGED,
+        /**
+         * the record was acknowledged and the committable offset moved
+         */
+        ADVANCED
+    }
+
+    private static final class PartitionTracker {
+        final RecordPartition partition;
+
+        /**
+         * offsets of the records in flight, indexed by sequence modulo capacity
+         */
+        private RecordOffset[] offsets = new RecordOffset[INITIAL_CAPACITY];
+        /**
+         * acknowledged records in flight, indexed like offsets
+         */
+        private long[] acknowledged = new long[INITIAL_CAPACITY >>> 6];
+        /**
+         * sequence of the oldest record in flight
+         */
+        private long low;
+        /**
+         * sequence of the next record
+         */
+        private long next;
+        private RecordOffset committable;
+        private boolean advanced;
+
+        PartitionTracker(RecordPartition partition) {
+            this.partition = partition;
+        }
+
+        synchronized long add(RecordOffset offset) {
+            if (next - low == offsets.length) {
+                grow();
+            }
+            offsets[index(next)] = offset;
+            return next++;
+        }
+
+        synchronized Acknowledgement acknowledge(long sequence) {
+            if (sequence < low || sequence >= next) {
+                return Acknowledgement.IGNORED;
+            }
+            int index = index(sequence);
+            long bit = 1L << index;
+            if ((acknowledged[index >>> 6] & bit) != 0) {
+                return Acknowledgement.IGNORED;
+            }
+            acknowledged[index >>> 6] |= bit;
+            return advance() ? Acknowledgement.ADVANCED : Acknowledgement.ACKNOWLEDGED;
+        }
+
+        /**
+         * @return true if the partition has to be queued as advanced, false if it is queued already
+         */
+        synchronized boolean markAdvanced() {
+            if (advanced) {
+                return false;
+            }
+            advanced = true;
+            return true;
+        }
+
+        synchronized RecordOffset takeCommittable() {
+            advanced = false;
+            return committable;
+        }
+
+        synchronized RecordOffset committable() {
+            return committable;
+        }
+
+        /**
+         * move the watermark over the acknowledged records at the start of the ring
+         * @return true if the watermark moved
+         */
+        private boolean advance() {
+            long start = low;
+            int index;
+            long bit;
+            while (low < next && (acknowledged[(index = index(low)) >>> 6] & (bit = 1L << index)) != 0) {
+                acknowledged[index >>> 6] &= ~bit;
+                committable = offsets[index];
+                offsets[index] = null;
+                low++;
+            }
+            return low != start;
+        }
+
+        private void grow() {
+            RecordOffset[] grownOffsets = new RecordOffset[offsets.length << 1];
+            long[] grownAcknowledged = new long[acknowledged.length << 1];
+            int mask = grownOffsets.length - 1;
+            for (long sequence = low; sequence < next; sequence++) {
+                int from = index(sequence);
+                int to = (int) (sequence & mask);
+                grownOffsets[to] = offsets[from];
+                if ((acknowledged[from >>> 6] & (1L << from)) != 0) {
+                    grownAcknowledged[to >>> 6] |= 1L << to;
+                }
+            }
+            offsets = grownOffsets;
+            acknowledged = grownAcknowledged;
+        }
+
+        private int index(long sequence) {
+            return (int) (sequence & (offsets.length - 1));
+        }
+    }
+}
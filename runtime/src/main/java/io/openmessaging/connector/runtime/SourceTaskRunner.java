@@ -0,0 +1,302 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.KeyValue;
+import io.openmessaging.connector.api.component.task.source.SourceTask;
+import io.openmessaging.connector.api.data.ConnectRecord;
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+import io.openmessaging.connector.api.data.RecordPosition;
+import io.openmessaging.connector.api.errors.ConnectException;
+import io.openmessaging.connector.api.metrics.Meter;
+import io.openmessaging.connector.api.metrics.TaskMetrics;
+import io.openmessaging.connector.api.storage.OffsetStorageWriter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a {@link SourceTask}: a dedicated poll thread feeds a bounded queue, a sender thread drains it in batches
+ * into the {@link Transport}.
+ * <p>
+ * A full queue blocks the poll thread, so a slow transport throttles the task instead of piling up records. Up to
+ * {@link WorkerConfig#getMaxInFlightBatches()} sends are in flight, they are acknowledged in send order: a batch is
+ * committed to the task and its offsets recorded only once it and every batch before it completed. Records are
+ * committed to the task in batches through a {@link SourceCommitCoalescer} on the commit executor. Offsets are
+ * written to the {@link OffsetStorageWriter} every {@link WorkerConfig#getOffsetCommitIntervalMs()} and on stop.
+ * A failed send is retried {@link WorkerConfig#getMaxRetries()} times, records may then be delivered more than once.
+ * An empty poll is retried after a backoff doubling up to {@link WorkerConfig#getPollTimeoutMs()}. Both loops run on
+ * threads of the {@link WorkerConfig#getExecutionMode()}.
+ */
+public class SourceTaskRunner {
+
+    private final String name;
+    private final SourceTask task;
+    private final Transport transport;
+    private final OffsetStorageWriter offsetStorageWriter;
+    private final WorkerConfig config;
+    private final TaskMetrics metrics;
+    private final Meter sentRecords;
+    private final BlockingQueue<ConnectRecord> queue;
+    private final SourceCommitCoalescer recordCommits;
+
+    private volatile boolean running;
+    private volatile Throwable failure;
+    private Thread pollThread;
+    private Thread sendThread;
+
+    public SourceTaskRunner(String name, SourceTask task, Transport transport,
+        OffsetStorageWriter offsetStorageWriter, WorkerConfig config, ScheduledExecutorService commitExecutor,
+        TaskMetrics metrics) {
+        this.name = name;
+        this.task = task;
+        this.transport = transport;
+        this.offsetStorageWriter = offsetStorageWriter;
+        this.config = config;
+        this.metrics = metrics;
+        this.sentRecords = metrics.meter("records.sent");
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        this.recordCommits = new SourceCommitCoalescer(task, commitExecutor, config.getRecordCommitBatchSize(),
+            config.getRecordCommitLingerMs(), config.getMaxPendingRecordCommits(), metrics);
+    }
+
+    /**
+     * start the task and its threads
+     * @param taskConfig task config
+     */
+    public synchronized void start(KeyValue taskConfig) {
+        if (running) {
+            throw new ConnectException("Task " + name + " is already running");
+        }
+        task.start(taskConfig);
+        running = true;
+        pollThread = TaskThreads.newThread(config.getExecutionMode(), this::pollLoop, name + "-poll");
+        sendThread = TaskThreads.newThread(config.getExecutionMode(), this::sendLoop, name + "-send");
+        pollThread.start();
+        sendThread.start();
+    }
+
+    /**
+     * Stop polling, send the records still queued and write their offsets, then stop the task once both loops
+     * exited.
+     *
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public synchronized void stop() throws InterruptedException {
+        if (pollThread == null) {
+            return;
+        }
+        running = false;
+        pollThread.interrupt();
+        TaskThreads.join(pollThread, config.getShutdownTimeoutMs());
+        TaskThreads.join(sendThread, config.getShutdownTimeoutMs());
+        pollThread = null;
+        sendThread = null;
+        task.stop();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * get the error the task failed with
+     * @return error, or null
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public TaskMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void pollLoop() {
+        long backoffMs = 0;
+        try {
+            while (running) {
+                long start = System.nanoTime();
+                List<ConnectRecord> records = task.poll();
+                // empty polls count too, a task waiting on its source shows in the latency
+                metrics.getPollLatency().record(System.nanoTime() - start);
+                if (records == null || records.isEmpty()) {
+                    // back off exponentially up to the poll timeout rather than spin on a task without data
+                    backoffMs = Math.min(config.getPollTimeoutMs(), Math.max(1, backoffMs * 2));
+                    Thread.sleep(backoffMs);
+                    continue;
+                }
+                backoffMs = 0;
+                metrics.getBatchSize().record(records.size());
+                metrics.getRecords().mark(records.size());
+                for (ConnectRecord record : records) {
+                    queue.put(record);
+                }
+            }
+        } catch (InterruptedException e) {
+            // stopping
+        } catch (Throwable e) {
+            fail(e);
+        }
+    }
+
+    private void sendLoop() {
+        Deque<InFlight> inFlight = new ArrayDeque<>();
+        Map<RecordPartition, RecordOffset> offsets = new HashMap<>();
+        long nextCommit = System.currentTimeMillis() + config.getOffsetCommitIntervalMs();
+        Thread poller = pollThread;
+        try {
+            while (running || poller.isAlive() || !queue.isEmpty()) {
+                List<ConnectRecord> batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    while (inFlight.size() >= config.getMaxInFlightBatches()) {
+                        acknowledgeHead(inFlight, offsets);
+                    }
+                    inFlight.add(new InFlight(batch, transport.send(batch).toCompletableFuture()));
+                }
+                while (!inFlight.isEmpty() && inFlight.peek().future.isDone()) {
+                    acknowledgeHead(inFlight, offsets);
+                }
+                if (System.currentTimeMillis() >= nextCommit) {
+                    commitOffsets(offsets);
+                    nextCommit = System.currentTimeMillis() + config.getOffsetCommitIntervalMs();
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                acknowledgeHead(inFlight, offsets);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            fail(e);
+        } finally {
+            try {
+                recordCommits.close();
+                commitOffsets(offsets);
+            } catch (Throwable e) {
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * Take up to a batch of records, waiting for the first one up to the poll timeout and for the batch to fill up
+     * to the linger time.
+     */
+    private List<ConnectRecord> nextBatch() throws InterruptedException {
+        int batchSize = config.getBatchSize();
+        ConnectRecord first = queue.poll(config.getPollTimeoutMs(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return Collections.emptyList();
+        }
+        List<ConnectRecord> batch = new ArrayList<>(Math.min(batchSize, queue.size() + 1));
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getLingerMs());
+        while (batch.size() < batchSize && running) {
+            long remaining = deadline - System.nanoTime();
+            ConnectRecord record = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (record == null) {
+                break;
+            }
+            batch.add(record);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+        return batch;
+    }
+
+    /**
+     * Wait for the oldest send, retry it if it failed, then commit its records to the task and record their
+     * offsets.
+     */
+    private void acknowledgeHead(Deque<InFlight> inFlight, Map<RecordPartition, RecordOffset> offsets)
+        throws InterruptedException {
+        InFlight head = inFlight.peek();
+        while (true) {
+            try {
+                head.future.get();
+                break;
+            } catch (ExecutionException e) {
+                metrics.getErrors().increment();
+                if (head.attempts >= config.getMaxRetries()) {
+                    throw new ConnectException("Failed to send " + head.records.size() + " records of task "
+                        + name, e.getCause());
+                }
+                head.attempts++;
+                metrics.getRetries().increment();
+                Thread.sleep(config.getRetryBackoffMs());
+                head.future = transport.send(head.records).toCompletableFuture();
+            }
+        }
+        inFlight.poll();
+        sentRecords.mark(head.records.size());
+        recordCommits.acknowledge(head.records);
+        for (ConnectRecord record : head.records) {
+            RecordPosition position = record.getPosition();
+            if (position != null && position.getPartition() != null && position.getOffset() != null) {
+                offsets.put(position.getPartition(), position.getOffset());
+            }
+        }
+    }
+
+    private void commitOffsets(Map<RecordPartition, RecordOffset> offsets) {
+        if (offsets.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        offsetStorageWriter.writeOffset(new HashMap<>(offsets));
+        offsets.clear();
+        task.commit();
+        metrics.getFlushLatency().record(System.nanoTime() - start);
+    }
+
+    private void fail(Throwable e) {
+        if (failure == null) {
+            failure = e;
+        }
+        metrics.getErrors().increment();
+        running = false;
+        Thread poller = pollThread;
+        if (poller != null) {
+            poller.interrupt();
+        }
+    }
+
+    private static final class InFlight {
+        final List<ConnectRecord> records;
+        CompletableFuture<Void> future;
+        int attempts;
+
+        InFlight(List<ConnectRecord> records, CompletableFuture<Void> future) {
+            this.records = records;
+            this.future = future;
+        }
+    }
+}
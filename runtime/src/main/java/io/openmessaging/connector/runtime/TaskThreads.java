@@ -0,0 +1,122 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.connector.api.errors.ConnectException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Creates the threads of task loops for an {@link ExecutionMode}.
+ * <p>
+ * The module targets Java 8, so virtual threads are created through {@code Thread.ofVirtual()} looked up at
+ * runtime. Where it is missing, or only available as a preview feature that is not enabled,
+ * {@link ExecutionMode#VIRTUAL} falls back to platform threads.
+ */
+final class TaskThreads {
+
+    /**
+     * Thread.ofVirtual(), null if virtual threads are not available
+     */
+    private static final MethodHandle OF_VIRTUAL;
+    /**
+     * Thread.Builder.name(String)
+     */
+    private static final MethodHandle NAME;
+    /**
+     * Thread.Builder.unstarted(Runnable)
+     */
+    private static final MethodHandle UNSTARTED;
+
+    static {
+        MethodHandle ofVirtual = null;
+        MethodHandle name = null;
+        MethodHandle unstarted = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Class<?> ofVirtualBuilder = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualBuilder));
+            name = lookup.findVirtual(builder, "name", MethodType.methodType(builder, String.class));
+            unstarted = lookup.findVirtual(builder, "unstarted", MethodType.methodType(Thread.class, Runnable.class));
+            // throws on JDKs where virtual threads are a preview feature that is not enabled
+            Object probe = ofVirtual.invoke();
+            Thread thread = (Thread) unstarted.invoke(probe, (Runnable) () -> { });
+            if (thread == null) {
+                ofVirtual = null;
+            }
+        } catch (Throwable e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+    }
+
+    private TaskThreads() {
+    }
+
+    /**
+     * Whether this JVM supports virtual threads.
+     *
+     * @return true if {@link ExecutionMode#VIRTUAL} creates virtual threads
+     */
+    static boolean isVirtualSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Create an unstarted thread for a task loop.
+     *
+     * @param mode execution mode
+     * @param runnable loop
+     * @param name thread name
+     * @return thread
+     */
+    static Thread newThread(ExecutionMode mode, Runnable runnable, String name) {
+        if (mode == ExecutionMode.VIRTUAL && OF_VIRTUAL != null) {
+            try {
+                Object builder = NAME.invoke(OF_VIRTUAL.invoke(), name);
+                return (Thread) UNSTARTED.invoke(builder, runnable);
+            } catch (Throwable e) {
+                throw new ConnectException("Cannot create virtual thread " + name, e);
+            }
+        }
+        return new Thread(runnable, name);
+    }
+
+    /**
+     * Wait for a task loop to exit, interrupting it once the timeout elapsed and waiting as long again. The task may
+     * only be stopped once its loops exited.
+     *
+     * @param thread loop thread
+     * @param timeoutMs time to wait before interrupting
+     * @throws InterruptedException if interrupted while waiting
+     * @throws ConnectException if the loop did not exit
+     */
+    static void join(Thread thread, long timeoutMs) throws InterruptedException {
+        thread.join(timeoutMs);
+        if (thread.isAlive()) {
+            thread.interrupt();
+            thread.join(timeoutMs);
+            if (thread.isAlive()) {
+                throw new ConnectException("Thread " + thread.getName() + " did not exit within "
+                    + 2 * timeoutMs + " ms");
+            }
+        }
+    }
+}
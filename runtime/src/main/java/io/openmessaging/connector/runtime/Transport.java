@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.connector.api.data.ConnectRecord;
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The message system records are moved through: source tasks send to it, sink tasks receive from it.
+ * <p>
+ * Records are handed over in batches. {@link #send(List)} may complete asynchronously, runners keep a bounded
+ * number of sends in flight and commit offsets in send order once they complete.
+ */
+public interface Transport {
+
+    /**
+     * Send a batch of records.
+     *
+     * @param records records, owned by the transport once sent
+     * @return stage completed once the records are stored
+     */
+    CompletionStage<Void> send(List<ConnectRecord> records);
+
+    /**
+     * Receive up to maxRecords records, waiting at most timeout for the first one.
+     *
+     * @param maxRecords maximum batch size
+     * @param timeout time to wait for a record
+     * @param unit unit of timeout
+     * @return records, empty if none arrived in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    List<ConnectRecord> receive(int maxRecords, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Commit the consumed offsets of sink records.
+     *
+     * @param offsets offsets by partition
+     */
+    default void commit(Map<RecordPartition, RecordOffset> offsets) {
+    }
+
+    /**
+     * Reposition consumption of the given partitions.
+     *
+     * @param offsets offsets by partition
+     */
+    default void seek(Map<RecordPartition, RecordOffset> offsets) {
+    }
+
+    /**
+     * Release the resources of the transport.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.KeyValue;
+import io.openmessaging.connector.api.component.connector.Connector;
+import io.openmessaging.connector.api.component.task.Task;
+import io.openmessaging.connector.api.component.task.sink.ErrorRecordReporter;
+import io.openmessaging.connector.api.component.task.sink.SinkConnector;
+import io.openmessaging.connector.api.component.task.sink.SinkTask;
+import io.openmessaging.connector.api.component.task.source.SourceConnector;
+import io.openmessaging.connector.api.component.task.source.SourceTask;
+import io.openmessaging.connector.api.errors.ConnectException;
+import io.openmessaging.connector.api.metrics.TaskMetrics;
+import io.openmessaging.connector.api.storage.OffsetStorageReader;
+import io.openmessaging.connector.api.storage.OffsetStorageWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An embedded worker running connectors in process: it starts a connector, creates its tasks from
+ * {@link Connector#taskConfigs(int)} and runs each of them with a {@link SourceTaskRunner} or a
+ * {@link SinkTaskRunner} against one {@link Transport}.
+ * <p>
+ * Combined with an {@link InMemoryTransport} and a {@link MemoryOffsetStore} this benchmarks connectors end to end
+ * without a broker.
+ */
+public class Worker {
+
+    private final WorkerConfig config;
+    private final Transport transport;
+    private final OffsetStorageReader offsetStorageReader;
+    private final OffsetStorageWriter offsetStorageWriter;
+
+    private final List<Connector<?>> connectors = new ArrayList<>();
+    private final List<SourceTaskRunner> sourceRunners = new ArrayList<>();
+    private final List<AsyncSourceTaskRunner> asyncSourceRunners = new ArrayList<>();
+    private final List<SinkTaskRunner> sinkRunners = new ArrayList<>();
+    /**
+     * threads of the async source tasks, created with the first of them
+     */
+    private ScheduledExecutorService asyncScheduler;
+    /**
+     * threads for the blocking calls of the async source tasks, sends, offset writes and blocking polls, created with
+     * the first of them
+     */
+    private ExecutorService asyncBlockingExecutor;
+    /**
+     * threads committing records to the source tasks, created with the first of them
+     */
+    private ScheduledExecutorService commitScheduler;
+
+    public Worker(WorkerConfig config, Transport transport, OffsetStorageReader offsetStorageReader,
+        OffsetStorageWriter offsetStorageWriter) {
+        this.config = config;
+        this.transport = transport;
+        this.offsetStorageReader = offsetStorageReader;
+        this.offsetStorageWriter = offsetStorageWriter;
+    }
+
+    /**
+     * construct a worker keeping records and offsets in memory
+     * @param config worker config
+     */
+    public Worker(WorkerConfig config) {
+        this(config, new InMemoryTransport(config.getQueueCapacity()), new MemoryOffsetStore());
+    }
+
+    private Worker(WorkerConfig config, Transport transport, MemoryOffsetStore offsetStore) {
+        this(config, transport, offsetStore, offsetStore);
+    }
+
+    /**
+     * Start a source connector and up to maxTasks of its tasks.
+     *
+     * @param name connector name
+     * @param connector connector
+     * @param connectorConfig connector config
+     * @param maxTasks maximum number of tasks
+     * @return runners of the started tasks
+     */
+    public synchronized List<SourceTaskRunner> startSourceConnector(String name, SourceConnector connector,
+        KeyValue connectorConfig, int maxTasks) {
+        List<KeyValue> taskConfigs = startConnector(name, connector, connectorConfig, maxTasks);
+        List<SourceTaskRunner> runners = new ArrayList<>(taskConfigs.size());
+        for (int i = 0; i < taskConfigs.size(); i++) {
+            String taskName = name + "-" + i;
+            SourceTask task = (SourceTask) newTask(connector);
+            TaskMetrics metrics = new TaskMetrics();
+            task.init(new DefaultSourceTaskContext(name, taskName, taskConfigs.get(i), offsetStorageReader, metrics));
+            SourceTaskRunner runner = new SourceTaskRunner(taskName, task, transport, offsetStorageWriter, config,
+                commitScheduler(), metrics);
+            runner.start(taskConfigs.get(i));
+            runners.add(runner);
+        }
+        sourceRunners.addAll(runners);
+        return runners;
+    }
+
+    /**
+     * Start a source connector and up to maxTasks of its tasks, polling them through
+     * {@link SourceTask#pollAsync} on {@link WorkerConfig#getAsyncThreads()} threads shared by all such tasks.
+     *
+     * @param name connector name
+     * @param connector connector
+     * @param connectorConfig connector config
+     * @param maxTasks maximum number of tasks
+     * @return runners of the started tasks
+     */
+    public synchronized List<AsyncSourceTaskRunner> startAsyncSourceConnector(String name,
+        SourceConnector connector, KeyValue connectorConfig, int maxTasks) {
+        if (asyncScheduler == null) {
+            AtomicInteger threads = new AtomicInteger();
+            asyncScheduler = Executors.newScheduledThreadPool(config.getAsyncThreads(), runnable -> {
+                Thread thread = new Thread(runnable, "async-source-" + threads.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+            AtomicInteger blockingThreads = new AtomicInteger();
+            asyncBlockingExecutor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "async-source-blocking-" + blockingThreads.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        List<KeyValue> taskConfigs = startConnector(name, connector, connectorConfig, maxTasks);
+        List<AsyncSourceTaskRunner> runners = new ArrayList<>(taskConfigs.size());
+        for (int i = 0; i < taskConfigs.size(); i++) {
+            String taskName = name + "-" + i;
+            SourceTask task = (SourceTask) newTask(connector);
+            TaskMetrics metrics = new TaskMetrics();
+            task.init(new DefaultSourceTaskContext(name, taskName, taskConfigs.get(i), offsetStorageReader, metrics));
+            AsyncSourceTaskRunner runner = new AsyncSourceTaskRunner(taskName, task, transport, offsetStorageWriter,
+                config, asyncScheduler, asyncBlockingExecutor, commitScheduler(), metrics);
+            runner.start(taskConfigs.get(i));
+            runners.add(runner);
+        }
+        asyncSourceRunners.addAll(runners);
+        return runners;
+    }
+
+    /**
+     * Start a sink connector and up to maxTasks of its tasks.
+     *
+     * @param name connector name
+     * @param connector connector
+     * @param connectorConfig connector config
+     * @param maxTasks maximum number of tasks
+     * @param errorRecordReporter reporter handed to the tasks, may be null
+     * @return runners of the started tasks
+     */
+    public synchronized List<SinkTaskRunner> startSinkConnector(String name, SinkConnector connector,
+        KeyValue connectorConfig, int maxTasks, ErrorRecordReporter errorRecordReporter) {
+        List<KeyValue> taskConfigs = startConnector(name, connector, connectorConfig, maxTasks);
+        List<SinkTaskRunner> runners = new ArrayList<>(taskConfigs.size());
+        for (int i = 0; i < taskConfigs.size(); i++) {
+            String taskName = name + "-" + i;
+            SinkTask task = (SinkTask) newTask(connector);
+            TaskMetrics metrics = new TaskMetrics();
+            DefaultSinkTaskContext context = new DefaultSinkTaskContext(name, taskName, taskConfigs.get(i),
+                errorRecordReporter, metrics);
+            task.init(context);
+            SinkTaskRunner runner = new SinkTaskRunner(taskName, task, context, transport, config, metrics);
+            runner.start(taskConfigs.get(i));
+            runners.add(runner);
+        }
+        sinkRunners.addAll(runners);
+        return runners;
+    }
+
+    /**
+     * Stop the source tasks first so their records still reach the sinks, then the sink tasks, the connectors and
+     * the transport. Everything is stopped even if stopping some of it fails, the first error is rethrown.
+     *
+     * @throws InterruptedException if interrupted while waiting for the tasks
+     * @throws ConnectException if a task or connector failed to stop
+     */
+    public synchronized void stop() throws InterruptedException {
+        Exception error = null;
+        for (SourceTaskRunner runner : sourceRunners) {
+            try {
+                runner.stop();
+            } catch (Exception e) {
+                error = firstError(error, e);
+            }
+        }
+        for (AsyncSourceTaskRunner runner : asyncSourceRunners) {
+            try {
+                runner.stop();
+            } catch (Exception e) {
+                error = firstError(error, e);
+            }
+        }
+        for (SinkTaskRunner runner : sinkRunners) {
+            try {
+                runner.stop();
+            } catch (Exception e) {
+                error = firstError(error, e);
+            }
+        }
+        for (Connector<?> connector : connectors) {
+            try {
+                connector.stop();
+            } catch (Exception e) {
+                error = firstError(error, e);
+            }
+        }
+        sourceRunners.clear();
+        asyncSourceRunners.clear();
+        sinkRunners.clear();
+        connectors.clear();
+        try {
+            if (asyncScheduler != null) {
+                asyncScheduler.shutdown();
+                asyncBlockingExecutor.shutdown();
+                asyncScheduler.awaitTermination(config.getShutdownTimeoutMs(), TimeUnit.MILLISECONDS);
+                asyncBlockingExecutor.awaitTermination(config.getShutdownTimeoutMs(), TimeUnit.MILLISECONDS);
+            }
+            if (commitScheduler != null) {
+                commitScheduler.shutdown();
+                commitScheduler.awaitTermination(config.getShutdownTimeoutMs(), TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            error = firstError(error, e);
+        } finally {
+            asyncScheduler = null;
+            asyncBlockingExecutor = null;
+            commitScheduler = null;
+        }
+        try {
+            transport.close();
+        } catch (Exception e) {
+            error = firstError(error, e);
+        }
+        if (error instanceof InterruptedException) {
+            throw (InterruptedException) error;
+        }
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if (error != null) {
+            throw new ConnectException("Failed to stop worker", error);
+        }
+    }
+
+    private static Exception firstError(Exception first, Exception e) {
+        if (first == null) {
+            return e;
+        }
+        first.addSuppressed(e);
+        return first;
+    }
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    public synchronized List<SourceTaskRunner> getSourceRunners() {
+        return new ArrayList<>(sourceRunners);
+    }
+
+    public synchronized List<AsyncSourceTaskRunner> getAsyncSourceRunners() {
+        return new ArrayList<>(asyncSourceRunners);
+    }
+
+    public synchronized List<SinkTaskRunner> getSinkRunners() {
+        return new ArrayList<>(sinkRunners);
+    }
+
+    private ScheduledExecutorService commitScheduler() {
+        if (commitScheduler == null) {
+            AtomicInteger threads = new AtomicInteger();
+            commitScheduler = Executors.newScheduledThreadPool(config.getCommitThreads(), runnable -> {
+                Thread thread = new Thread(runnable, "source-commit-" + threads.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return commitScheduler;
+    }
+
+    private List<KeyValue> startConnector(String name, Connector<?> connector, KeyValue connectorConfig,
+        int maxTasks) {
+        connector.validate(connectorConfig);
+        connector.init(new DefaultConnectorContext(name));
+        connector.start(connectorConfig);
+        connectors.add(connector);
+        List<KeyValue> taskConfigs = connector.taskConfigs(maxTasks);
+        if (taskConfigs.size() > maxTasks) {
+            taskConfigs = taskConfigs.subList(0, maxTasks);
+        }
+        return taskConfigs;
+    }
+
+    private static Task<?> newTask(Connector<?> connector) {
+        Class<?> taskClass = connector.taskClass();
+        try {
+            return (Task<?>) taskClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ConnectException("Cannot instantiate task class " + taskClass.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+/**
+ * Tuning of the embedded worker, the defaults favour throughput.
+ */
+public class WorkerConfig {
+
+    /**
+     * records buffered between the poll thread and the sender of a source task
+     */
+    private int queueCapacity = 16384;
+
+    /**
+     * maximum records handed over in one send or put
+     */
+    private int batchSize = 1024;
+
+    /**
+     * time the sender waits for a batch to fill up
+     */
+    private long lingerMs = 5;
+
+    /**
+     * time a sink waits for records before calling put with what it has
+     */
+    private long pollTimeoutMs = 100;
+
+    /**
+     * sends of a source task in flight at the same time
+     */
+    private int maxInFlightBatches = 4;
+
+    /**
+     * interval of offset commits
+     */
+    private long offsetCommitIntervalMs = 1000;
+
+    /**
+     * retries of a failed send or of a put failing with a retriable exception
+     */
+    private int maxRetries = 3;
+
+    private long retryBackoffMs = 100;
+
+    /**
+     * time stop waits for the threads of a task
+     */
+    private long shutdownTimeoutMs = 5000;
+
+    /**
+     * threads the loops of source and sink task runners run on
+     */
+    private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+
+    /**
+     * threads shared by all tasks run with {@link AsyncSourceTaskRunner}
+     */
+    private int asyncThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * acknowledged records handed to one {@link io.openmessaging.connector.api.component.task.source.SourceTask}
+     * record commit
+     */
+    private int recordCommitBatchSize = 1024;
+
+    /**
+     * maximum time an acknowledged record waits for its commit batch to fill up
+     */
+    private long recordCommitLingerMs = 10;
+
+    /**
+     * acknowledged records of a source task waiting for their commit before sending stalls
+     */
+    private int maxPendingRecordCommits = 65536;
+
+    /**
+     * threads shared by all source tasks committing records
+     */
+    private int commitThreads = 1;
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getLingerMs() {
+        return lingerMs;
+    }
+
+    public void setLingerMs(long lingerMs) {
+        this.lingerMs = lingerMs;
+    }
+
+    public long getPollTimeoutMs() {
+        return pollTimeoutMs;
+    }
+
+    public void setPollTimeoutMs(long pollTimeoutMs) {
+        this.pollTimeoutMs = pollTimeoutMs;
+    }
+
+    public int getMaxInFlightBatches() {
+        return maxInFlightBatches;
+    }
+
+    public void setMaxInFlightBatches(int maxInFlightBatches) {
+        this.maxInFlightBatches = maxInFlightBatches;
+    }
+
+    public long getOffsetCommitIntervalMs() {
+        return offsetCommitIntervalMs;
+    }
+
+    public void setOffsetCommitIntervalMs(long offsetCommitIntervalMs) {
+        this.offsetCommitIntervalMs = offsetCommitIntervalMs;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public long getRetryBackoffMs() {
+        return retryBackoffMs;
+    }
+
+    public void setRetryBackoffMs(long retryBackoffMs) {
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    public long getShutdownTimeoutMs() {
+        return shutdownTimeoutMs;
+    }
+
+    public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    public int getAsyncThreads() {
+        return asyncThreads;
+    }
+
+    public void setAsyncThreads(int asyncThreads) {
+        this.asyncThreads = asyncThreads;
+    }
+
+    public int getRecordCommitBatchSize() {
+        return recordCommitBatchSize;
+    }
+
+    public void setRecordCommitBatchSize(int recordCommitBatchSize) {
+        this.recordCommitBatchSize = recordCommitBatchSize;
+    }
+
+    public long getRecordCommitLingerMs() {
+        return recordCommitLingerMs;
+    }
+
+    public void setRecordCommitLingerMs(long recordCommitLingerMs) {
+        this.recordCommitLingerMs = recordCommitLingerMs;
+    }
+
+    public int getMaxPendingRecordCommits() {
+        return maxPendingRecordCommits;
+    }
+
+    public void setMaxPendingRecordCommits(int maxPendingRecordCommits) {
+        this.maxPendingRecordCommits = maxPendingRecordCommits;
+    }
+
+    public int getCommitThreads() {
+        return commitThreads;
+    }
+
+    public void setCommitThreads(int commitThreads) {
+        this.commitThreads = commitThreads;
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.KeyValue;
+import io.openmessaging.connector.api.component.task.source.SourceTask;
+import io.openmessaging.connector.api.data.ConnectRecord;
+import io.openmessaging.connector.api.data.RecordPartition;
+import io.openmessaging.connector.api.metrics.TaskMetrics;
+import io.openmessaging.internal.DefaultKeyValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.openmessaging.connector.runtime.SourceTaskRunnerTest.record;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncSourceTaskRunnerTest {
+
+    private static final RecordPartition PARTITION = new RecordPartition(Collections.singletonMap("queue", "q0"));
+
+    private final WorkerConfig config = new WorkerConfig();
+    private final MemoryOffsetStore offsets = new MemoryOffsetStore();
+    private ScheduledExecutorService scheduler;
+    private ExecutorService blockingExecutor;
+    private ScheduledExecutorService commitExecutor;
+
+    @Before
+    public void setUp() {
+        config.setPollTimeoutMs(10);
+        config.setOffsetCommitIntervalMs(10);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        blockingExecutor = Executors.newCachedThreadPool();
+        commitExecutor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        scheduler.shutdown();
+        blockingExecutor.shutdown();
+        commitExecutor.shutdown();
+        scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        blockingExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        commitExecutor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    private AsyncSourceTaskRunner runner(SourceTask task, Transport transport) {
+        return new AsyncSourceTaskRunner("async-0", task, transport, offsets, config, scheduler, blockingExecutor,
+            commitExecutor, new TaskMetrics());
+    }
+
+    private void assertSchedulerResponsive() throws Exception {
+        assertEquals(Integer.valueOf(1), scheduler.submit(() -> 1).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testBlockingSendDoesNotHoldScheduler() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryTransport transport = new InMemoryTransport(1024) {
+            @Override
+            public CompletionStage<Void> send(List<ConnectRecord> records) {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.send(records);
+            }
+        };
+        AsyncSourceTaskRunner runner = runner(new CountingTask(100), transport);
+        runner.start(new DefaultKeyValue());
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        assertSchedulerResponsive();
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (transport.size() < 100 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        runner.stop();
+        assertNull(runner.getFailure());
+        assertEquals(100, transport.size());
+        assertEquals(Collections.singletonMap("offset", 99L), offsets.readOffset(PARTITION).getOffset());
+    }
+
+    @Test
+    public void testSlowCommitsPausePolling() throws Exception {
+        config.setRecordCommitBatchSize(10);
+        config.setMaxPendingRecordCommits(20);
+        CountDownLatch release = new CountDownLatch(1);
+        CountingTask task = new CountingTask(10000) {
+            @Override
+            public void commit(List<ConnectRecord> records, Map<String, String> metadata) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                committed.addAndGet(records.size());
+            }
+        };
+        InMemoryTransport transport = new InMemoryTransport(100000);
+        AsyncSourceTaskRunner runner = runner(task, transport);
+        runner.start(new DefaultKeyValue());
+        Thread.sleep(200);
+        int polled = task.polls.get();
+        Thread.sleep(100);
+        // polling stopped once 20 records waited behind the hanging commit, past the sends still in flight then
+        assertEquals(polled, task.polls.get());
+        assertTrue("records sent: " + transport.size(), transport.size() < 10000);
+        assertSchedulerResponsive();
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (task.committed.get() < 10000 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        runner.stop();
+        assertNull(runner.getFailure());
+        assertEquals(10000, task.committed.get());
+    }
+
+    @Test
+    public void testStopDoesNotWaitForPendingPoll() throws Exception {
+        config.setShutdownTimeoutMs(10000);
+        PendingTask task = new PendingTask();
+        InMemoryTransport transport = new InMemoryTransport(1024);
+        AsyncSourceTaskRunner runner = runner(task, transport);
+        runner.start(new DefaultKeyValue());
+        CompletableFuture<List<ConnectRecord>> poll = task.polls.poll(5, TimeUnit.SECONDS);
+        assertNotNull(poll);
+        long start = System.currentTimeMillis();
+        runner.stop();
+        long stopMs = System.currentTimeMillis() - start;
+        assertTrue("stop took " + stopMs + " ms", stopMs < 1000);
+        assertTrue(task.stopped);
+
+        // the poll completes after the task stopped, its records are dropped
+        poll.complete(Collections.singletonList(record(PARTITION, 0)));
+        Thread.sleep(100);
+        assertEquals(0, transport.size());
+        assertEquals(0, task.committed.get());
+        assertNull(offsets.readOffset(PARTITION));
+        assertNull(runner.getFailure());
+    }
+
+    /**
+     * Polls complete only when the test completes them, like an idle source.
+     */
+    private static class PendingTask extends SourceTask {
+
+        final BlockingQueue<CompletableFuture<List<ConnectRecord>>> polls = new LinkedBlockingQueue<>();
+        final AtomicInteger committed = new AtomicInteger();
+        volatile boolean stopped;
+
+        @Override
+        public CompletionStage<List<ConnectRecord>> pollAsync(Executor executor) {
+            CompletableFuture<List<ConnectRecord>> poll = new CompletableFuture<>();
+            polls.add(poll);
+            return poll;
+        }
+
+        @Override
+        public List<ConnectRecord> poll() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void commit(List<ConnectRecord> records, Map<String, String> metadata) {
+            committed.addAndGet(records.size());
+        }
+
+        @Override
+        public void start(KeyValue config) {
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+        }
+    }
+
+    /**
+     * Polls up to a number of records of one partition without blocking, ten at a time.
+     */
+    private static class CountingTask extends SourceTask {
+
+        private final int total;
+        final AtomicInteger polls = new AtomicInteger();
+        final AtomicInteger committed = new AtomicInteger();
+        private long next;
+
+        CountingTask(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public CompletionStage<List<ConnectRecord>> pollAsync(Executor executor) {
+            polls.incrementAndGet();
+            List<ConnectRecord> records = new ArrayList<>();
+            while (records.size() < 10 && next < total) {
+                records.add(record(PARTITION, next++));
+            }
+            return CompletableFuture.completedFuture(records);
+        }
+
+        @Override
+        public List<ConnectRecord> poll() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void start(KeyValue config) {
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+}
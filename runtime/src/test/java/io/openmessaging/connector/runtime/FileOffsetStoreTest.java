@@ -0,0 +1,239 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FileOffsetStoreTest {
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("offsets");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private FileOffsetStore open(int segmentBytes) {
+        return new FileOffsetStore(directory, segmentBytes, false, 0);
+    }
+
+    private static RecordPartition partition(int queue) {
+        return new RecordPartition(Collections.singletonMap("queue", "q" + queue));
+    }
+
+    private static RecordOffset offset(long offset) {
+        return new RecordOffset(Collections.singletonMap("offset", offset));
+    }
+
+    private static void assertOffset(FileOffsetStore store, int queue, long expected) {
+        RecordOffset offset = store.readOffset(partition(queue));
+        assertEquals("offset of q" + queue, offset(expected).getOffset(), offset == null ? null : offset.getOffset());
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.log")) {
+            files.forEach(segments::add);
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * @return the position after the last entry of a segment file
+     */
+    private static int end(byte[] segment) {
+        ByteBuffer in = ByteBuffer.wrap(segment).order(ByteOrder.BIG_ENDIAN);
+        int position = 0;
+        while (position + 8 <= segment.length && in.getInt(position) > 0) {
+            position += 8 + in.getInt(position);
+        }
+        return position;
+    }
+
+    /**
+     * @return the bytes of one entry of the partitions and offsets the tests write
+     */
+    private int entryBytes() throws IOException {
+        try (FileOffsetStore store = open(1024)) {
+            store.writeOffset(partition(0), offset(0));
+        }
+        Path segment = segments().get(0);
+        int bytes = end(Files.readAllBytes(segment));
+        Files.delete(segment);
+        return bytes;
+    }
+
+    @Test
+    public void testOffsetsSurviveReopen() {
+        try (FileOffsetStore store = open(1024)) {
+            for (int i = 0; i < 5; i++) {
+                store.writeOffset(partition(i), offset(i));
+            }
+            store.writeOffset(partition(0), offset(100));
+        }
+        try (FileOffsetStore store = open(1024)) {
+            assertEquals(5, store.size());
+            assertOffset(store, 0, 100);
+            for (int i = 1; i < 5; i++) {
+                assertOffset(store, i, i);
+            }
+        }
+    }
+
+    @Test
+    public void testTornTailIsTruncatedAndZeroed() throws IOException {
+        try (FileOffsetStore store = open(1024)) {
+            store.writeOffset(partition(0), offset(1));
+            store.writeOffset(partition(1), offset(1));
+        }
+        Path segment = segments().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        int end = end(bytes);
+        // a write cut short by a crash: its header claims more bytes than reached the file
+        ByteBuffer torn = ByteBuffer.wrap(bytes, end, 12);
+        torn.putInt(40).putInt(0xcafe).putInt(0x01020304);
+        // a stale entry behind it, as left by a segment file that is reused
+        System.arraycopy(bytes, 0, bytes, end + 64, end);
+        Files.write(segment, bytes);
+
+        try (FileOffsetStore store = open(1024)) {
+            assertEquals(2, store.size());
+            assertOffset(store, 0, 1);
+            assertOffset(store, 1, 1);
+        }
+        bytes = Files.readAllBytes(segment);
+        assertArrayEquals(new byte[bytes.length - end], Arrays.copyOfRange(bytes, end, bytes.length));
+
+        try (FileOffsetStore store = open(1024)) {
+            store.writeOffset(partition(0), offset(2));
+        }
+        try (FileOffsetStore store = open(1024)) {
+            assertOffset(store, 0, 2);
+            assertOffset(store, 1, 1);
+        }
+    }
+
+    @Test
+    public void testFullLastSegmentRollsOver() throws IOException {
+        int entry = entryBytes();
+        try (FileOffsetStore store = open(3 * entry)) {
+            for (int i = 0; i < 3; i++) {
+                store.writeOffset(partition(i), offset(i));
+            }
+            assertEquals(1, store.segmentCount());
+        }
+        try (FileOffsetStore store = open(3 * entry)) {
+            assertEquals(1, store.segmentCount());
+            store.writeOffset(partition(0), offset(10));
+            store.writeOffset(partition(3), offset(3));
+            assertEquals(2, store.segmentCount());
+        }
+        try (FileOffsetStore store = open(3 * entry)) {
+            assertEquals(2, segments().size());
+            assertEquals(4, store.size());
+            assertOffset(store, 0, 10);
+            for (int i = 1; i < 4; i++) {
+                assertOffset(store, i, i);
+            }
+        }
+    }
+
+    @Test
+    public void testInterruptedCompactionReplays() throws IOException {
+        int entry = entryBytes();
+        try (FileOffsetStore store = open(2 * entry)) {
+            // segments 0 and 1 hold superseded offsets of q0 and q1, the active one the last of q0
+            for (long round = 0; round < 3; round++) {
+                store.writeOffset(partition(0), offset(round));
+                store.writeOffset(partition(1), offset(round));
+            }
+            store.writeOffset(partition(0), offset(3));
+            assertEquals(4, store.segmentCount());
+        }
+        List<Path> before = segments();
+        byte[] stale = Files.readAllBytes(before.get(0));
+
+        try (FileOffsetStore store = open(2 * entry)) {
+            assertTrue(store.compact());
+            assertEquals(2, store.segmentCount());
+        }
+        // put back what the compaction deletes after its rename, and a temporary file of a later one
+        Files.write(before.get(0), stale);
+        Files.write(directory.resolve(before.get(2).getFileName() + ".compact"), new byte[] {1, 2, 3});
+
+        try (FileOffsetStore store = open(2 * entry)) {
+            assertEquals(2, store.size());
+            assertOffset(store, 0, 3);
+            assertOffset(store, 1, 2);
+            assertFalse(Files.exists(directory.resolve(before.get(2).getFileName() + ".compact")));
+            // the next compaction collapses the stale segment again
+            assertTrue(store.compact());
+            assertFalse(Files.exists(before.get(0)));
+        }
+        try (FileOffsetStore store = open(2 * entry)) {
+            assertOffset(store, 0, 3);
+            assertOffset(store, 1, 2);
+        }
+    }
+
+    @Test
+    public void testUnrelatedLogFilesAreIgnored() throws IOException {
+        Files.write(directory.resolve("foo.log"), new byte[] {1, 2, 3});
+        Files.write(directory.resolve(".log"), new byte[0]);
+        try (FileOffsetStore store = open(1024)) {
+            assertNull(store.readOffset(partition(0)));
+            store.writeOffset(partition(0), offset(1));
+        }
+        try (FileOffsetStore store = open(1024)) {
+            assertEquals(1, store.size());
+            assertOffset(store, 0, 1);
+        }
+        assertTrue(Files.exists(directory.resolve("foo.log")));
+    }
+}
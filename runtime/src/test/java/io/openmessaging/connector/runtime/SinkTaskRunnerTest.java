@@ -0,0 +1,180 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.KeyValue;
+import io.openmessaging.connector.api.component.task.sink.SinkTask;
+import io.openmessaging.connector.api.data.ConnectRecord;
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+import io.openmessaging.connector.api.metrics.TaskMetrics;
+import io.openmessaging.internal.DefaultKeyValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.openmessaging.connector.runtime.SourceTaskRunnerTest.record;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SinkTaskRunnerTest {
+
+    private static final RecordPartition PAUSED = new RecordPartition(Collections.singletonMap("queue", "q0"));
+    private static final RecordPartition ACTIVE = new RecordPartition(Collections.singletonMap("queue", "q1"));
+
+    private final WorkerConfig config = new WorkerConfig();
+    private final CountDownLatch seeked = new CountDownLatch(1);
+    private final InMemoryTransport transport = new InMemoryTransport(1024) {
+        @Override
+        public void seek(Map<RecordPartition, RecordOffset> offsets) {
+            seeked.countDown();
+        }
+    };
+    private final RecordingTask task = new RecordingTask();
+    private DefaultSinkTaskContext context;
+    private SinkTaskRunner runner;
+
+    @Before
+    public void setUp() {
+        config.setPollTimeoutMs(10);
+        config.setOffsetCommitIntervalMs(10);
+        TaskMetrics metrics = new TaskMetrics();
+        context = new DefaultSinkTaskContext("sink", "sink-0", new DefaultKeyValue(), null, metrics);
+        task.init(context);
+        runner = new SinkTaskRunner("sink-0", task, context, transport, config, metrics);
+    }
+
+    private void awaitPut(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (task.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, task.size());
+    }
+
+    @Test
+    public void testPausedPartitionIsHeldUntilResumed() throws InterruptedException {
+        context.pause(Collections.singletonList(PAUSED));
+        runner.start(new DefaultKeyValue());
+        transport.send(Arrays.asList(record(PAUSED, 0), record(ACTIVE, 0), record(PAUSED, 1)));
+        awaitPut(1);
+        context.resume(Collections.singletonList(PAUSED));
+        awaitPut(3);
+        runner.stop();
+        assertNull(runner.getFailure());
+        assertEquals(Collections.singletonMap("offset", 1L), transport.committedOffsets().get(PAUSED).getOffset());
+    }
+
+    @Test
+    public void testSeekDropsHeldRecords() throws InterruptedException {
+        context.pause(Collections.singletonList(PAUSED));
+        runner.start(new DefaultKeyValue());
+        transport.send(Arrays.asList(record(PAUSED, 0), record(ACTIVE, 0), record(PAUSED, 1)));
+        awaitPut(1);
+        context.resetOffset(PAUSED, new RecordOffset(Collections.singletonMap("offset", 0L)));
+        assertTrue(seeked.await(5, TimeUnit.SECONDS));
+        context.resume(Collections.singletonList(PAUSED));
+        // the records of the partition are received again from the new offset
+        transport.send(Collections.singletonList(record(PAUSED, 0)));
+        awaitPut(2);
+        Thread.sleep(50);
+        runner.stop();
+        assertEquals(2, task.size());
+        assertEquals(ACTIVE, task.records.get(0).getPosition().getPartition());
+        assertEquals(PAUSED, task.records.get(1).getPosition().getPartition());
+    }
+
+    @Test
+    public void testSeekResetsCommittedOffset() throws InterruptedException {
+        runner.start(new DefaultKeyValue());
+        transport.send(Arrays.asList(record(ACTIVE, 0), record(ACTIVE, 1), record(ACTIVE, 2), record(ACTIVE, 3)));
+        awaitPut(4);
+        RecordOffset reset = new RecordOffset(Collections.singletonMap("offset", 1L));
+        context.resetOffset(ACTIVE, reset);
+        assertTrue(seeked.await(5, TimeUnit.SECONDS));
+        // committing the offsets put before the seek would skip the records after the reset point on restart
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!reset.equals(transport.committedOffsets().get(ACTIVE)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        runner.stop();
+        assertEquals(reset, transport.committedOffsets().get(ACTIVE));
+    }
+
+    @Test
+    public void testTaskStoppedAfterLoopExits() throws InterruptedException {
+        task.putMillis = 200;
+        runner.start(new DefaultKeyValue());
+        transport.send(Collections.singletonList(record(ACTIVE, 0)));
+        while (!task.putting) {
+            Thread.sleep(1);
+        }
+        runner.stop();
+        assertTrue(task.stopped);
+        assertFalse("stop() ran while put() was in progress", task.stoppedWhilePutting);
+    }
+
+    private static final class RecordingTask extends SinkTask {
+
+        private final List<ConnectRecord> records = new ArrayList<>();
+        private volatile long putMillis;
+        private volatile boolean putting;
+        private volatile boolean stopped;
+        private volatile boolean stoppedWhilePutting;
+
+        @Override
+        public void put(List<ConnectRecord> sinkRecords) {
+            putting = true;
+            try {
+                if (putMillis > 0) {
+                    Thread.sleep(putMillis);
+                }
+                synchronized (records) {
+                    records.addAll(sinkRecords);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                putting = false;
+            }
+        }
+
+        int size() {
+            synchronized (records) {
+                return records.size();
+            }
+        }
+
+        @Override
+        public void start(KeyValue config) {
+        }
+
+        @Override
+        public void stop() {
+            stoppedWhilePutting = putting;
+            stopped = true;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.KeyValue;
+import io.openmessaging.connector.api.component.task.source.SourceTask;
+import io.openmessaging.connector.api.data.ConnectRecord;
+import io.openmessaging.connector.api.data.RecordPartition;
+import io.openmessaging.connector.api.errors.ConnectException;
+import io.openmessaging.connector.api.metrics.TaskMetrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.openmessaging.connector.runtime.SourceTaskRunnerTest.record;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SourceCommitCoalescerTest {
+
+    private static final RecordPartition PARTITION = new RecordPartition(Collections.singletonMap("queue", "q0"));
+
+    private final RecordingTask task = new RecordingTask();
+    private ScheduledExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newScheduledThreadPool(4);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        task.release.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    private SourceCommitCoalescer coalescer(SourceTask task, int batchSize, long lingerMs, int maxPending) {
+        return new SourceCommitCoalescer(task, executor, batchSize, lingerMs, maxPending, new TaskMetrics());
+    }
+
+    private static List<ConnectRecord> records(long from, int count) {
+        List<ConnectRecord> records = new ArrayList<>(count);
+        for (long i = from; i < from + count; i++) {
+            records.add(record(PARTITION, i));
+        }
+        return records;
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedException {
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testPartialBatchCommittedAfterLinger() throws InterruptedException {
+        SourceCommitCoalescer coalescer = coalescer(task, 10, 100, 100);
+        long start = System.nanoTime();
+        coalescer.offer(records(0, 3));
+        await(task.committing);
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("committed after " + waitedMs + " ms", waitedMs >= 90);
+        task.release.countDown();
+        coalescer.close();
+        assertEquals(Collections.singletonList(3), task.batchSizes());
+    }
+
+    @Test
+    public void testFullBatchCommittedWithoutLinger() throws InterruptedException {
+        SourceCommitCoalescer coalescer = coalescer(task, 10, 60000, 100);
+        coalescer.offer(records(0, 4));
+        coalescer.offer(records(4, 6));
+        await(task.committing);
+        task.release.countDown();
+        coalescer.close();
+        assertEquals(Collections.singletonList(10), task.batchSizes());
+    }
+
+    @Test
+    public void testBatchesKeepAcknowledgementOrder() throws InterruptedException {
+        task.release.countDown();
+        SourceCommitCoalescer coalescer = coalescer(task, 5, 1, 20);
+        for (long i = 0; i < 1000; i += 3) {
+            coalescer.acknowledge(records(i, 3));
+        }
+        coalescer.close();
+        List<ConnectRecord> committed = task.committed();
+        assertEquals(1002, committed.size());
+        for (int i = 0; i < committed.size(); i++) {
+            assertEquals("record-" + i, committed.get(i).getData());
+        }
+        assertTrue("batches: " + task.batchSizes().size(), task.batchSizes().size() > 1);
+    }
+
+    @Test
+    public void testAcknowledgeBlocksAtMaxPending() throws InterruptedException {
+        SourceCommitCoalescer coalescer = coalescer(task, 5, 60000, 10);
+        coalescer.acknowledge(records(0, 5));
+        // the first batch hangs in the task, the next ones queue up behind it
+        await(task.committing);
+        coalescer.acknowledge(records(5, 10));
+        assertFalse(coalescer.wantsMore());
+        CountDownLatch acknowledged = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                coalescer.acknowledge(records(15, 5));
+                acknowledged.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        assertFalse(acknowledged.await(200, TimeUnit.MILLISECONDS));
+        task.release.countDown();
+        await(acknowledged);
+        producer.join();
+        coalescer.close();
+        assertEquals(20, task.committed().size());
+    }
+
+    @Test
+    public void testCommitFailureRethrown() throws InterruptedException {
+        RuntimeException error = new IllegalStateException("upstream unavailable");
+        task.failure = error;
+        task.release.countDown();
+        SourceCommitCoalescer coalescer = coalescer(task, 5, 60000, 10);
+        coalescer.acknowledge(records(0, 5));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (coalescer.getFailure() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertSame(error, coalescer.getFailure());
+        try {
+            coalescer.acknowledge(records(5, 1));
+            fail("acknowledged after a failed commit");
+        } catch (ConnectException e) {
+            assertSame(error, e.getCause());
+        }
+        try {
+            coalescer.flush();
+            fail("flushed after a failed commit");
+        } catch (ConnectException e) {
+            assertSame(error, e.getCause());
+        }
+    }
+
+    @Test
+    public void testRecordCommitHookReceivesBatches() throws InterruptedException {
+        List<ConnectRecord> committed = Collections.synchronizedList(new ArrayList<>());
+        // a task overriding only the documented per-record hook
+        SourceTask perRecordTask = new SourceTask() {
+            @Override
+            public List<ConnectRecord> poll() {
+                return null;
+            }
+
+            @Override
+            public void commit(ConnectRecord record) {
+                committed.add(record);
+            }
+
+            @Override
+            public void start(KeyValue config) {
+            }
+
+            @Override
+            public void stop() {
+            }
+        };
+        SourceCommitCoalescer coalescer = coalescer(perRecordTask, 5, 1, 10);
+        coalescer.acknowledge(records(0, 12));
+        coalescer.close();
+        assertEquals(12, committed.size());
+        for (int i = 0; i < committed.size(); i++) {
+            assertEquals("record-" + i, committed.get(i).getData());
+        }
+    }
+
+    /**
+     * Records the batches committed to it, each commit waiting for the release latch.
+     */
+    private static class RecordingTask extends SourceTask {
+
+        private final List<List<ConnectRecord>> batches = new ArrayList<>();
+        final CountDownLatch committing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile RuntimeException failure;
+
+        @Override
+        public void commit(List<ConnectRecord> records, Map<String, String> metadata) {
+            committing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            synchronized (batches) {
+                batches.add(new ArrayList<>(records));
+            }
+        }
+
+        List<Integer> batchSizes() {
+            List<Integer> sizes = new ArrayList<>();
+            synchronized (batches) {
+                for (List<ConnectRecord> batch : batches) {
+                    sizes.add(batch.size());
+                }
+            }
+            return sizes;
+        }
+
+        List<ConnectRecord> committed() {
+            List<ConnectRecord> records = new ArrayList<>();
+            synchronized (batches) {
+                batches.forEach(records::addAll);
+            }
+            return records;
+        }
+
+        @Override
+        public List<ConnectRecord> poll() {
+            return null;
+        }
+
+        @Override
+        public void start(KeyValue config) {
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+}
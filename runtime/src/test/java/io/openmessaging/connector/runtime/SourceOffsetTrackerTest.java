@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static io.openmessaging.connector.runtime.SourceTaskRunnerTest.record;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SourceOffsetTrackerTest {
+
+    private static final RecordPartition P0 = new RecordPartition(Collections.singletonMap("queue", "q0"));
+    private static final RecordPartition P1 = new RecordPartition(Collections.singletonMap("queue", "q1"));
+
+    private final SourceOffsetTracker tracker = new SourceOffsetTracker();
+
+    private static Object offsetOf(RecordOffset offset) {
+        return offset.getOffset().get("offset");
+    }
+
+    @Test
+    public void testOffsetAdvancesOverAcknowledgedPrefix() {
+        List<SourceOffsetTracker.Ticket> tickets = new ArrayList<>();
+        for (long i = 0; i < 4; i++) {
+            tickets.add(tracker.track(record(P0, i)));
+        }
+        tracker.acknowledge(tickets.get(1));
+        tracker.acknowledge(tickets.get(2));
+        assertNull(tracker.committableOffset(P0));
+        assertTrue(tracker.committableOffsets().isEmpty());
+
+        tracker.acknowledge(tickets.get(0));
+        assertEquals(2L, offsetOf(tracker.committableOffsets().get(P0)));
+        assertEquals(1, tracker.inFlight());
+    }
+
+    @Test
+    public void testAcknowledgementThatDoesNotAdvanceIsNotQueued() {
+        SourceOffsetTracker.Ticket first = tracker.track(record(P0, 0));
+        SourceOffsetTracker.Ticket second = tracker.track(record(P0, 1));
+        SourceOffsetTracker.Ticket third = tracker.track(record(P0, 2));
+        tracker.acknowledge(first);
+        assertEquals(0L, offsetOf(tracker.committableOffsets().get(P0)));
+
+        // the committable offset is still the one already taken
+        tracker.acknowledge(third);
+        assertTrue(tracker.committableOffsets().isEmpty());
+
+        tracker.acknowledge(second);
+        assertEquals(2L, offsetOf(tracker.committableOffsets().get(P0)));
+    }
+
+    @Test
+    public void testDuplicateAcknowledgementIgnored() {
+        SourceOffsetTracker.Ticket first = tracker.track(record(P0, 0));
+        tracker.track(record(P0, 1));
+        tracker.acknowledge(first);
+        tracker.acknowledge(first);
+        assertEquals(1, tracker.inFlight());
+        assertEquals(1, tracker.committableOffsets().size());
+        tracker.acknowledge(first);
+        assertTrue(tracker.committableOffsets().isEmpty());
+    }
+
+    @Test
+    public void testShuffledAcknowledgementsAcrossRingGrowth() {
+        List<SourceOffsetTracker.Ticket> tickets = new ArrayList<>();
+        for (long i = 0; i < 1000; i++) {
+            tickets.add(tracker.track(record(i % 2 == 0 ? P0 : P1, i)));
+        }
+        Collections.shuffle(tickets, new Random(7));
+        for (SourceOffsetTracker.Ticket ticket : tickets) {
+            tracker.acknowledge(ticket);
+        }
+        Map<RecordPartition, RecordOffset> offsets = tracker.committableOffsets();
+        assertEquals(998L, offsetOf(offsets.get(P0)));
+        assertEquals(999L, offsetOf(offsets.get(P1)));
+        assertEquals(0, tracker.inFlight());
+        assertTrue(tracker.committableOffsets().isEmpty());
+    }
+}
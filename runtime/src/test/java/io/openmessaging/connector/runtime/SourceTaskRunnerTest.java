@@ -0,0 +1,157 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.KeyValue;
+import io.openmessaging.connector.api.component.task.source.SourceTask;
+import io.openmessaging.connector.api.data.ConnectRecord;
+import io.openmessaging.connector.api.data.RecordOffset;
+import io.openmessaging.connector.api.data.RecordPartition;
+import io.openmessaging.connector.api.metrics.TaskMetrics;
+import io.openmessaging.internal.DefaultKeyValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SourceTaskRunnerTest {
+
+    private static final RecordPartition PARTITION = new RecordPartition(Collections.singletonMap("queue", "q0"));
+
+    private final WorkerConfig config = new WorkerConfig();
+    private final InMemoryTransport transport = new InMemoryTransport(1024);
+    private final MemoryOffsetStore offsets = new MemoryOffsetStore();
+    private ScheduledExecutorService commitExecutor;
+
+    @Before
+    public void setUp() {
+        config.setPollTimeoutMs(50);
+        config.setLingerMs(1);
+        config.setOffsetCommitIntervalMs(10);
+        commitExecutor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        commitExecutor.shutdown();
+        commitExecutor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    private SourceTaskRunner runner(SourceTask task) {
+        return new SourceTaskRunner("source-0", task, transport, offsets, config, commitExecutor, new TaskMetrics());
+    }
+
+    static ConnectRecord record(RecordPartition partition, long offset) {
+        return new ConnectRecord(partition, new RecordOffset(Collections.singletonMap("offset", offset)),
+            System.currentTimeMillis(), null, "record-" + offset);
+    }
+
+    @Test
+    public void testEmptyPollsBackOff() throws InterruptedException {
+        CountingTask task = new CountingTask(0);
+        SourceTaskRunner runner = runner(task);
+        runner.start(new DefaultKeyValue());
+        Thread.sleep(500);
+        runner.stop();
+        // a spinning loop polls millions of times, backing off up to 50 ms about a dozen
+        assertTrue("polls: " + task.polls.get(), task.polls.get() < 50);
+        assertNull(runner.getFailure());
+    }
+
+    @Test
+    public void testRecordsSentAndOffsetsWritten() throws InterruptedException {
+        CountingTask task = new CountingTask(1000);
+        SourceTaskRunner runner = runner(task);
+        runner.start(new DefaultKeyValue());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (transport.size() < 1000 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        runner.stop();
+        assertEquals(1000, transport.size());
+        assertEquals(Collections.singletonMap("offset", 999L), offsets.readOffset(PARTITION).getOffset());
+        assertNull(runner.getFailure());
+    }
+
+    @Test
+    public void testTaskStoppedAfterLoopsExit() throws InterruptedException {
+        CountingTask task = new CountingTask(200);
+        SourceTaskRunner runner = runner(task);
+        runner.start(new DefaultKeyValue());
+        Thread.sleep(50);
+        runner.stop();
+        assertTrue(task.stopped);
+        assertFalse("stop() ran while poll() was in progress", task.stoppedWhilePolling);
+        assertTrue("offsets were not written before stop()", task.offsetWrittenBeforeStop);
+    }
+
+    /**
+     * Polls up to a number of records of one partition, ten at a time.
+     */
+    private final class CountingTask extends SourceTask {
+
+        private final int total;
+        private final AtomicInteger polls = new AtomicInteger();
+        private volatile boolean polling;
+        private volatile boolean stopped;
+        private volatile boolean stoppedWhilePolling;
+        private volatile boolean offsetWrittenBeforeStop;
+        private long next;
+
+        CountingTask(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public List<ConnectRecord> poll() throws InterruptedException {
+            polling = true;
+            try {
+                polls.incrementAndGet();
+                List<ConnectRecord> records = new ArrayList<>();
+                while (records.size() < 10 && next < total) {
+                    records.add(record(PARTITION, next++));
+                }
+                Thread.sleep(1);
+                return records;
+            } finally {
+                polling = false;
+            }
+        }
+
+        @Override
+        public void start(KeyValue config) {
+        }
+
+        @Override
+        public void stop() {
+            stoppedWhilePolling = polling;
+            offsetWrittenBeforeStop = next == 0 || offsets.readOffset(PARTITION) != null;
+            stopped = true;
+        }
+    }
+}
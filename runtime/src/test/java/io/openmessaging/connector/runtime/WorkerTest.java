@@ -0,0 +1,113 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.openmessaging.connector.runtime;
+
+import io.openmessaging.KeyValue;
+import io.openmessaging.connector.api.component.task.sink.SinkConnector;
+import io.openmessaging.connector.api.component.task.sink.SinkTask;
+import io.openmessaging.connector.api.data.ConnectRecord;
+import io.openmessaging.connector.api.errors.ConnectException;
+import io.openmessaging.internal.DefaultKeyValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WorkerTest {
+
+    private static final AtomicInteger STOPPED_TASKS = new AtomicInteger();
+
+    @Test
+    public void testStopContinuesPastFailingTask() throws InterruptedException {
+        STOPPED_TASKS.set(0);
+        WorkerConfig config = new WorkerConfig();
+        config.setPollTimeoutMs(10);
+        Worker worker = new Worker(config);
+        FailingSinkConnector first = new FailingSinkConnector();
+        FailingSinkConnector second = new FailingSinkConnector();
+        worker.startSinkConnector("first", first, new DefaultKeyValue(), 3, null);
+        worker.startSinkConnector("second", second, new DefaultKeyValue(), 3, null);
+        try {
+            worker.stop();
+            fail("the failing tasks were not reported");
+        } catch (ConnectException e) {
+            assertEquals("task 0 failed to stop", e.getMessage());
+            assertEquals(1, e.getSuppressed().length);
+        }
+        // every task ran its stop, not only those before the first failure
+        assertEquals(6, STOPPED_TASKS.get());
+        assertTrue(first.stopped && second.stopped);
+        assertTrue(worker.getSinkRunners().isEmpty());
+    }
+
+    public static class FailingSinkConnector extends SinkConnector {
+
+        private volatile boolean stopped;
+
+        @Override
+        public List<KeyValue> taskConfigs(int maxTasks) {
+            List<KeyValue> configs = new ArrayList<>();
+            for (int i = 0; i < maxTasks; i++) {
+                configs.add(new DefaultKeyValue().put("task", i));
+            }
+            return configs;
+        }
+
+        @Override
+        public Class<FailingSinkTask> taskClass() {
+            return FailingSinkTask.class;
+        }
+
+        @Override
+        public void start(KeyValue config) {
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+        }
+    }
+
+    /**
+     * The first task of each connector fails to stop.
+     */
+    public static class FailingSinkTask extends SinkTask {
+
+        private int task;
+
+        @Override
+        public void put(List<ConnectRecord> sinkRecords) {
+        }
+
+        @Override
+        public void start(KeyValue config) {
+            task = config.getInt("task");
+        }
+
+        @Override
+        public void stop() {
+            STOPPED_TASKS.incrementAndGet();
+            if (task == 0) {
+                throw new ConnectException("task " + task + " failed to stop");
+            }
+        }
+    }
+}